@@ -9,6 +9,7 @@ plugins {
     id("maven-publish")
     id("code-quality")
     id("com.github.spotbugs") version "6.4.8"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.mbi"
@@ -20,9 +21,10 @@ repositories {
 }
 
 dependencies {
-    implementation("org.testng:testng:7.12.0")
     implementation("joda-time:joda-time:2.14.0")
-    implementation("tools.jackson.core:jackson-databind:3.0.4")
+    testImplementation("org.testng:testng:7.12.0")
+    // Only for the legacy formula parser that DateTimeParserBenchmark compares with
+    jmhImplementation("tools.jackson.core:jackson-databind:3.0.4")
 }
 
 tasks.test {
@@ -47,6 +49,14 @@ tasks.jacocoTestReport {
     }
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.set(listOf(it)) }
+}
+
 java {
     withJavadocJar()
     withSourcesJar()
@@ -73,6 +83,9 @@ tasks {
     named("checkstyleTest") { enabled = false }
     named("pmdTest") { enabled = false }
     named("spotbugsTest") { enabled = false }
+    named("checkstyleJmh") { enabled = false }
+    named("pmdJmh") { enabled = false }
+    named("spotbugsJmh") { enabled = false }
 }
 
 tasks.check {
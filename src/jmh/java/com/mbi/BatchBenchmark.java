@@ -0,0 +1,64 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to shift a whole column of dates: {@link DateHandler#plusAll(List, String)} against a loop of
+ * {@link DateHandler#plus(String, String)} calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+
+    private static final String FORMULA = "1y2M3d4h";
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private final DateHandler handler = new DateHandler();
+    private List<String> starts;
+
+    @Setup
+    public void setUp() {
+        starts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final int day = i % 28 + 1;
+            starts.add(i % 2 == 0
+                    ? String.format("2017-%02d-%02d", i % 12 + 1, day)
+                    : String.format("2017-%02d-%02dT%02d:%02d:00", i % 12 + 1, day, i % 24, i % 60));
+        }
+    }
+
+    @Benchmark
+    public List<String> plusAll() {
+        return handler.plusAll(starts, FORMULA);
+    }
+
+    @Benchmark
+    public List<String> plusLoop() {
+        final var shifted = new ArrayList<String>(starts.size());
+        for (final String start : starts) {
+            shifted.add(handler.plus(start, FORMULA));
+        }
+
+        return shifted;
+    }
+}
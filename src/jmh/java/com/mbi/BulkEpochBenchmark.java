@@ -0,0 +1,68 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to shift a column of instants: {@link DateHandler#plusAllEpochSeconds(long[], String)} in place, against a
+ * loop of {@link DateHandler#plusEpochSecond(long, String)} and a loop of {@link DateHandler#plus(String, String)}
+ * over the same instants as strings. "1d2h" is a fixed duration in UTC, "1M" needs calendar arithmetic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkEpochBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    @Param({"1d2h", "1M"})
+    private String formula;
+
+    private final DateHandler handler = new DateHandler();
+    private final long[] epochSeconds = new long[SIZE];
+    private final String[] dates = new String[SIZE];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SIZE; i++) {
+            epochSeconds[i] = 1_700_000_000L + i * 3_607L;
+            dates[i] = handler.plus("2023-11-14T22:13:20", i * 3_607L + "s");
+        }
+    }
+
+    @Benchmark
+    public long[] plusAllEpochSeconds() {
+        // Shifts the same array on every call: values drift, the work doesn't change
+        handler.plusAllEpochSeconds(epochSeconds, formula);
+        return epochSeconds;
+    }
+
+    @Benchmark
+    public void plusEpochSecondLoop(final Blackhole blackhole) {
+        for (final long epochSecond : epochSeconds) {
+            blackhole.consume(handler.plusEpochSecond(epochSecond, formula));
+        }
+    }
+
+    @Benchmark
+    public void plusLoop(final Blackhole blackhole) {
+        for (final String date : dates) {
+            blackhole.consume(handler.plus(date, formula));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An SLA deadline of n business days: the "nb" formula against stepping with "1d" and skipping days off, and the
+ * count of business days between two dates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusinessCalendarBenchmark {
+
+    private static final String START = "2024-03-29";
+
+    @Param({"5", "60"})
+    private int days;
+
+    private BusinessCalendar calendar;
+    private DateHandler handler;
+    private String formula;
+
+    @Setup
+    public void setUp() {
+        calendar = BusinessCalendar.builder(1990, 2050)
+                .holiday("2024-04-01")
+                .holiday("2024-05-01")
+                .build();
+        handler = DateHandler.builder().businessCalendar(calendar).build();
+        formula = days + "b";
+    }
+
+    @Benchmark
+    public String plusBusinessDays() {
+        return handler.plus(START, formula);
+    }
+
+    @Benchmark
+    public String plusDayByDay() {
+        var date = START;
+        for (int left = days; left > 0; ) {
+            date = handler.plus(date, "1d");
+            if (calendar.isWorkingDay(handler.toEpochDay(date))) {
+                left--;
+            }
+        }
+        return date;
+    }
+
+    @Benchmark
+    public int businessDaysBetween() {
+        return handler.businessDaysBetween(START, "2031-07-15");
+    }
+}
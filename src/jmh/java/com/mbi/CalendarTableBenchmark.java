@@ -0,0 +1,81 @@
+package com.mbi;
+
+import org.joda.time.chrono.ISOChronology;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field extraction and day names read from {@link CalendarTable} against the arithmetic and Joda-Time lookups they
+ * replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarTableBenchmark {
+
+    private static final int DAYS = 4096;
+
+    private final DateHandler handler = new DateHandler();
+    private final int[] epochDays = new int[DAYS];
+    private int next;
+
+    public CalendarTableBenchmark() {
+        for (int i = 0; i < DAYS; i++) {
+            epochDays[i] = 19_000 + i * 7919 % 36_500;
+        }
+    }
+
+    private int nextEpochDay() {
+        next = next + 1 & DAYS - 1;
+        return epochDays[next];
+    }
+
+    @Benchmark
+    public long tableDate() {
+        return EpochCalendar.toDate(nextEpochDay());
+    }
+
+    @Benchmark
+    public long computedDate() {
+        return EpochCalendar.computeDate(nextEpochDay());
+    }
+
+    @Benchmark
+    public String tableDayName() {
+        return EpochCalendar.dayOfWeekText(nextEpochDay());
+    }
+
+    @Benchmark
+    public String jodaDayName() {
+        return ISOChronology.getInstanceUTC().dayOfWeek()
+                .getAsText(EpochCalendar.dayOfWeek(nextEpochDay()), Locale.getDefault());
+    }
+
+    @Benchmark
+    public String getDayOfWeek() {
+        return handler.getDayOfWeek("2024-03-30");
+    }
+
+    @Benchmark
+    public String getDayInWeek() {
+        return handler.getDayInWeek("2024-03-30T12:34:56", "monday");
+    }
+
+    @Benchmark
+    public String getStartOfWeek() {
+        return handler.getStartOfWeek("2024-03-30");
+    }
+}
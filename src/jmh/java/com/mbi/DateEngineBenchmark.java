@@ -0,0 +1,87 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the date engines on the operations that go through them: offsets and conversion between instants and
+ * local time. Parsing and printing are shared by the engines and are measured by {@link DateHandlerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class DateEngineBenchmark {
+
+    private static final String DATE = "2017-01-31";
+    private static final String DATE_TIME = "2017-01-31T12:34:56";
+    private static final String SHORT_FORMULA = "1d";
+    private static final String LONG_FORMULA = "1y2M3d4h5m6s";
+    private static final long EPOCH_SECOND = 1_485_866_096L;
+
+    @Param({"JODA", "JAVA_TIME"})
+    private DateEngineType engine;
+
+    private DateHandler handler;
+
+    @Setup
+    public void setUp() {
+        handler = DateHandler.builder().zone(DateTimeZone.forID("Europe/Kiev")).engine(engine).build();
+    }
+
+    @Benchmark
+    public String plusDateShortFormula() {
+        return handler.plus(DATE, SHORT_FORMULA);
+    }
+
+    @Benchmark
+    public String plusDateTimeLongFormula() {
+        return handler.plus(DATE_TIME, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public String minusDateTimeLongFormula() {
+        return handler.minus(DATE_TIME, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public long plusEpochSecond() {
+        return handler.plusEpochSecond(EPOCH_SECOND, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public long toEpochSecond() {
+        return handler.toEpochSecond(DATE_TIME);
+    }
+
+    @Benchmark
+    public String getCurrentDateTime() {
+        return handler.getCurrentDateTime();
+    }
+
+    @Benchmark
+    public String getDayInWeek() {
+        return handler.getDayInWeek(DATE_TIME, "Saturday");
+    }
+
+    @Benchmark
+    public String parsedPlus() {
+        return handler.parsed(DATE_TIME).plus(LONG_FORMULA).toString();
+    }
+}
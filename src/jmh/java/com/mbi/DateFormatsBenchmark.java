@@ -0,0 +1,62 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Detection of every supported input format by the single-pass {@link DateScanner} against the chain of regexes
+ * callers used to normalize such input with, and the cost of keeping the format through {@code plus}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateFormatsBenchmark {
+
+    private static final Pattern[] FORMATS = {
+            Pattern.compile("\\d{4}-\\d{2}-\\d{2}"),
+            Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}"),
+            Pattern.compile("\\d{8}"),
+            Pattern.compile("\\d{8}T\\d{6}"),
+            Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d{1,9})?(Z|[+-]\\d{2}:\\d{2})?"),
+            Pattern.compile("\\d{8}T\\d{6}(\\.\\d{1,9})?(Z|[+-]\\d{4})?"),
+    };
+
+    @Param({"2024-03-30", "2024-03-30T12:34:56", "20240330T123456", "2024-03-30T12:34:56.250+02:00"})
+    private String input;
+
+    private final DateHandler handler = new DateHandler();
+
+    @Benchmark
+    public long scan() {
+        return DateScanner.scan(input);
+    }
+
+    @Benchmark
+    public int regexChain() {
+        int format = 0;
+        while (format < FORMATS.length && !FORMATS[format].matcher(input).matches()) {
+            format++;
+        }
+
+        return format;
+    }
+
+    @Benchmark
+    public String plus() {
+        return handler.plus(input, "1d1h");
+    }
+}
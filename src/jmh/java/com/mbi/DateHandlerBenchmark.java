@@ -0,0 +1,273 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every public {@link DateHandler} operation on one shared instance, single-threaded.
+ * {@link DateHandlerConcurrentBenchmark} runs the same methods on all cores.
+ * <p>
+ * Run with {@code ./gradlew jmh}; the gc profiler adds the allocation rate ({@code gc.alloc.rate.norm} is bytes per
+ * call) and results are written to {@code build/results/jmh/results.json} to compare across commits.
+ * Select benchmarks with {@code -PjmhIncludes=<regex>}, e.g. {@code -PjmhIncludes=DateHandlerBenchmark.plus}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class DateHandlerBenchmark {
+
+    private static final String DATE = "2017-01-31";
+    private static final String DATE_TIME = "2017-01-31T12:34:56";
+    private static final String END_DATE = "2018-03-20";
+    private static final String SHORT_FORMULA = "1d";
+    private static final String LONG_FORMULA = "1y2M3d4h5m6s";
+    private static final long EPOCH_SECOND = 1_485_866_096L;
+    private static final int EPOCH_DAY = 17_197;
+    private static final String ROW = "42,2017-01-31T12:34:56,2018-03-20,done";
+    private static final ByteBuffer ROW_BYTES = ByteBuffer.wrap(ROW.getBytes(StandardCharsets.US_ASCII));
+
+    private final DateHandler handler = new DateHandler(DateTimeZone.forID("Europe/Kiev"));
+
+    @Benchmark
+    public String plusDateShortFormula() {
+        return handler.plus(DATE, SHORT_FORMULA);
+    }
+
+    @Benchmark
+    public String plusDateLongFormula() {
+        return handler.plus(DATE, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public String plusDateTimeShortFormula() {
+        return handler.plus(DATE_TIME, SHORT_FORMULA);
+    }
+
+    @Benchmark
+    public String plusDateTimeLongFormula() {
+        return handler.plus(DATE_TIME, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public StringBuilder plusDateTimeToAppendable(final Buffers buffers) {
+        buffers.builder.setLength(0);
+        handler.plus(DATE_TIME, LONG_FORMULA, buffers.builder);
+        return buffers.builder;
+    }
+
+    @Benchmark
+    public int plusDateTimeToCharArray(final Buffers buffers) {
+        return handler.plus(DATE_TIME, LONG_FORMULA, buffers.chars, 0);
+    }
+
+    @Benchmark
+    public String plusDateTimeInPlace() {
+        return handler.plus(ROW, 3, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public String minusDateShortFormula() {
+        return handler.minus(DATE, SHORT_FORMULA);
+    }
+
+    @Benchmark
+    public String minusDateLongFormula() {
+        return handler.minus(DATE, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public String minusDateTimeShortFormula() {
+        return handler.minus(DATE_TIME, SHORT_FORMULA);
+    }
+
+    @Benchmark
+    public String minusDateTimeLongFormula() {
+        return handler.minus(DATE_TIME, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public String plusNow() {
+        return handler.plus(SHORT_FORMULA);
+    }
+
+    @Benchmark
+    public String minusNow() {
+        return handler.minus(SHORT_FORMULA);
+    }
+
+    @Benchmark
+    public int daysBetweenDates() {
+        return handler.daysBetweenDates(DATE, END_DATE);
+    }
+
+    @Benchmark
+    public int daysBetweenDatesInPlace() {
+        return handler.daysBetweenDates(ROW, 3, ROW, 23);
+    }
+
+    @Benchmark
+    public int getYear() {
+        return handler.getYear(DATE_TIME);
+    }
+
+    @Benchmark
+    public int getYearInPlace() {
+        return handler.getYear(ROW, 3);
+    }
+
+    @Benchmark
+    public int getYearInPlaceFromBytes() {
+        return handler.getYear(ROW_BYTES, 3);
+    }
+
+    @Benchmark
+    public int getYearOfSubstring() {
+        return handler.getYear(ROW.substring(3, 22));
+    }
+
+    @Benchmark
+    public int getMonth() {
+        return handler.getMonth(DATE_TIME);
+    }
+
+    @Benchmark
+    public int getDay() {
+        return handler.getDay(DATE_TIME);
+    }
+
+    @Benchmark
+    public int getHour() {
+        return handler.getHour(DATE_TIME);
+    }
+
+    @Benchmark
+    public int getMinute() {
+        return handler.getMinute(DATE_TIME);
+    }
+
+    @Benchmark
+    public int getSecond() {
+        return handler.getSecond(DATE_TIME);
+    }
+
+    @Benchmark
+    public int getAllFields() {
+        return handler.getYear(DATE_TIME) + handler.getMonth(DATE_TIME) + handler.getDay(DATE_TIME)
+                + handler.getHour(DATE_TIME) + handler.getMinute(DATE_TIME) + handler.getSecond(DATE_TIME);
+    }
+
+    @Benchmark
+    public int parsedAllFields() {
+        final var parsed = handler.parsed(DATE_TIME);
+        return parsed.getYear() + parsed.getMonth() + parsed.getDay() + parsed.getHour() + parsed.getMinute()
+                + parsed.getSecond();
+    }
+
+    @Benchmark
+    public String parsedPlus() {
+        return handler.parsed(DATE_TIME).plus(LONG_FORMULA).toString();
+    }
+
+    @Benchmark
+    public String getDayOfWeek() {
+        return handler.getDayOfWeek(DATE);
+    }
+
+    @Benchmark
+    public String getDayInWeek() {
+        return handler.getDayInWeek(DATE, "Saturday");
+    }
+
+    @Benchmark
+    public String getStartOfWeek() {
+        return handler.getStartOfWeek(DATE_TIME);
+    }
+
+    @Benchmark
+    public String getEndOfWeek() {
+        return handler.getEndOfWeek(DATE_TIME);
+    }
+
+    @Benchmark
+    public String getCurrentDate() {
+        return handler.getCurrentDate();
+    }
+
+    @Benchmark
+    public String getCurrentDateTime() {
+        return handler.getCurrentDateTime();
+    }
+
+    @Benchmark
+    public int getCurrentDateTimeToCharArray(final Buffers buffers) {
+        return handler.getCurrentDateTime(buffers.chars, 0);
+    }
+
+    @Benchmark
+    public String getCurrentDayOfWeek() {
+        return handler.getDayOfWeek();
+    }
+
+    @Benchmark
+    public int getCurrentYear() {
+        return handler.getYear();
+    }
+
+    @Benchmark
+    public int getCurrentSecond() {
+        return handler.getSecond();
+    }
+
+    @Benchmark
+    public long plusEpochSecond() {
+        return handler.plusEpochSecond(EPOCH_SECOND, LONG_FORMULA);
+    }
+
+    @Benchmark
+    public int plusEpochDay() {
+        return handler.plusEpochDay(EPOCH_DAY, "1y2M3d");
+    }
+
+    @Benchmark
+    public int yearOfEpochDay() {
+        return handler.yearOf(EPOCH_DAY);
+    }
+
+    @Benchmark
+    public int hourOfEpochSecond() {
+        return handler.hourOf(EPOCH_SECOND);
+    }
+
+    @Benchmark
+    public long toEpochSecond() {
+        return handler.toEpochSecond(DATE_TIME);
+    }
+
+    /**
+     * Output buffers of one benchmark thread, so threads of {@link DateHandlerConcurrentBenchmark} write into their
+     * own buffers instead of racing on shared ones.
+     */
+    @State(Scope.Thread)
+    public static class Buffers {
+
+        public final StringBuilder builder = new StringBuilder();
+        public final char[] chars = new char[64];
+    }
+}
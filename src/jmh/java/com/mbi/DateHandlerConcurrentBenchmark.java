@@ -0,0 +1,11 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Same operations as {@link DateHandlerBenchmark}, called on the shared instance from as many threads as there are
+ * cores, to expose contention (shared caches, formatters) that a single-threaded run hides.
+ */
+@Threads(Threads.MAX)
+public class DateHandlerConcurrentBenchmark extends DateHandlerBenchmark {
+}
@@ -0,0 +1,44 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of formula parsing: single-pass scanner vs the former regex split + Jackson conversion.
+ * Run with {@code ./gradlew jmh}; the gc profiler adds bytes allocated per call ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeParserBenchmark {
+
+    @Param({"1d", "30m", "1y2M3d4h5m6s"})
+    private String formula;
+
+    private final DateTimeParser parser = new DateTimeParser();
+
+    private final LegacyDateTimeParser legacyParser = new LegacyDateTimeParser();
+
+    @Benchmark
+    public CustomDateTime scanner() {
+        return parser.parse(formula);
+    }
+
+    @Benchmark
+    public CustomDateTime legacy() {
+        return legacyParser.parse(formula);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A request that needs a handler of its zone: a new handler per request against {@link DateHandler#forZone(String)},
+ * on all cores, so contention on the registry would show.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ForZoneBenchmark {
+
+    @Param({"Europe/Kiev", "America/Sao_Paulo"})
+    private String zoneId;
+
+    @Benchmark
+    public long newHandler() {
+        return new DateHandler(DateTimeZone.forID(zoneId)).toEpochSecond("2024-03-30T12:34:56");
+    }
+
+    @Benchmark
+    public long forZone() {
+        return DateHandler.forZone(zoneId).toEpochSecond("2024-03-30T12:34:56");
+    }
+}
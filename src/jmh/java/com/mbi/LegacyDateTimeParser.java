@@ -0,0 +1,46 @@
+package com.mbi;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Regex split + Jackson conversion formula parser, kept only as a baseline for {@link DateTimeParserBenchmark}.
+ */
+final class LegacyDateTimeParser {
+
+    private static final ObjectMapper MAPPER = JsonMapper
+            .builderWithJackson2Defaults()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true)
+            .build();
+
+    /**
+     * Parses a time formula the way {@link DateTimeParser} used to.
+     *
+     * @param formula string with time units (e.g., "1y2M3d4h5m6s")
+     * @return parsed custom datetime object
+     */
+    CustomDateTime parse(final String formula) {
+        if (formula == null || formula.isBlank()) {
+            throw new IllegalArgumentException("Formula must not be null or blank");
+        }
+
+        final String normalized = formula.replace("M", "mo");
+        if (!Character.isDigit(normalized.charAt(0))
+                || !Character.isLetter(normalized.charAt(normalized.length() - 1))) {
+            throw new IllegalArgumentException("Invalid format: must start with digit and end with letter");
+        }
+
+        final var parts = Arrays.asList(normalized.split("(?<=\\D)(?=\\d)|(?<=\\d)(?=\\D)"));
+        final Map<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < parts.size(); i += 2) {
+            result.put(parts.get(i + 1), Integer.parseInt(parts.get(i)));
+        }
+
+        return MAPPER.convertValue(result, CustomDateTime.class);
+    }
+}
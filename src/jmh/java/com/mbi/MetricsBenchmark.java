@@ -0,0 +1,48 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of instrumentation on {@link DateHandler#plus(String, String)}: no metrics, counters only, and counters with
+ * latency histograms. Run with {@code -t} above 1 to see contention on the counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"NOOP", "COUNTERS", "LATENCY"})
+    private String sink;
+
+    private DateHandler handler;
+
+    @Setup
+    public void setUp() {
+        final MetricsSink metrics = switch (sink) {
+            case "COUNTERS" -> new InMemoryMetrics();
+            case "LATENCY" -> new InMemoryMetrics(true);
+            default -> MetricsSink.NOOP;
+        };
+        handler = DateHandler.builder().metrics(metrics).build();
+    }
+
+    @Benchmark
+    public String plus() {
+        return handler.plus("2017-01-01T12:00:00", "1y2M3d4h");
+    }
+}
@@ -0,0 +1,59 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to generate 100 years of days: {@link DateHandler#range(String, String, String)}, sequential and parallel,
+ * and its primitive variant, against a loop of {@link DateHandler#plus(String, String)} calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeBenchmark {
+
+    private static final String START = "2000-01-01";
+    private static final String END = "2100-01-01";
+    private static final String STEP = "1d";
+
+    private final DateHandler handler = new DateHandler();
+
+    @Benchmark
+    public List<String> range() {
+        return handler.range(START, END, STEP).toList();
+    }
+
+    @Benchmark
+    public List<String> rangeParallel() {
+        return handler.range(START, END, STEP).parallel().toList();
+    }
+
+    @Benchmark
+    public int[] rangeEpochDay() {
+        return handler.rangeEpochDay(handler.toEpochDay(START), handler.toEpochDay(END), STEP).toArray();
+    }
+
+    @Benchmark
+    public List<String> plusLoop() {
+        final var dates = new ArrayList<String>();
+        for (String day = START; day.compareTo(END) < 0; day = handler.plus(day, STEP)) {
+            dates.add(day);
+        }
+
+        return dates;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mbi;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of a short-lived job: time from a fresh JVM to the result of the first {@link DateHandler#plus}, and
+ * the number of classes that call loads. Every fork measures one call, so nothing of the library is loaded or
+ * compiled yet; run with more forks for a steadier figure, e.g. {@code -f 50}.
+ * <p>
+ * {@link #firstPlusWithoutCalendarTable(LoadedClasses)} runs in JVMs whose {@link CalendarTable} covers only year 1,
+ * so the dates are computed; the difference to {@link #firstPlus(LoadedClasses)} is what the table costs at startup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+    private ClassLoadingMXBean classLoading;
+
+    @Setup
+    public void setUp() {
+        classLoading = ManagementFactory.getClassLoadingMXBean();
+    }
+
+    @Benchmark
+    public String firstPlus(final LoadedClasses loaded) {
+        final int before = classLoading.getLoadedClassCount();
+        final String result = new DateHandler().plus("2024-01-31", "1M");
+        loaded.loadedClasses = classLoading.getLoadedClassCount() - before;
+
+        return result;
+    }
+
+    @Benchmark
+    @Fork(value = 20, jvmArgsAppend = {"-Dcom.mbi.calendarTableFirstYear=1", "-Dcom.mbi.calendarTableLastYear=1"})
+    public String firstPlusWithoutCalendarTable(final LoadedClasses loaded) {
+        return firstPlus(loaded);
+    }
+
+    /**
+     * Classes loaded by the first call, reported next to its time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LoadedClasses {
+
+        public int loadedClasses;
+    }
+}
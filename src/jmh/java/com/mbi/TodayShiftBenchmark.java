@@ -0,0 +1,58 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Now-relative {@code plus("7d")} / {@code minus("1M")}, as test data generators call them, on all cores: computed
+ * on every call against looked up in the results of the day, see
+ * {@link DateHandler.Builder#cacheTodayShifts(boolean)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class TodayShiftBenchmark {
+
+    private final DateHandler computed = DateHandler.builder()
+            .zone(DateTimeZone.forID("Europe/Kiev"))
+            .build();
+    private final DateHandler cached = DateHandler.builder()
+            .zone(DateTimeZone.forID("Europe/Kiev"))
+            .cacheTodayShifts(true)
+            .build();
+
+    @Benchmark
+    public String plusComputed() {
+        return computed.plus("7d");
+    }
+
+    @Benchmark
+    public String plusCached() {
+        return cached.plus("7d");
+    }
+
+    @Benchmark
+    public String minusComputed() {
+        return computed.minus("1M");
+    }
+
+    @Benchmark
+    public String minusCached() {
+        return cached.minus("1M");
+    }
+}
@@ -0,0 +1,49 @@
+package com.mbi;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ASCII bytes of a {@link ByteBuffer} read as chars in place, so {@link DateScanner} can scan them without decoding
+ * or copying. Indexes are absolute, as of {@link ByteBuffer#get(int)}: the sequence ends at the limit of the buffer,
+ * and its position is neither used nor changed.
+ */
+final class AsciiSequence implements CharSequence {
+
+    private static final int BYTE_MASK = 0xFF;
+
+    private final ByteBuffer bytes;
+
+    /**
+     * Constructor with bytes to read.
+     *
+     * @param bytes ASCII text.
+     */
+    public AsciiSequence(final ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public int length() {
+        return bytes.limit();
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return (char) (bytes.get(index) & BYTE_MASK);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        final var chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = charAt(i);
+        }
+
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+}
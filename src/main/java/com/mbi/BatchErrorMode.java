@@ -0,0 +1,19 @@
+package com.mbi;
+
+/**
+ * What a batch operation such as {@link DateHandler#plusAll(java.util.List, String, BatchErrorMode)} does when an
+ * element can't be processed.
+ */
+public enum BatchErrorMode {
+
+    /**
+     * Stop at the first failing element and rethrow its error. Errors are ordered by element index, so the error of
+     * the lowest failing index is thrown no matter how the work was split between threads.
+     */
+    FAIL_FAST,
+
+    /**
+     * Process every element and report errors per element index.
+     */
+    COLLECT
+}
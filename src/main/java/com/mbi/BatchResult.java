@@ -0,0 +1,22 @@
+package com.mbi;
+
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Outcome of a batch operation in {@link BatchErrorMode#COLLECT} mode.
+ *
+ * @param values results in the order of inputs, null where the element failed.
+ * @param errors errors of failed elements by element index, in ascending index order.
+ */
+public record BatchResult(List<String> values, SortedMap<Integer, Throwable> errors) {
+
+    /**
+     * If any element failed.
+     *
+     * @return true if there are errors.
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -0,0 +1,148 @@
+package com.mbi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Applies one operation to every element of a list, splitting large lists into index ranges processed on the
+ * common fork/join pool. Every result is written to the index of its input, so output order doesn't depend on
+ * scheduling. Inputs are read by index, so a list without fast random access, e.g. a {@code LinkedList}, is copied
+ * first.
+ */
+final class BatchShifter {
+
+    /**
+     * Lists up to this size, and ranges a task doesn't split further, are processed on a single thread.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    private BatchShifter() {
+        // utility class
+    }
+
+    /**
+     * Applies operation to every input and fails on the lowest failing index.
+     *
+     * @param inputs    inputs.
+     * @param operation operation applied to each input.
+     * @return results in the order of inputs.
+     * @throws RuntimeException error of the first failing input, as thrown by the operation.
+     * @throws AssertionError   error of the first failing input, as thrown by the operation.
+     */
+    public static String[] applyAll(final List<String> inputs, final UnaryOperator<String> operation) {
+        final var batch = new Batch(inputs, operation, BatchErrorMode.FAIL_FAST);
+        batch.run();
+        if (!batch.errors.isEmpty()) {
+            rethrow(batch.errors.firstEntry().getValue());
+        }
+
+        return batch.results;
+    }
+
+    /**
+     * Applies operation to every input.
+     *
+     * @param inputs    inputs.
+     * @param operation operation applied to each input.
+     * @param mode      what to do when an input fails.
+     * @return results and errors by index.
+     */
+    public static BatchResult applyAll(final List<String> inputs, final UnaryOperator<String> operation,
+                                       final BatchErrorMode mode) {
+        if (mode == BatchErrorMode.FAIL_FAST) {
+            return new BatchResult(Collections.unmodifiableList(Arrays.asList(applyAll(inputs, operation))),
+                    Collections.emptySortedMap());
+        }
+
+        final var batch = new Batch(inputs, operation, mode);
+        batch.run();
+
+        return new BatchResult(Collections.unmodifiableList(Arrays.asList(batch.results)),
+                Collections.unmodifiableSortedMap(batch.errors));
+    }
+
+    private static void rethrow(final Throwable error) {
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw (AssertionError) error;
+    }
+
+    /**
+     * State shared by all tasks of one batch.
+     */
+    private static final class Batch {
+
+        private final List<String> inputs;
+        private final UnaryOperator<String> operation;
+        private final boolean failFast;
+        private final String[] results;
+        private final ConcurrentSkipListMap<Integer, Throwable> errors = new ConcurrentSkipListMap<>();
+        private final AtomicInteger firstError = new AtomicInteger(Integer.MAX_VALUE);
+
+        private Batch(final List<String> inputs, final UnaryOperator<String> operation, final BatchErrorMode mode) {
+            this.inputs = inputs instanceof RandomAccess ? inputs : new ArrayList<>(inputs);
+            this.operation = operation;
+            this.failFast = mode == BatchErrorMode.FAIL_FAST;
+            this.results = new String[inputs.size()];
+        }
+
+        private void run() {
+            final var task = new Task(this, 0, results.length);
+            if (results.length <= CHUNK_SIZE) {
+                task.compute();
+            } else {
+                ForkJoinPool.commonPool().invoke(task);
+            }
+        }
+
+        private void apply(final int from, final int to) {
+            // In fail fast mode indices above an already failed one are skipped: their errors can't be the first
+            for (int i = from; i < to && !(failFast && i > firstError.get()); i++) {
+                try {
+                    results[i] = operation.apply(inputs.get(i));
+                } catch (RuntimeException | AssertionError e) {
+                    errors.put(i, e);
+                    firstError.accumulateAndGet(i, Math::min);
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes range {@code [from, to)} of a batch, splitting it in halves while it's larger than a chunk.
+     */
+    private static final class Task extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Batch batch;
+        private final int from;
+        private final int to;
+
+        private Task(final Batch batch, final int from, final int to) {
+            super();
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                batch.apply(from, to);
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new Task(batch, from, middle), new Task(batch, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Working days of a range of years, for the business days unit of formulas, e.g. "5b", see
+ * {@link DateHandler.Builder#businessCalendar(BusinessCalendar)}.
+ * <p>
+ * Every day of the range is one bit of a bitset, set for a working day, and the count of working days before every
+ * 64-bit word is precomputed. Counting working days between two dates is then two popcounts, and finding the n-th
+ * working day after a date is a binary search over the counts plus a bit scan in one word, so the cost doesn't grow
+ * with n or with the number of years covered.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class BusinessCalendar {
+
+    /**
+     * Years a calendar may cover: those of the dates the scanner reads, with four year digits.
+     */
+    private static final int MIN_YEAR = 1;
+    private static final int MAX_YEAR = 9999;
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+
+    private final int firstYear;
+    private final int lastYear;
+    private final int firstEpochDay;
+    private final int days;
+    private final long[] workingDays;
+    private final int[] workingDaysBefore;
+
+    private BusinessCalendar(final Builder builder) {
+        this.firstYear = builder.firstYear;
+        this.lastYear = builder.lastYear;
+        this.firstEpochDay = EpochCalendar.toEpochDay(firstYear, 1, 1);
+        this.days = EpochCalendar.toEpochDay(lastYear + 1, 1, 1) - firstEpochDay;
+        this.workingDays = new long[(days + WORD_MASK) >>> WORD_SHIFT];
+        for (int i = 0; i < days; i++) {
+            final int epochDay = firstEpochDay + i;
+            if (builder.workingDates.contains(epochDay) || !builder.weekend.contains(dayOfWeek(epochDay))
+                    && !builder.holidays.contains(epochDay)) {
+                workingDays[i >>> WORD_SHIFT] |= 1L << i;
+            }
+        }
+        this.workingDaysBefore = new int[workingDays.length + 1];
+        for (int word = 0; word < workingDays.length; word++) {
+            workingDaysBefore[word + 1] = workingDaysBefore[word] + Long.bitCount(workingDays[word]);
+        }
+    }
+
+    /**
+     * Returns builder of a calendar covering years from first to last, with Saturday and Sunday off.
+     *
+     * @param firstYear first year of the calendar.
+     * @param lastYear  last year of the calendar, inclusive.
+     * @return builder.
+     * @throws IllegalArgumentException if last year is before first year, or a year is outside 1-9999.
+     */
+    public static Builder builder(final int firstYear, final int lastYear) {
+        return new Builder(firstYear, lastYear);
+    }
+
+    /**
+     * Returns first year of this calendar.
+     *
+     * @return year.
+     */
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * Returns last year of this calendar, inclusive.
+     *
+     * @return year.
+     */
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * If a date is a working day.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return result of check.
+     * @throws IllegalArgumentException if the date is outside the years of this calendar.
+     */
+    public boolean isWorkingDay(final int epochDay) {
+        final int index = index(epochDay);
+        return (workingDays[index >>> WORD_SHIFT] & 1L << index) != 0;
+    }
+
+    /**
+     * Moves a date by working days: the result is the n-th working day after the date, or before it for a negative
+     * n, as counting days off a calendar does. Example: from Friday, or from Saturday, 1 working day is Monday.
+     * Zero days return the date as is, even if it is a day off.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @param n        working days, may be negative.
+     * @return date in days since 1970-01-01.
+     * @throws IllegalArgumentException if the date or the result is outside the years of this calendar.
+     */
+    public int plusWorkingDays(final int epochDay, final int n) {
+        if (n == 0) {
+            return epochDay;
+        }
+        final int index = index(epochDay);
+        // Rank of the result among all working days of the calendar, counted from 0
+        final long rank = n > 0 ? (long) workingDaysBefore(index + 1) + n - 1 : (long) workingDaysBefore(index) + n;
+        if (rank < 0 || rank >= workingDaysBefore[workingDays.length]) {
+            throw new IllegalArgumentException(n + " working days from " + DatePrinter.toString(
+                    EpochCalendar.toDate(epochDay)) + " are outside business calendar " + firstYear + "-" + lastYear);
+        }
+
+        return firstEpochDay + select((int) rank);
+    }
+
+    /**
+     * Count of working days between two dates: days after the earlier date, up to and including the later one, that
+     * are working days. So {@code workingDaysBetween(d, plusWorkingDays(d, n))} is n for n >= 0.
+     *
+     * @param startEpochDay 1st date in days since 1970-01-01.
+     * @param endEpochDay   2nd date in days since 1970-01-01.
+     * @return count of working days, regardless of the order of dates.
+     * @throws IllegalArgumentException if a date is outside the years of this calendar.
+     */
+    public int workingDaysBetween(final int startEpochDay, final int endEpochDay) {
+        final int start = index(Math.min(startEpochDay, endEpochDay));
+        final int end = index(Math.max(startEpochDay, endEpochDay));
+
+        return workingDaysBefore(end + 1) - workingDaysBefore(start + 1);
+    }
+
+    /**
+     * Moves a date by the business days of an offset, see {@link #plusWorkingDays(int, int)}.
+     *
+     * @param calendar calendar, null if none is set.
+     * @param epochDay days since 1970-01-01.
+     * @param offset   compiled formula.
+     * @param sign     1 to add the business days, -1 to subtract them
+     * @return updated date in epoch days.
+     * @throws IllegalStateException    if the offset has business days and there is no calendar.
+     * @throws IllegalArgumentException if the date or the result is outside the years of the calendar.
+     */
+    /* default */ static int shiftEpochDay(final BusinessCalendar calendar, final int epochDay,
+                                           final DateTimeOffset offset, final int sign) {
+        return offset.getB() == 0 ? epochDay : require(calendar).plusWorkingDays(epochDay, sign * offset.getB());
+    }
+
+    /**
+     * Moves an instant by the business days of an offset, see {@link #plusWorkingDays(int, int)}: the local date in
+     * the zone is moved and its local time is kept, resolved against the zone as adding days is.
+     *
+     * @param calendar calendar, null if none is set.
+     * @param engine   date engine.
+     * @param instant  epoch millis.
+     * @param zone     time zone of the local date.
+     * @param offset   compiled formula.
+     * @param add      true to add the business days, false to subtract them
+     * @return updated epoch millis.
+     * @throws IllegalStateException    if the offset has business days and there is no calendar.
+     * @throws IllegalArgumentException if the date or the result is outside the years of the calendar.
+     */
+    /* default */ static long shiftInstant(final BusinessCalendar calendar, final DateEngine engine,
+                                           final long instant, final DateTimeZone zone, final DateTimeOffset offset,
+                                           final boolean add) {
+        if (offset.getB() == 0) {
+            return instant;
+        }
+        final int epochDay = EpochCalendar.toEpochDay(engine.toLocalFields(instant, zone, false));
+        final int target = require(calendar).plusWorkingDays(epochDay, add ? offset.getB() : -offset.getB());
+
+        return engine.applyOffset(instant, zone, DateTimeOffset.ofDays(target - epochDay), true);
+    }
+
+    /**
+     * Makes sure a calendar is set for a formula with business days.
+     *
+     * @param calendar calendar, may be null.
+     * @return the calendar.
+     * @throws IllegalStateException if calendar is null.
+     */
+    /* default */ static BusinessCalendar require(final BusinessCalendar calendar) {
+        if (calendar == null) {
+            throw new IllegalStateException("Business days need a business calendar, see "
+                    + "DateHandler.Builder#businessCalendar");
+        }
+
+        return calendar;
+    }
+
+    /**
+     * Count of working days before a day of the calendar.
+     *
+     * @param index index of the day, up to the count of days.
+     * @return count.
+     */
+    private int workingDaysBefore(final int index) {
+        final int word = index >>> WORD_SHIFT;
+        final int bit = index & WORD_MASK;
+
+        return bit == 0
+                ? workingDaysBefore[word]
+                : workingDaysBefore[word] + Long.bitCount(workingDays[word] & (1L << bit) - 1);
+    }
+
+    /**
+     * Finds a working day by its rank: the word holding it by binary search over counts, then the bit in the word.
+     *
+     * @param rank rank among working days of the calendar, from 0.
+     * @return index of the day.
+     */
+    private int select(final int rank) {
+        // The last word whose count of working days before it doesn't exceed the rank
+        final int found = Arrays.binarySearch(workingDaysBefore, rank);
+        int word = found < 0 ? -found - 2 : found;
+        while (workingDaysBefore[word + 1] <= rank) {
+            word++; // words without working days share the count with the next one
+        }
+        long bits = workingDays[word];
+        for (int i = workingDaysBefore[word]; i < rank; i++) {
+            bits &= bits - 1;
+        }
+
+        return word << WORD_SHIFT | Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Returns index of a date in the calendar.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return index.
+     * @throws IllegalArgumentException if the date is outside the years of this calendar.
+     */
+    private int index(final int epochDay) {
+        final long index = (long) epochDay - firstEpochDay;
+        if (index < 0 || index >= days) {
+            throw new IllegalArgumentException("Date " + DatePrinter.toString(EpochCalendar.toDate(epochDay))
+                    + " is outside business calendar " + firstYear + "-" + lastYear);
+        }
+
+        return (int) index;
+    }
+
+    private static DayOfWeek dayOfWeek(final int epochDay) {
+        return DayOfWeek.of(EpochCalendar.dayOfWeek(epochDay));
+    }
+
+    /**
+     * Builder of {@link BusinessCalendar}. Defaults: Saturday and Sunday off, no holidays.
+     */
+    public static final class Builder {
+
+        private final int firstYear;
+        private final int lastYear;
+        private final Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        private final Set<Integer> holidays = new HashSet<>();
+        private final Set<Integer> workingDates = new HashSet<>();
+
+        private Builder(final int firstYear, final int lastYear) {
+            if (lastYear < firstYear) {
+                throw new IllegalArgumentException("Business calendar range is empty: " + firstYear + "-" + lastYear);
+            }
+            if (firstYear < MIN_YEAR || lastYear > MAX_YEAR) {
+                throw new IllegalArgumentException("Business calendar years must be within " + MIN_YEAR + "-"
+                        + MAX_YEAR + ": " + firstYear + "-" + lastYear);
+            }
+            this.firstYear = firstYear;
+            this.lastYear = lastYear;
+        }
+
+        /**
+         * Sets days of week that are off, replacing Saturday and Sunday.
+         *
+         * @param days days off, may be none.
+         * @return this builder.
+         */
+        public Builder weekend(final DayOfWeek... days) {
+            weekend.clear();
+            for (final DayOfWeek day : days) {
+                weekend.add(Objects.requireNonNull(day, "day"));
+            }
+            return this;
+        }
+
+        /**
+         * Adds a holiday: a date that is off even if it is not a weekend day.
+         *
+         * @param date date in format yyyy-MM-dd.
+         * @return this builder.
+         * @throws IllegalArgumentException if date is not an existing date of the calendar years.
+         */
+        public Builder holiday(final String date) {
+            holidays.add(toEpochDay(date));
+            return this;
+        }
+
+        /**
+         * Adds a working date: a date that is worked even if it is a weekend day or a holiday, e.g. a Saturday
+         * worked in exchange for a bridge day.
+         *
+         * @param date date in format yyyy-MM-dd.
+         * @return this builder.
+         * @throws IllegalArgumentException if date is not an existing date of the calendar years.
+         */
+        public Builder workingDate(final String date) {
+            workingDates.add(toEpochDay(date));
+            return this;
+        }
+
+        /**
+         * Creates calendar.
+         *
+         * @return business calendar.
+         */
+        public BusinessCalendar build() {
+            return new BusinessCalendar(this);
+        }
+
+        private int toEpochDay(final String date) {
+            final long fields = DateScanner.scan(Objects.requireNonNull(date, "date"));
+            if (!DateValidator.exists(fields) || PackedDateTime.hasTime(fields)
+                    || PackedDateTime.year(fields) < firstYear || PackedDateTime.year(fields) > lastYear) {
+                throw new IllegalArgumentException("Not a date of business calendar " + firstYear + "-" + lastYear
+                        + ": " + date);
+            }
+
+            return EpochCalendar.toEpochDay(fields);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.mbi;
+
+import org.joda.time.chrono.ISOChronology;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed calendar of a range of years: the date of every epoch day of the range packed into an int, so
+ * decoding an epoch day is an array read, and day names per locale, so naming a day is an array read too.
+ * <p>
+ * Dates are filled in blocks of 512 days, each on first use, so a short-lived JVM that reads a few dates pays for a
+ * few blocks, not for the whole range. Blocks are published through a final field: a reader sees either no block or
+ * a filled one, and two threads that fill the same block at once both store equal copies.
+ * <p>
+ * Days outside the range are reported with {@link #NOT_COVERED}; callers then fall back to the arithmetic of
+ * {@link EpochCalendar}, so the range only decides what is fast, never what is correct.
+ */
+final class CalendarTable {
+
+    /**
+     * Table shared by all handlers, covering years set with system properties {@code com.mbi.calendarTableFirstYear}
+     * and {@code com.mbi.calendarTableLastYear}, 1900-2200 by default (about 440 KB once every block is used).
+     */
+    public static final CalendarTable SHARED = new CalendarTable(
+            Integer.getInteger("com.mbi.calendarTableFirstYear", 1900),
+            Integer.getInteger("com.mbi.calendarTableLastYear", 2200));
+
+    /**
+     * Result for an epoch day outside the range of the table.
+     */
+    public static final long NOT_COVERED = PackedDateTime.INVALID;
+
+    private static final int DAY_BITS = 5;
+    private static final int MONTH_BITS = 4;
+    private static final int YEAR_SHIFT = DAY_BITS + MONTH_BITS;
+    private static final int DAY_MASK = (1 << DAY_BITS) - 1;
+    private static final int MONTH_MASK = (1 << MONTH_BITS) - 1;
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int BLOCK_SHIFT = 9;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private final int firstYear;
+    private final int firstEpochDay;
+    private final int days;
+    private final Block[] blocks;
+    private final Map<Locale, String[]> dayNames = new ConcurrentHashMap<>();
+    private final Map<Locale, Map<String, DayOfWeek>> daysByName = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the table of a range of years; dates are computed as they are used.
+     *
+     * @param firstYear first year of the range.
+     * @param lastYear  last year of the range, inclusive.
+     * @throws IllegalArgumentException if last year is before first year.
+     */
+    public CalendarTable(final int firstYear, final int lastYear) {
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("Calendar table range is empty: " + firstYear + "-" + lastYear);
+        }
+        this.firstYear = firstYear;
+        this.firstEpochDay = EpochCalendar.toEpochDay(firstYear, 1, 1);
+        this.days = EpochCalendar.toEpochDay(lastYear + 1, 1, 1) - firstEpochDay;
+        this.blocks = new Block[(days + BLOCK_MASK) >>> BLOCK_SHIFT];
+    }
+
+    /**
+     * Returns the date of an epoch day.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return packed date, see {@link PackedDateTime}, or {@link #NOT_COVERED}.
+     */
+    public long date(final int epochDay) {
+        final int index = epochDay - firstEpochDay;
+        if (index < 0 || index >= days) {
+            return NOT_COVERED;
+        }
+        final int date = block(index >>> BLOCK_SHIFT)[index & BLOCK_MASK];
+
+        return PackedDateTime.ofDate(firstYear + (date >>> YEAR_SHIFT), date >>> DAY_BITS & MONTH_MASK,
+                date & DAY_MASK);
+    }
+
+    /**
+     * Returns name of a day of week, as Joda-Time names it. Names are computed once per locale and interned.
+     *
+     * @param dayOfWeek day of week from 1 (Monday) to 7 (Sunday).
+     * @param locale    locale of the name.
+     * @return day of week, e.g. "Monday".
+     */
+    public String dayName(final int dayOfWeek, final Locale locale) {
+        return dayNames.computeIfAbsent(locale, CalendarTable::dayNames)[dayOfWeek - 1];
+    }
+
+    /**
+     * Converts a day name to a day of week, as {@code DayOfWeek.valueOf(name.toUpperCase(locale))} does. Names of
+     * days in title, upper and lower case are looked up; other spellings take that slow path.
+     *
+     * @param name   English name of a day, e.g. "Monday".
+     * @param locale locale of the case conversion.
+     * @return day of week.
+     * @throws IllegalArgumentException if name is not a day of week.
+     * @throws NullPointerException     if name is null.
+     */
+    public DayOfWeek dayOfWeek(final String name, final Locale locale) {
+        final var day = daysByName.computeIfAbsent(locale, CalendarTable::daysByName).get(name);
+        return day == null ? DayOfWeek.valueOf(name.toUpperCase(locale)) : day;
+    }
+
+    /**
+     * Returns dates of a block, filling it on first use.
+     *
+     * @param block index of the block.
+     * @return packed dates of the block.
+     */
+    private int[] block(final int block) {
+        Block filled = blocks[block];
+        if (filled == null) {
+            filled = new Block(fill(block));
+            blocks[block] = filled;
+        }
+
+        return filled.dates();
+    }
+
+    /**
+     * Computes dates of a block: the first one with the arithmetic of {@link EpochCalendar}, the rest by counting
+     * days of months.
+     *
+     * @param block index of the block.
+     * @return packed dates, fewer than a block's worth for the last block.
+     */
+    private int[] fill(final int block) {
+        final int start = block << BLOCK_SHIFT;
+        final var dates = new int[Math.min(BLOCK_SIZE, days - start)];
+        final long first = EpochCalendar.computeDate(firstEpochDay + start);
+        int year = PackedDateTime.year(first);
+        int month = PackedDateTime.month(first);
+        int day = PackedDateTime.day(first);
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = (year - firstYear) << YEAR_SHIFT | month << DAY_BITS | day;
+            day++;
+            if (day > EpochCalendar.lengthOfMonth(year, month)) {
+                day = 1;
+                month = month % MONTHS_PER_YEAR + 1;
+                year += month == 1 ? 1 : 0;
+            }
+        }
+
+        return dates;
+    }
+
+    private static String[] dayNames(final Locale locale) {
+        final var names = new String[DAYS_PER_WEEK];
+        for (int i = 0; i < DAYS_PER_WEEK; i++) {
+            names[i] = ISOChronology.getInstanceUTC().dayOfWeek().getAsText(i + 1, locale).intern();
+        }
+
+        return names;
+    }
+
+    private static Map<String, DayOfWeek> daysByName(final Locale locale) {
+        final Map<String, DayOfWeek> days = new HashMap<>();
+        for (final DayOfWeek day : DayOfWeek.values()) {
+            final String upper = day.name();
+            final String lower = upper.toLowerCase(Locale.ROOT);
+            // A spelling is only taken if the slow path accepts it in this locale, e.g. not "friday" in Turkish
+            for (final String name : new String[]{upper, lower, upper.charAt(0) + lower.substring(1)}) {
+                if (name.toUpperCase(locale).equals(upper)) {
+                    days.put(name, day);
+                }
+            }
+        }
+
+        return Map.copyOf(days);
+    }
+
+    /**
+     * Filled dates of a block; the final field makes them visible to every thread that sees the block.
+     *
+     * @param dates packed dates.
+     */
+    private record Block(int[] dates) {
+    }
+}
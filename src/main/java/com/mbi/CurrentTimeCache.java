@@ -0,0 +1,91 @@
+package com.mbi;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.time.Clock;
+
+/**
+ * Current date and date time strings, formatted once per day and once per second respectively.
+ * <p>
+ * Each value is published together with the interval of clock millis it is valid for. Readers compare the clock
+ * with that interval and return the published string without locking; the first reader that finds it stale
+ * formats a new one. Concurrent refreshes are harmless: they format the same text.
+ */
+final class CurrentTimeCache {
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private final Clock clock;
+    private final DateTimeZone zone;
+    private final DateTimeFormatter dateFormatter;
+    private final DateTimeFormatter dateTimeFormatter;
+    private volatile Text date = new Text(0, 0, "");
+    private volatile Text dateTime = new Text(0, 0, "");
+
+    /**
+     * Constructor with time source and format.
+     *
+     * @param clock             time source.
+     * @param zone              time zone of formatted values.
+     * @param dateFormatter     'yyyy-MM-dd' formatter.
+     * @param dateTimeFormatter 'yyyy-MM-dd'T'HH:mm:ss' formatter.
+     */
+    public CurrentTimeCache(final Clock clock, final DateTimeZone zone, final DateTimeFormatter dateFormatter,
+                            final DateTimeFormatter dateTimeFormatter) {
+        this.clock = clock;
+        this.zone = zone;
+        this.dateFormatter = dateFormatter;
+        this.dateTimeFormatter = dateTimeFormatter;
+    }
+
+    /**
+     * Returns current date in format 'yyyy-MM-dd'.
+     *
+     * @return current date.
+     */
+    public String date() {
+        final long now = clock.millis();
+        var current = date;
+        if (!current.covers(now)) {
+            final var today = new DateTime(now, zone).withTimeAtStartOfDay();
+            current = new Text(today.getMillis(), today.plusDays(1).withTimeAtStartOfDay().getMillis(),
+                    dateFormatter.print(today));
+            date = current;
+        }
+
+        return current.text;
+    }
+
+    /**
+     * Returns current date time in format 'yyyy-MM-dd'T'HH:mm:ss'.
+     *
+     * @return current date time.
+     */
+    public String dateTime() {
+        final long now = clock.millis();
+        var current = dateTime;
+        if (!current.covers(now)) {
+            final long from = now - Math.floorMod(now + zone.getOffset(now), MILLIS_PER_SECOND);
+            current = new Text(from, from + MILLIS_PER_SECOND, dateTimeFormatter.print(new DateTime(now, zone)));
+            dateTime = current;
+        }
+
+        return current.text;
+    }
+
+    /**
+     * Formatted value and the interval of clock millis it stands for.
+     *
+     * @param from  start of interval, inclusive.
+     * @param until end of interval, exclusive.
+     * @param text  formatted value.
+     */
+    private record Text(long from, long until, String text) {
+
+        private boolean covers(final long millis) {
+            return millis >= from && millis < until;
+        }
+    }
+}
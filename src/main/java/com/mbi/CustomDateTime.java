@@ -11,6 +11,7 @@ package com.mbi;
  *     <li>h  - hours</li>
  *     <li>m  - minutes</li>
  *     <li>s  - seconds</li>
+ *     <li>b  - business days</li>
  * </ul>
  */
 final class CustomDateTime {
@@ -21,6 +22,7 @@ final class CustomDateTime {
     private int h;   // hours
     private int m;   // minutes
     private int s;   // seconds
+    private int b;   // business days
 
     public int getY() {
         return y;
@@ -69,4 +71,12 @@ final class CustomDateTime {
     public void setS(final int s) {
         this.s = s;
     }
+
+    public int getB() {
+        return b;
+    }
+
+    public void setB(final int b) {
+        this.b = b;
+    }
 }
@@ -0,0 +1,68 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+
+/**
+ * Date time library behind {@link DateHandler}: resolves local date times against a time zone and applies offsets.
+ * <p>
+ * Engines work on primitives only: local date times are packed into a {@code long} (see {@link PackedDateTime}) and
+ * instants are epoch millis. Text is recognized by {@link DateScanner} before an engine is involved, so all engines
+ * accept exactly the same input; fields handed to an engine are in range and the day exists in its month, see
+ * {@link DateValidator#exists(long)}. Results are printed by {@link DatePrinter}, also shared.
+ * <p>
+ * Every engine must give the same results as {@link JodaDateEngine}, the reference implementation:
+ * <ul>
+ *     <li>ambiguous local time in a DST overlap resolves to the earlier instant;</li>
+ *     <li>calendar units of an offset are applied to local time one after another, and local time in a DST gap
+ *     after a step is moved forward by the length of the gap, see {@link OffsetEngine}.</li>
+ * </ul>
+ * <p>
+ * The engine resolves local time, applies offsets and reads local time of instants for {@code plus}/{@code minus}
+ * (of dates, date times, epoch seconds and {@code range}), {@code toEpochSecond}, {@code tryParse},
+ * {@code parsed}, the current date time and the check of a date against DST gaps. These never call it, so they
+ * are the same code with every engine:
+ * <ul>
+ *     <li>scanning and printing, {@link DateScanner} and {@link DatePrinter};</li>
+ *     <li>arithmetic on epoch days ({@code plusEpochDay}, {@code yearOf}, {@code daysBetween}, ...) and naming
+ *     days, {@link EpochCalendar};</li>
+ *     <li>fields of an epoch second ({@code hourOf}, {@code epochDayOf}, ...) and the current time cache, which
+ *     read Joda-Time zone offsets;</li>
+ *     <li>{@code getDayOfWeek(String)} of a date time, of a date out of range or of a date whose midnight falls
+ *     into a DST gap, and {@code plus}/{@code minus} of a start the scanner does not recognize: both go to the
+ *     lenient Joda-Time formatter.</li>
+ * </ul>
+ * Implementations are stateless and thread-safe.
+ */
+interface DateEngine {
+
+    /**
+     * Resolves local date time to an instant.
+     *
+     * @param fields packed local date time of an existing date.
+     * @param zone   time zone.
+     * @return epoch millis, or {@link DateValidator#NOT_VALID} if local time falls into a DST gap.
+     */
+    long toEpochMillis(long fields, DateTimeZone zone);
+
+    /**
+     * Adds offset to an instant, or subtracts it.
+     *
+     * @param instant epoch millis.
+     * @param zone    time zone of calendar units.
+     * @param offset  compiled formula.
+     * @param add     true to add the offset, false to subtract it
+     * @return updated epoch millis.
+     * @throws ArithmeticException if the result overflows epoch millis.
+     */
+    long applyOffset(long instant, DateTimeZone zone, DateTimeOffset offset, boolean add);
+
+    /**
+     * Reads local date time of an instant.
+     *
+     * @param instant epoch millis.
+     * @param zone    time zone.
+     * @param time    true to keep time of day, false for a date.
+     * @return packed local date or date time.
+     */
+    long toLocalFields(long instant, DateTimeZone zone, boolean time);
+}
@@ -0,0 +1,19 @@
+package com.mbi;
+
+/**
+ * Date time library a {@link DateHandler} computes with, see {@link DateHandler.Builder#engine(DateEngineType)}.
+ * Engines give the same results; they differ in speed and allocation.
+ */
+public enum DateEngineType {
+
+    /**
+     * Joda-Time zone rules and calendar, the default.
+     */
+    JODA,
+
+    /**
+     * java.time: {@code LocalDateTime} arithmetic and JDK zone rules. Text is scanned and printed the same way as
+     * with Joda-Time, see {@link DateEngine}.
+     */
+    JAVA_TIME
+}
@@ -0,0 +1,605 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Adds a formula to, or subtracts it from, every date of a file, as {@link DateHandler#plus(String, String)} and
+ * {@link DateHandler#minus(String, String)} do for a single date.
+ * <p>
+ * The file is memory-mapped in chunks ending at line breaks, and chunks are processed in parallel on the common
+ * fork/join pool. Dates are read and written in place as ASCII bytes, so no string is created per line or per date
+ * and any ASCII-compatible encoding, e.g. UTF-8, works. A date is either:
+ * <ul>
+ *     <li>a whole cell of a column of delimited lines, see {@link Builder#column(int, char)}; other cells of the
+ *     column, such as a header, are left as they are;</li>
+ *     <li>by default, any text in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss not preceded by a letter or a digit
+ *     and not followed by a digit, so "2024-03-30T12:00:00Z" or "2024-03-30T12:00:00.250" are found. Text with a
+ *     field out of its range, e.g. "2024-13-45", is not a date and is left as it is.</li>
+ * </ul>
+ * Dates are local time of the default time zone, as for {@link DateHandler#plus(String, String)}, except a token
+ * date time followed by 'Z' or a UTC offset, after an optional fraction of second, e.g. "2024-03-31T00:30:00Z" or
+ * "2024-03-31T00:30:00.250+02:00": it is local time of that offset, and the offset and fraction are kept as they are.
+ * {@link #shift(Path, WritableByteChannel)} streams the result to another file or channel in the order of the input.
+ * {@link #shiftInPlace(Path)} rewrites the file itself, which works as long as every shifted date keeps its width;
+ * the whole file is checked before the first byte is written, so a failure leaves it unchanged.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class DateFileShifter {
+
+    private static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+    private static final int LINE_PROBE_SIZE = 8192;
+    private static final int MAX_DATE_LENGTH = 32;
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    private final DateHandler handler;
+    private final DateTimeOffset offset;
+    private final boolean add;
+    private final int column;
+    private final char delimiter;
+    private final int chunkSize;
+
+    private DateFileShifter(final Builder builder) {
+        this.handler = builder.handler;
+        this.offset = FormulaCache.SHARED.get(builder.formula);
+        this.add = builder.add;
+        this.column = builder.column;
+        this.delimiter = builder.delimiter;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    /**
+     * Returns builder of a shifter computing with the handler: engine and default time zone are the same as of
+     * {@link DateHandler#plus(String, String)}.
+     *
+     * @param handler date handler.
+     * @return builder.
+     */
+    public static Builder builder(final DateHandler handler) {
+        return new Builder(Objects.requireNonNull(handler, "handler"));
+    }
+
+    /**
+     * Writes input with shifted dates to the output file, replacing its content.
+     *
+     * @param input  file to read.
+     * @param output file to write.
+     * @return count of shifted dates.
+     * @throws IOException              if a file can't be read or written.
+     * @throws IllegalArgumentException if a date does not exist, a cell of the column has a field out of range or
+     *                                  local time falls into a DST gap.
+     */
+    public long shift(final Path input, final Path output) throws IOException {
+        try (var channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return shift(input, channel);
+        }
+    }
+
+    /**
+     * Writes input with shifted dates to a channel, in the order of the input. Dates may change their width, e.g. a
+     * date plus "1h" becomes a date time. At most two chunks per core are held in memory at a time.
+     *
+     * @param input  file to read.
+     * @param output destination, left open.
+     * @return count of shifted dates.
+     * @throws IOException              if the file can't be read or the channel can't be written.
+     * @throws IllegalArgumentException if a date does not exist, a cell of the column has a field out of range or
+     *                                  local time falls into a DST gap.
+     */
+    public long shift(final Path input, final WritableByteChannel output) throws IOException {
+        try (var channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            final long[] bounds = split(channel);
+            final int window = 2 * ForkJoinPool.getCommonPoolParallelism();
+            final var pending = new ArrayDeque<CompletableFuture<CopyTask>>();
+            long count = 0;
+            int next = 0;
+            while (next < bounds.length - 1 || !pending.isEmpty()) {
+                while (next < bounds.length - 1 && pending.size() < window) {
+                    final var task = new CopyTask(map(channel, bounds, next, FileChannel.MapMode.READ_ONLY));
+                    pending.add(CompletableFuture.supplyAsync(() -> {
+                        task.run();
+                        return task;
+                    }));
+                    next++;
+                }
+                final var done = join(pending.remove());
+                final var bytes = ByteBuffer.wrap(done.out, 0, done.size);
+                while (bytes.hasRemaining()) {
+                    output.write(bytes);
+                }
+                count += done.count;
+            }
+
+            return count;
+        }
+    }
+
+    /**
+     * Rewrites dates of the file in place.
+     * <p>
+     * Every date is shifted twice: a read-only pass first shifts all dates of the file without writing, and the file
+     * is rejected without changes if a date can't be shifted or its result would change width, e.g. a date that
+     * doesn't exist, a local time in a DST gap, a date without time that a formula with time units turns into a date
+     * time, or a year that gains a digit. Only then the second pass writes the results; use
+     * {@link #shift(Path, Path)} for dates that change width.
+     *
+     * @param file file to rewrite.
+     * @return count of shifted dates.
+     * @throws IOException              if the file can't be read or written.
+     * @throws IllegalStateException    if a shifted date would be wider or narrower than the original; thrown by the
+     *                                  check pass, so the file is unchanged.
+     * @throws IllegalArgumentException if a date does not exist, a cell of the column has a field out of range or
+     *                                  local time falls into a DST gap; thrown by the check pass, so the file is
+     *                                  unchanged.
+     */
+    public long shiftInPlace(final Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long[] bounds = split(channel);
+            runAll(channel, bounds, FileChannel.MapMode.READ_ONLY, CheckTask::new);
+
+            return runAll(channel, bounds, FileChannel.MapMode.READ_WRITE, InPlaceTask::new);
+        }
+    }
+
+    /**
+     * Runs a task per chunk in parallel.
+     *
+     * @param channel file.
+     * @param bounds  chunk bounds, see {@link #split(FileChannel)}.
+     * @param mode    mapping mode.
+     * @param task    task of a chunk.
+     * @return total count of dates found by tasks.
+     * @throws IOException if the file can't be mapped.
+     */
+    private long runAll(final FileChannel channel, final long[] bounds, final FileChannel.MapMode mode,
+                        final Function<MappedByteBuffer, ChunkTask> task) throws IOException {
+        final var chunks = new MappedByteBuffer[bounds.length - 1];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = map(channel, bounds, i, mode);
+        }
+
+        return IntStream.range(0, chunks.length).parallel().mapToLong(i -> task.apply(chunks[i]).run()).sum();
+    }
+
+    /**
+     * Splits file into chunks of about the chunk size, each ending after a line break or at the end of the file.
+     *
+     * @param channel file.
+     * @return offsets of chunk starts followed by the file size.
+     * @throws IOException if the file can't be read.
+     */
+    private long[] split(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final var probe = ByteBuffer.allocate(LINE_PROBE_SIZE);
+        long[] bounds = new long[(int) Math.min(size / chunkSize + 2, Integer.MAX_VALUE)];
+        int count = 1;
+        long start = 0;
+        while (start < size) {
+            start = size - start > chunkSize ? lineEnd(channel, start + chunkSize, size, probe) : size;
+            if (count == bounds.length) {
+                bounds = Arrays.copyOf(bounds, count * 2);
+            }
+            bounds[count++] = start;
+        }
+
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static long lineEnd(final FileChannel channel, final long from, final long size, final ByteBuffer probe)
+            throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            final int read = channel.read(probe, position);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += Math.max(read, 0);
+        }
+
+        return size;
+    }
+
+    private static MappedByteBuffer map(final FileChannel channel, final long[] bounds, final int chunk,
+                                        final FileChannel.MapMode mode) throws IOException {
+        return channel.map(mode, bounds[chunk], bounds[chunk + 1] - bounds[chunk]);
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Builder of {@link DateFileShifter}. Defaults: dates anywhere in the text, chunks of 8 MiB.
+     */
+    public static final class Builder {
+
+        private final DateHandler handler;
+        private String formula;
+        private boolean add;
+        private int column = -1;
+        private char delimiter;
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        private Builder(final DateHandler handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * Adds formula to every date.
+         *
+         * @param formula period formula, e.g. "1y2M3d4h5m6s".
+         * @return this builder.
+         */
+        public Builder plus(final String formula) {
+            this.formula = formula;
+            this.add = true;
+            return this;
+        }
+
+        /**
+         * Subtracts formula from every date.
+         *
+         * @param formula period formula, e.g. "1y2M3d4h5m6s".
+         * @return this builder.
+         */
+        public Builder minus(final String formula) {
+            this.formula = formula;
+            this.add = false;
+            return this;
+        }
+
+        /**
+         * Shifts only dates that fill a cell of a column, in lines split by the delimiter. Cells not in a supported
+         * format, e.g. a header or "2024-03-30 12:00", are left as they are.
+         *
+         * @param index     column index, from 0.
+         * @param separator delimiter of cells, e.g. ',' or '\t'.
+         * @return this builder.
+         * @throws IllegalArgumentException if index is negative.
+         */
+        public Builder column(final int index, final char separator) {
+            if (index < 0) {
+                throw new IllegalArgumentException("Column index must not be negative: " + index);
+            }
+            this.column = index;
+            this.delimiter = separator;
+            return this;
+        }
+
+        /**
+         * Sets size of chunks processed in parallel. A chunk is extended to the end of its last line.
+         *
+         * @param bytes chunk size in bytes, up to 1 GiB.
+         * @return this builder.
+         * @throws IllegalArgumentException if size is not positive or above 1 GiB.
+         */
+        public Builder chunkSize(final int bytes) {
+            if (bytes <= 0 || bytes > MAX_CHUNK_SIZE) {
+                throw new IllegalArgumentException("Chunk size must be in range [1, 2^30]: " + bytes);
+            }
+            this.chunkSize = bytes;
+            return this;
+        }
+
+        /**
+         * Builds the shifter.
+         *
+         * @return shifter.
+         * @throws IllegalStateException    if neither plus nor minus is set.
+         * @throws IllegalArgumentException if formula is invalid.
+         */
+        public DateFileShifter build() {
+            if (formula == null) {
+                throw new IllegalStateException("Formula is not set: call plus or minus");
+            }
+
+            return new DateFileShifter(this);
+        }
+    }
+
+    /**
+     * Finds the dates of one chunk.
+     */
+    private abstract class ChunkTask {
+
+        /**
+         * Chunk bytes.
+         */
+        protected final ByteBuffer bytes;
+
+        /**
+         * Count of dates found.
+         */
+        protected long count;
+
+        private final AsciiSequence text;
+        private final char[] date = new char[MAX_DATE_LENGTH];
+        private final DateTimeZone defaultZone = DateTimeZone.getDefault();
+        private int lastOffsetSeconds;
+        private DateTimeZone lastOffsetZone = DateTimeZone.UTC;
+
+        private ChunkTask(final ByteBuffer bytes) {
+            this.bytes = bytes;
+            this.text = new AsciiSequence(bytes);
+        }
+
+        /**
+         * Processes every date of the chunk.
+         *
+         * @return count of dates.
+         */
+        public long run() {
+            if (column < 0) {
+                findTokens();
+            } else {
+                findCells();
+            }
+            finish();
+
+            return count;
+        }
+
+        /**
+         * Handles a date.
+         *
+         * @param from  index of the first year digit.
+         * @param width length of the date.
+         * @param zone  time zone of the date.
+         */
+        protected abstract void found(int from, int width, DateTimeZone zone);
+
+        /**
+         * Completes the chunk after the last date.
+         */
+        protected void finish() {
+            // nothing by default
+        }
+
+        /**
+         * Shifts a date into the scratch buffer.
+         *
+         * @param from index of the first year digit.
+         * @param zone time zone of the date.
+         * @return length of the shifted date.
+         */
+        protected int shifted(final int from, final DateTimeZone zone) {
+            return DatePrinter.print(handler.shift(text, from, zone, offset, add), date, 0);
+        }
+
+        /**
+         * Shifts a date into the scratch buffer, making sure the result can replace it in place.
+         *
+         * @param from  index of the first year digit.
+         * @param width length of the date.
+         * @param zone  time zone of the date.
+         * @throws IllegalStateException if the shifted date has another width.
+         */
+        protected void shiftedInPlace(final int from, final int width, final DateTimeZone zone) {
+            final int length = shifted(from, zone);
+            if (length != width) {
+                throw new IllegalStateException("Can't shift " + text.subSequence(from, from + width)
+                        + " in place: result has " + length + " chars");
+            }
+        }
+
+        /**
+         * Returns char of the shifted date.
+         *
+         * @param index index in the shifted date.
+         * @return ASCII byte.
+         */
+        protected byte shiftedByte(final int index) {
+            return (byte) date[index];
+        }
+
+        private void findTokens() {
+            final int limit = bytes.limit();
+            int i = 0;
+            while (i < limit) {
+                final int width = isAlphanumeric(i - 1) ? 0 : dateWidth(i);
+                if (width > 0 && !isDigit(i + width)) {
+                    found(i, width, zoneAfter(i + width, width));
+                    count++;
+                    i += width;
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        private void findCells() {
+            final int limit = bytes.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                final int lineEnd = indexOf('\n', lineStart, limit);
+                int cellStart = lineStart;
+                for (int c = 0; c < column && cellStart <= lineEnd; c++) {
+                    cellStart = indexOf(delimiter, cellStart, lineEnd) + 1;
+                }
+                if (cellStart < lineEnd) {
+                    int cellEnd = indexOf(delimiter, cellStart, lineEnd);
+                    if (cellEnd == lineEnd && text.charAt(cellEnd - 1) == '\r') {
+                        cellEnd--;
+                    }
+                    final int width = cellEnd - cellStart;
+                    if (width > 0 && dateWidth(cellStart) == width) {
+                        found(cellStart, width, defaultZone);
+                        count++;
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+        }
+
+        /**
+         * Returns width of a date in a supported format at the index. A token also needs its fields in range, so
+         * text such as "2024-13-45" isn't taken for a date; such a cell of the column is, and fails to shift.
+         *
+         * @param from index of the first char.
+         * @return width of the date, or 0 if there is none.
+         */
+        private int dateWidth(final int from) {
+            final int width = Character.isDigit(text.charAt(from)) ? DateScanner.widthAt(text, from) : 0;
+            final long fields = width > 0 ? DateScanner.scan(text, from) : PackedDateTime.INVALID;
+            final boolean inRange = column >= 0 || fields != PackedDateTime.OUT_OF_RANGE;
+
+            return fields != PackedDateTime.INVALID && inRange ? width : 0;
+        }
+
+        /**
+         * Returns the time zone of a token: a fixed offset zone if 'Z' or an offset follows a date time, otherwise
+         * the default time zone.
+         *
+         * @param end   index after the token.
+         * @param width length of the token.
+         * @return time zone.
+         */
+        private DateTimeZone zoneAfter(final int end, final int width) {
+            final int seconds = width == DateScanner.DATE_TIME_LENGTH && end < bytes.limit()
+                    ? DateScanner.offsetAt(text, end)
+                    : DateScanner.NO_OFFSET;
+            if (seconds != DateScanner.NO_OFFSET && seconds != lastOffsetSeconds) {
+                // Files mostly repeat one offset, so its zone is looked up once
+                lastOffsetSeconds = seconds;
+                lastOffsetZone = DateTimeZone.forOffsetMillis(seconds * MILLIS_PER_SECOND);
+            }
+
+            return seconds == DateScanner.NO_OFFSET ? defaultZone : lastOffsetZone;
+        }
+
+        private boolean isAlphanumeric(final int index) {
+            if (index < 0 || index >= bytes.limit()) {
+                return false;
+            }
+            final char c = text.charAt(index);
+            return c < 0x80 && Character.isLetterOrDigit(c);
+        }
+
+        private boolean isDigit(final int index) {
+            return index < bytes.limit() && Character.isDigit(text.charAt(index));
+        }
+
+        private int indexOf(final char c, final int from, final int limit) {
+            int i = from;
+            while (i < limit && text.charAt(i) != c) {
+                i++;
+            }
+
+            return i;
+        }
+    }
+
+    /**
+     * Copies a chunk with shifted dates into memory, to be written in order.
+     */
+    private final class CopyTask extends ChunkTask {
+
+        private byte[] out;
+        private int size;
+        private int copied;
+
+        private CopyTask(final ByteBuffer bytes) {
+            super(bytes);
+            this.out = new byte[bytes.limit() + MAX_DATE_LENGTH];
+        }
+
+        @Override
+        protected void found(final int from, final int width, final DateTimeZone zone) {
+            copyUntil(from);
+            final int length = shifted(from, zone);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                out[size++] = shiftedByte(i);
+            }
+            copied = from + width;
+        }
+
+        @Override
+        protected void finish() {
+            copyUntil(bytes.limit());
+        }
+
+        private void copyUntil(final int end) {
+            final int length = end - copied;
+            ensureCapacity(length);
+            bytes.get(copied, out, size, length);
+            size += length;
+            copied = end;
+        }
+
+        private void ensureCapacity(final int length) {
+            if (size + length > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, size + length));
+            }
+        }
+    }
+
+    /**
+     * Writes shifted dates over the original ones in a read-write mapping.
+     */
+    private final class InPlaceTask extends ChunkTask {
+
+        private InPlaceTask(final ByteBuffer bytes) {
+            super(bytes);
+        }
+
+        @Override
+        protected void found(final int from, final int width, final DateTimeZone zone) {
+            shiftedInPlace(from, width, zone);
+            for (int i = 0; i < width; i++) {
+                bytes.put(from + i, shiftedByte(i));
+            }
+        }
+
+        @Override
+        protected void finish() {
+            ((MappedByteBuffer) bytes).force();
+        }
+    }
+
+    /**
+     * Shifts every date of a read-only mapping without writing, to fail before {@link InPlaceTask} changes anything.
+     */
+    private final class CheckTask extends ChunkTask {
+
+        private CheckTask(final ByteBuffer bytes) {
+            super(bytes);
+        }
+
+        @Override
+        protected void found(final int from, final int width, final DateTimeZone zone) {
+            shiftedInPlace(from, width, zone);
+        }
+    }
+}
@@ -5,51 +5,187 @@ import org.joda.time.DateTimeZone;
 import org.joda.time.Days;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.tz.CachedDateTimeZone;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Clock;
 import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
-
-import static org.testng.Assert.assertTrue;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Different operations with date time.
  */
+@SuppressWarnings("PMD.TooManyMethods") // Single entry point of the library
 public final class DateHandler {
 
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final long MIN_EPOCH_SECOND = Long.MIN_VALUE / MILLIS_PER_SECOND;
+    private static final long MAX_EPOCH_SECOND = Long.MAX_VALUE / MILLIS_PER_SECOND;
+
     /**
-     * Invalid date time format error message.
+     * Max number of formulas whose results for the current day are cached, per direction.
      */
-    private static final String INVALID_DATE_FORMAT_ERROR_MESSAGE = "Incorrect date format";
+    private static final int TODAY_SHIFT_CACHE_SIZE = 1024;
 
     /**
-     * Date Pattern.
+     * Compiled formulas shared by all instances. Bound is set with system property {@code com.mbi.formulaCacheSize}.
      */
-    private final DateTimeFormatter dateFormatter = DateTimeFormat.forPattern("yyyy-MM-dd");
+    private static final FormulaCache FORMULAS = FormulaCache.SHARED;
+
+    /**
+     * Date Pattern. Formatters are immutable and shared by all instances.
+     */
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormat.forPattern("yyyy-MM-dd");
 
     /**
      * Date time pattern.
      */
-    private final DateTimeFormatter dateTimeFormatter = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /**
+     * Shared handlers by time zone, see {@link #forZone(DateTimeZone)}.
+     */
+    private static final ConcurrentMap<DateTimeZone, DateHandler> HANDLERS_BY_ZONE = new ConcurrentHashMap<>();
+
+    /**
+     * Shared handlers by time zone id, so a known id skips the zone provider, see {@link #forZone(String)}.
+     */
+    private static final ConcurrentMap<String, DateHandler> HANDLERS_BY_ZONE_ID = new ConcurrentHashMap<>();
 
     /**
      * Time zone.
      */
     private final DateTimeZone dateTimeZone;
 
+    /**
+     * Source of current time.
+     */
+    private final Clock clock;
+
+    /**
+     * Formatted current date and date time, or null if they are formatted on every call.
+     */
+    private final CurrentTimeCache currentTimeCache;
+
+    /**
+     * Results of {@link #plus(String)} and {@link #minus(String)} for the current day, or null if they are computed
+     * on every call.
+     */
+    private final TodayShiftCache todayShiftCache;
+
+    /**
+     * Date time library doing the computations.
+     */
+    private final DateEngine engine;
+
+    /**
+     * Receiver of counters and latencies.
+     */
+    private final MetricsSink metrics;
+
+    /**
+     * If operations are timed for the metrics sink.
+     */
+    private final boolean timed;
+
+    /**
+     * Working days of business day units in formulas, null if none is set.
+     */
+    private final BusinessCalendar businessCalendar;
+
     /**
      * Constructor with time zone.
      *
      * @param dateTimeZone time zone.
      */
     public DateHandler(final DateTimeZone dateTimeZone) {
-        this.dateTimeZone = dateTimeZone;
+        this(new Builder().zone(dateTimeZone));
     }
 
     /**
      * Constructor with default time zone UTC.
      */
     public DateHandler() {
-        this.dateTimeZone = DateTimeZone.UTC;
+        this(new Builder());
+    }
+
+    private DateHandler(final Builder builder) {
+        this.dateTimeZone = builder.zone;
+        this.clock = builder.clock;
+        this.currentTimeCache = builder.cacheCurrentTime
+                ? new CurrentTimeCache(clock, dateTimeZone, DATE_FORMATTER, DATE_TIME_FORMATTER)
+                : null;
+        this.todayShiftCache = builder.cacheTodayShifts
+                ? new TodayShiftCache(clock, dateTimeZone, TODAY_SHIFT_CACHE_SIZE)
+                : null;
+        this.engine = switch (builder.engine) {
+            case JODA -> JodaDateEngine.INSTANCE;
+            case JAVA_TIME -> JavaTimeDateEngine.INSTANCE;
+        };
+        this.metrics = builder.metrics;
+        this.timed = metrics.recordsLatency();
+        this.businessCalendar = builder.businessCalendar;
+    }
+
+    /**
+     * Returns builder for a handler with non-default time zone, clock, caching or engine.
+     *
+     * @return builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the handler of a time zone shared by all callers, instead of a new one per call: handlers are
+     * immutable and thread-safe. It has the defaults of {@link #builder()} except for the zone. A zone with DST
+     * rules is wrapped into a {@link CachedDateTimeZone}, so offsets and transitions of the periods in use are
+     * computed once for all handlers of the zone.
+     *
+     * @param zone time zone.
+     * @return shared handler of the zone.
+     * @throws NullPointerException if zone is null.
+     */
+    public static DateHandler forZone(final DateTimeZone zone) {
+        Objects.requireNonNull(zone, "zone");
+        return HANDLERS_BY_ZONE.computeIfAbsent(zone, key -> new Builder()
+                .zone(key.isFixed() ? key : CachedDateTimeZone.forZone(key))
+                .build());
+    }
+
+    /**
+     * Returns the handler of a time zone shared by all callers, see {@link #forZone(DateTimeZone)}. The zone is
+     * looked up once per id.
+     *
+     * @param zoneId time zone id, e.g. "Europe/Kiev" or "+02:00", as of {@link DateTimeZone#forID(String)}.
+     * @return shared handler of the zone.
+     * @throws IllegalArgumentException if zone id is not recognised.
+     * @throws NullPointerException     if zone id is null.
+     */
+    public static DateHandler forZone(final String zoneId) {
+        Objects.requireNonNull(zoneId, "zoneId");
+        final var handler = HANDLERS_BY_ZONE_ID.get(zoneId);
+
+        return handler == null
+                ? HANDLERS_BY_ZONE_ID.computeIfAbsent(zoneId, id -> forZone(DateTimeZone.forID(id)))
+                : handler;
     }
 
     /**
@@ -58,7 +194,7 @@ public final class DateHandler {
      * @return current date.
      */
     public String getCurrentDate() {
-        return dateFormatter.print(new DateTime(dateTimeZone));
+        return currentTimeCache == null ? DatePrinter.toString(now(false)) : currentTimeCache.date();
     }
 
     /**
@@ -67,7 +203,40 @@ public final class DateHandler {
      * @return current date time.
      */
     public String getCurrentDateTime() {
-        return dateTimeFormatter.print(new DateTime(dateTimeZone));
+        return currentTimeCache == null ? DatePrinter.toString(now(true)) : currentTimeCache.dateTime();
+    }
+
+    /**
+     * Appends current date time in format 'yyyy-MM-dd'T'HH:mm:ss', see {@link #getCurrentDateTime()}, without
+     * creating a string.
+     *
+     * @param out destination, e.g. a {@link StringBuilder} or a {@link java.nio.CharBuffer}.
+     * @throws UncheckedIOException if the appendable fails.
+     */
+    public void getCurrentDateTime(final Appendable out) {
+        try {
+            if (currentTimeCache == null) {
+                DatePrinter.print(now(true), out);
+            } else {
+                out.append(currentTimeCache.dateTime());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes current date time in format 'yyyy-MM-dd'T'HH:mm:ss', see {@link #getCurrentDateTime()}, into a buffer.
+     *
+     * @param buffer destination.
+     * @param offset index of the first char to write.
+     * @return index after the last written char.
+     * @throws IndexOutOfBoundsException if the result doesn't fit; nothing is written then.
+     */
+    public int getCurrentDateTime(final char[] buffer, final int offset) {
+        return currentTimeCache == null
+                ? DatePrinter.print(now(true), buffer, offset)
+                : DatePrinter.copy(currentTimeCache.dateTime(), buffer, offset);
     }
 
     /**
@@ -76,7 +245,9 @@ public final class DateHandler {
      * @return day of week.
      */
     public String getDayOfWeek() {
-        return new DateTime(dateTimeZone).dayOfWeek().getAsText();
+        final long today = now(false);
+        return EpochCalendar.dayOfWeekText(EpochCalendar.toEpochDay(PackedDateTime.year(today),
+                PackedDateTime.month(today), PackedDateTime.day(today)));
     }
 
     /**
@@ -86,7 +257,12 @@ public final class DateHandler {
      * @return day of week.
      */
     public String getDayOfWeek(final String date) {
-        return dateFormatter.parseDateTime(date).dayOfWeek().getAsText();
+        final long fields = DateScanner.scan(date);
+        // A date whose midnight exists in the default time zone is named from the table, the rest goes to Joda-Time
+        return PackedDateTime.hasTime(fields) || !DateValidator.exists(fields)
+                || engine.toEpochMillis(fields, DateTimeZone.getDefault()) == DateValidator.NOT_VALID
+                ? parseDate(date).dayOfWeek().getAsText()
+                : EpochCalendar.dayOfWeekText(EpochCalendar.toEpochDay(fields));
     }
 
     /**
@@ -97,12 +273,71 @@ public final class DateHandler {
      * @return the absolute value of 1st date minus 2nd.
      */
     public int daysBetweenDates(final String startDate, final String endDate) {
-        final var start = dateFormatter.parseDateTime(startDate);
-        final var end = dateFormatter.parseDateTime(endDate);
+        final var start = parseDate(startDate);
+        final var end = parseDate(endDate);
 
         return Math.abs(Days.daysBetween(start.withTimeAtStartOfDay(), end.withTimeAtStartOfDay()).getDays());
     }
 
+    /**
+     * Count of days between two dates read in place from longer texts, e.g. fields of a log line or a CSV row,
+     * without copying them out. A date at an offset is read as yyyy-MM-dd'T'HH:mm:ss if 'T' follows yyyy-MM-dd,
+     * otherwise as yyyy-MM-dd; chars after it are not read. Time of day is ignored.
+     *
+     * @param startText   text holding 1st date.
+     * @param startOffset index of the first year digit of 1st date.
+     * @param endText     text holding 2nd date.
+     * @param endOffset   index of the first year digit of 2nd date.
+     * @return the absolute value of 1st date minus 2nd.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if date does not exist or local time falls into a DST gap.
+     * @throws IndexOutOfBoundsException if an offset is not an index of its text.
+     */
+    public int daysBetweenDates(final CharSequence startText, final int startOffset, final CharSequence endText,
+                                final int endOffset) {
+        final var zone = DateTimeZone.getDefault();
+        return Math.abs(EpochCalendar.toEpochDay(parse(startText, startOffset, zone))
+                - EpochCalendar.toEpochDay(parse(endText, endOffset, zone)));
+    }
+
+    /**
+     * Count of days between two dates read in place from ASCII bytes, see
+     * {@link #daysBetweenDates(CharSequence, int, CharSequence, int)}. Offsets are absolute indexes of the buffers,
+     * as of {@link ByteBuffer#get(int)}; positions of the buffers are not changed.
+     *
+     * @param startText   ASCII text holding 1st date.
+     * @param startOffset index of the first year digit of 1st date.
+     * @param endText     ASCII text holding 2nd date.
+     * @param endOffset   index of the first year digit of 2nd date.
+     * @return the absolute value of 1st date minus 2nd.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if date does not exist or local time falls into a DST gap.
+     * @throws IndexOutOfBoundsException if an offset is not below the limit of its buffer.
+     */
+    public int daysBetweenDates(final ByteBuffer startText, final int startOffset, final ByteBuffer endText,
+                                final int endOffset) {
+        return daysBetweenDates(new AsciiSequence(startText), startOffset, new AsciiSequence(endText), endOffset);
+    }
+
+    /**
+     * Count of business days between two dates: working days of the business calendar after the earlier date, up to
+     * and including the later one, so it is n for a date and the date plus "nb". Time of day is ignored.
+     * Example: "2024-01-05" (Friday) and "2024-01-09" (Tuesday) are 2 business days apart with Saturday and Sunday
+     * off.
+     *
+     * @param startDate 1st date.
+     * @param endDate   2nd date.
+     * @return count of business days, regardless of the order of dates.
+     * @throws AssertionError           if date format is incorrect.
+     * @throws IllegalArgumentException if date does not exist or is outside the years of the business calendar.
+     * @throws IllegalStateException    if no business calendar is set.
+     */
+    public int businessDaysBetween(final String startDate, final String endDate) {
+        final var calendar = BusinessCalendar.require(businessCalendar);
+        return calendar.workingDaysBetween(EpochCalendar.toEpochDay(parse(startDate)),
+                EpochCalendar.toEpochDay(parse(endDate)));
+    }
+
     /**
      * Adds some period of time to current date. Time period should be in format e.g.: "1y2M3d4h5m6s"
      * Where:
@@ -120,7 +355,7 @@ public final class DateHandler {
      *                                  period if unknown.
      */
     public String plus(final String formula) {
-        return plus(dateFormatter.print(DateTime.now(dateTimeZone)), formula);
+        return todayShiftCache == null ? plus(getCurrentDate(), formula) : shiftToday(formula, true);
     }
 
     /**
@@ -133,6 +368,11 @@ public final class DateHandler {
      * 5m - 5 minutes.
      * 6s - 6 seconds.
      * Example: passed date time = "2017-01-01T12:00:00", formula = "3d5m", method will return "2017-01-04T12:05:00".
+     * <p>
+     * Besides yyyy-MM-dd and yyyy-MM-dd'T'HH:mm:ss, start may be in basic format (yyyyMMdd, yyyyMMdd'T'HHmmss), and a
+     * date time may end with a fraction of second and 'Z' or a UTC offset, e.g. "2017-01-01T12:00:00.250+02:00". Such
+     * a date time is local time of its offset. The result is printed in the format of start, with its fraction and
+     * offset.
      *
      * @param formula period formula.
      * @param start   date to add time period to.
@@ -141,12 +381,87 @@ public final class DateHandler {
      *                                  period if unknown.
      */
     public String plus(final String start, final String formula) {
-        final var formulaDateTime = new DateTimeParser().parse(formula);
-        final var startFormatter = isDate(start) ? dateFormatter : dateTimeFormatter;
-        final var startDateTime = startFormatter.parseDateTime(start);
-        final var resultFormatter = (isDate(formulaDateTime) && isDate(start)) ? dateFormatter : dateTimeFormatter;
+        final long begin = begin(DateOperation.PLUS);
+        final var result = DatePrinter.toString(shift(start, compile(formula), true), start);
+        end(DateOperation.PLUS, begin);
+
+        return result;
+    }
+
+    /**
+     * Adds some period of time to passed date, see {@link #plus(String, String)}, and appends the result without
+     * creating a string.
+     *
+     * @param start   date to add time period to.
+     * @param formula period formula.
+     * @param out     destination, e.g. a {@link StringBuilder} or a {@link java.nio.CharBuffer}.
+     * @throws IllegalArgumentException if formula is invalid.
+     * @throws UncheckedIOException     if the appendable fails.
+     */
+    public void plus(final String start, final String formula, final Appendable out) {
+        final long begin = begin(DateOperation.PLUS);
+        append(shift(start, compile(formula), true), start, out);
+        end(DateOperation.PLUS, begin);
+    }
+
+    /**
+     * Adds some period of time to passed date, see {@link #plus(String, String)}, and writes the result into a
+     * buffer.
+     *
+     * @param start   date to add time period to.
+     * @param formula period formula.
+     * @param buffer  destination.
+     * @param offset  index of the first char to write.
+     * @return index after the last written char.
+     * @throws IllegalArgumentException  if formula is invalid.
+     * @throws IndexOutOfBoundsException if the result doesn't fit; nothing is written then.
+     */
+    public int plus(final String start, final String formula, final char[] buffer, final int offset) {
+        final long begin = begin(DateOperation.PLUS);
+        final int end = DatePrinter.print(shift(start, compile(formula), true), start, buffer, offset);
+        end(DateOperation.PLUS, begin);
 
-        return resultFormatter.print(applyOffset(startDateTime, formulaDateTime, true));
+        return end;
+    }
+
+    /**
+     * Adds some period of time to a date read in place from a longer text, e.g. a field of a log line or a CSV row,
+     * without copying it out, see {@link #plus(String, String)}. The date at the offset is read as
+     * yyyy-MM-dd'T'HH:mm:ss if 'T' follows yyyy-MM-dd, otherwise as yyyy-MM-dd; chars after it are not read.
+     *
+     * @param text    text holding the date to add time period to.
+     * @param offset  index of the first year digit.
+     * @param formula period formula.
+     * @return updated date time.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if formula is invalid, date does not exist or local time falls into a DST
+     *                                   gap.
+     * @throws IndexOutOfBoundsException if offset is not an index of text.
+     */
+    public String plus(final CharSequence text, final int offset, final String formula) {
+        final long begin = begin(DateOperation.PLUS);
+        final var result = DatePrinter.toString(shift(text, offset, DateTimeZone.getDefault(), compile(formula), true));
+        end(DateOperation.PLUS, begin);
+
+        return result;
+    }
+
+    /**
+     * Adds some period of time to a date read in place from ASCII bytes, see
+     * {@link #plus(CharSequence, int, String)}. The offset is an absolute index of the buffer, as of
+     * {@link ByteBuffer#get(int)}; position of the buffer is not changed.
+     *
+     * @param text    ASCII text holding the date to add time period to.
+     * @param offset  index of the first year digit.
+     * @param formula period formula.
+     * @return updated date time.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if formula is invalid, date does not exist or local time falls into a DST
+     *                                   gap.
+     * @throws IndexOutOfBoundsException if offset is not below the limit of the buffer.
+     */
+    public String plus(final ByteBuffer text, final int offset, final String formula) {
+        return plus(new AsciiSequence(text), offset, formula);
     }
 
     /**
@@ -166,7 +481,7 @@ public final class DateHandler {
      *                                  period if unknown.
      */
     public String minus(final String formula) {
-        return minus(dateFormatter.print(DateTime.now(dateTimeZone)), formula);
+        return todayShiftCache == null ? minus(getCurrentDate(), formula) : shiftToday(formula, false);
     }
 
     /**
@@ -187,12 +502,233 @@ public final class DateHandler {
      *                                  period if unknown.
      */
     public String minus(final String start, final String formula) {
-        final var formulaDateTime = new DateTimeParser().parse(formula);
-        final var startFormatter = isDate(start) ? dateFormatter : dateTimeFormatter;
-        final var startDateTime = startFormatter.parseDateTime(start);
-        final var resultFormatter = (isDate(formulaDateTime) && isDate(start)) ? dateFormatter : dateTimeFormatter;
+        final long begin = begin(DateOperation.MINUS);
+        final var result = DatePrinter.toString(shift(start, compile(formula), false), start);
+        end(DateOperation.MINUS, begin);
+
+        return result;
+    }
+
+    /**
+     * Subtracts some period of time from passed date, see {@link #minus(String, String)}, and appends the result
+     * without creating a string.
+     *
+     * @param start   date to subtract time period from.
+     * @param formula period formula.
+     * @param out     destination, e.g. a {@link StringBuilder} or a {@link java.nio.CharBuffer}.
+     * @throws IllegalArgumentException if formula is invalid.
+     * @throws UncheckedIOException     if the appendable fails.
+     */
+    public void minus(final String start, final String formula, final Appendable out) {
+        final long begin = begin(DateOperation.MINUS);
+        append(shift(start, compile(formula), false), start, out);
+        end(DateOperation.MINUS, begin);
+    }
+
+    /**
+     * Subtracts some period of time from passed date, see {@link #minus(String, String)}, and writes the result into
+     * a buffer.
+     *
+     * @param start   date to subtract time period from.
+     * @param formula period formula.
+     * @param buffer  destination.
+     * @param offset  index of the first char to write.
+     * @return index after the last written char.
+     * @throws IllegalArgumentException  if formula is invalid.
+     * @throws IndexOutOfBoundsException if the result doesn't fit; nothing is written then.
+     */
+    public int minus(final String start, final String formula, final char[] buffer, final int offset) {
+        final long begin = begin(DateOperation.MINUS);
+        final int end = DatePrinter.print(shift(start, compile(formula), false), start, buffer, offset);
+        end(DateOperation.MINUS, begin);
+
+        return end;
+    }
 
-        return resultFormatter.print(applyOffset(startDateTime, formulaDateTime, false));
+    /**
+     * Subtracts some period of time from a date read in place from a longer text, without copying it out, see
+     * {@link #minus(String, String)} and {@link #plus(CharSequence, int, String)}.
+     *
+     * @param text    text holding the date to subtract time period from.
+     * @param offset  index of the first year digit.
+     * @param formula period formula.
+     * @return updated date time.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if formula is invalid, date does not exist or local time falls into a DST
+     *                                   gap.
+     * @throws IndexOutOfBoundsException if offset is not an index of text.
+     */
+    public String minus(final CharSequence text, final int offset, final String formula) {
+        final long begin = begin(DateOperation.MINUS);
+        final var result = DatePrinter.toString(shift(text, offset, DateTimeZone.getDefault(), compile(formula), false));
+        end(DateOperation.MINUS, begin);
+
+        return result;
+    }
+
+    /**
+     * Subtracts some period of time from a date read in place from ASCII bytes, see
+     * {@link #minus(CharSequence, int, String)} and {@link #plus(ByteBuffer, int, String)}.
+     *
+     * @param text    ASCII text holding the date to subtract time period from.
+     * @param offset  index of the first year digit.
+     * @param formula period formula.
+     * @return updated date time.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if formula is invalid, date does not exist or local time falls into a DST
+     *                                   gap.
+     * @throws IndexOutOfBoundsException if offset is not below the limit of the buffer.
+     */
+    public String minus(final ByteBuffer text, final int offset, final String formula) {
+        return minus(new AsciiSequence(text), offset, formula);
+    }
+
+    /**
+     * Adds the same period of time to every passed date, see {@link #plus(String, String)}.
+     * The formula is compiled once; large lists are split between cores. Results keep the order of inputs.
+     *
+     * @param starts  dates to add time period to.
+     * @param formula period formula.
+     * @return updated dates in the order of inputs.
+     * @throws IllegalArgumentException if formula is invalid, or error of the first start that can't be shifted.
+     * @throws AssertionError           if the first start that can't be shifted has incorrect format.
+     */
+    public List<String> plusAll(final List<String> starts, final String formula) {
+        final long begin = begin(DateOperation.PLUS_ALL);
+        final var result = List.of(BatchShifter.applyAll(starts, shiftOperation(formula, true)));
+        end(DateOperation.PLUS_ALL, begin);
+
+        return result;
+    }
+
+    /**
+     * Adds the same period of time to every passed date, see {@link #plusAll(List, String)}.
+     *
+     * @param starts  dates to add time period to.
+     * @param formula period formula.
+     * @return updated dates in the order of inputs.
+     * @throws IllegalArgumentException if formula is invalid, or error of the first start that can't be shifted.
+     * @throws AssertionError           if the first start that can't be shifted has incorrect format.
+     */
+    public String[] plusAll(final String[] starts, final String formula) {
+        final long begin = begin(DateOperation.PLUS_ALL);
+        final var result = BatchShifter.applyAll(Arrays.asList(starts), shiftOperation(formula, true));
+        end(DateOperation.PLUS_ALL, begin);
+
+        return result;
+    }
+
+    /**
+     * Adds the same period of time to every passed date, see {@link #plusAll(List, String)}.
+     *
+     * @param starts  dates to add time period to.
+     * @param formula period formula.
+     * @param mode    fail on the first start that can't be shifted, or collect errors of all of them.
+     * @return updated dates in the order of inputs, and errors by index.
+     * @throws IllegalArgumentException if formula is invalid.
+     */
+    public BatchResult plusAll(final List<String> starts, final String formula, final BatchErrorMode mode) {
+        final long begin = begin(DateOperation.PLUS_ALL);
+        final var result = BatchShifter.applyAll(starts, shiftOperation(formula, true), mode);
+        end(DateOperation.PLUS_ALL, begin);
+
+        return result;
+    }
+
+    /**
+     * Subtracts the same period of time from every passed date, see {@link #minus(String, String)}.
+     * The formula is compiled once; large lists are split between cores. Results keep the order of inputs.
+     *
+     * @param starts  dates to subtract time period from.
+     * @param formula period formula.
+     * @return updated dates in the order of inputs.
+     * @throws IllegalArgumentException if formula is invalid, or error of the first start that can't be shifted.
+     * @throws AssertionError           if the first start that can't be shifted has incorrect format.
+     */
+    public List<String> minusAll(final List<String> starts, final String formula) {
+        final long begin = begin(DateOperation.MINUS_ALL);
+        final var result = List.of(BatchShifter.applyAll(starts, shiftOperation(formula, false)));
+        end(DateOperation.MINUS_ALL, begin);
+
+        return result;
+    }
+
+    /**
+     * Subtracts the same period of time from every passed date, see {@link #minusAll(List, String)}.
+     *
+     * @param starts  dates to subtract time period from.
+     * @param formula period formula.
+     * @return updated dates in the order of inputs.
+     * @throws IllegalArgumentException if formula is invalid, or error of the first start that can't be shifted.
+     * @throws AssertionError           if the first start that can't be shifted has incorrect format.
+     */
+    public String[] minusAll(final String[] starts, final String formula) {
+        final long begin = begin(DateOperation.MINUS_ALL);
+        final var result = BatchShifter.applyAll(Arrays.asList(starts), shiftOperation(formula, false));
+        end(DateOperation.MINUS_ALL, begin);
+
+        return result;
+    }
+
+    /**
+     * Subtracts the same period of time from every passed date, see {@link #minusAll(List, String)}.
+     *
+     * @param starts  dates to subtract time period from.
+     * @param formula period formula.
+     * @param mode    fail on the first start that can't be shifted, or collect errors of all of them.
+     * @return updated dates in the order of inputs, and errors by index.
+     * @throws IllegalArgumentException if formula is invalid.
+     */
+    public BatchResult minusAll(final List<String> starts, final String formula, final BatchErrorMode mode) {
+        final long begin = begin(DateOperation.MINUS_ALL);
+        final var result = BatchShifter.applyAll(starts, shiftOperation(formula, false), mode);
+        end(DateOperation.MINUS_ALL, begin);
+
+        return result;
+    }
+
+    /**
+     * Returns dates from start, stepping by a period, up to but not including the end. Start and end are read as
+     * local time of the default time zone, or of their offset if they have one; results are dates if both start and
+     * step are dates, otherwise date times, and have the format of start.
+     * Example: start = "2024-01-31", end = "2024-05-01", step = "1M", the stream is "2024-01-31", "2024-02-29",
+     * "2024-03-31", "2024-04-30".
+     * <p>
+     * Element n is start plus n times the step, as {@link #plus(String, String)} computes it, so a day clamped to
+     * the end of a short month doesn't stay clamped. The formula is compiled once and nothing is computed until the
+     * stream is consumed; the stream is sized, and a parallel one splits the range by index.
+     *
+     * @param start        first date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @param endExclusive date to stop before, in the same formats.
+     * @param step         period formula.
+     * @return lazy ordered stream of dates, empty if end is not after start.
+     * @throws IllegalArgumentException if step is invalid or zero, or a date does not exist.
+     * @throws AssertionError           if a date has incorrect format.
+     */
+    public Stream<String> range(final String start, final String endExclusive, final String step) {
+        final long begin = begin(DateOperation.RANGE);
+        final var offset = rangeStep(step);
+        final long startFields = parse(start);
+        final long endFields = parse(endExclusive);
+        final var zone = DateValidator.zoneOf(start, startFields, DateTimeZone.getDefault());
+        final long startMillis = engine.toEpochMillis(startFields, zone);
+        final long endMillis = engine.toEpochMillis(endFields, DateValidator.zoneOf(endExclusive, endFields,
+                DateTimeZone.getDefault()));
+        final boolean time = offset.hasTime() || PackedDateTime.hasTime(startFields);
+        final var spliterator = IndexedSpliterator.below(i -> rangeElement(startMillis, zone, offset, i), endMillis);
+        end(DateOperation.RANGE, begin);
+
+        return StreamSupport.longStream(spliterator, false).mapToObj(instant -> DatePrinter.toString(
+                PackedDateTime.withFormatOf(engine.toLocalFields(instant, zone, time), startFields), start));
+    }
+
+    /**
+     * Returns counters of the compiled formula cache shared by all instances, to help sizing it.
+     *
+     * @return formula cache stats.
+     */
+    public static FormulaCacheStats getFormulaCacheStats() {
+        return FORMULAS.stats();
     }
 
     /**
@@ -201,7 +737,7 @@ public final class DateHandler {
      * @return current year.
      */
     public int getYear() {
-        return new DateTime(dateTimeZone).getYear();
+        return PackedDateTime.year(now(true));
     }
 
     /**
@@ -212,7 +748,38 @@ public final class DateHandler {
      * @throws AssertionError if date format is incorrect.
      */
     public int getYear(final String date) {
-        return parse(date).getYear();
+        return PackedDateTime.year(parse(date));
+    }
+
+    /**
+     * Returns year of a date read in place from a longer text, e.g. a field of a log line or a CSV row, without
+     * copying it out. The date at the offset is read as yyyy-MM-dd'T'HH:mm:ss if 'T' follows yyyy-MM-dd, otherwise
+     * as yyyy-MM-dd; chars after it are not read.
+     *
+     * @param text   text holding the date.
+     * @param offset index of the first year digit.
+     * @return year.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if date does not exist or local time falls into a DST gap.
+     * @throws IndexOutOfBoundsException if offset is not an index of text.
+     */
+    public int getYear(final CharSequence text, final int offset) {
+        return PackedDateTime.year(parse(text, offset, DateTimeZone.getDefault()));
+    }
+
+    /**
+     * Returns year of a date read in place from ASCII bytes, see {@link #getYear(CharSequence, int)}. The offset is
+     * an absolute index of the buffer, as of {@link ByteBuffer#get(int)}; position of the buffer is not changed.
+     *
+     * @param text   ASCII text holding the date.
+     * @param offset index of the first year digit.
+     * @return year.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if date does not exist or local time falls into a DST gap.
+     * @throws IndexOutOfBoundsException if offset is not below the limit of the buffer.
+     */
+    public int getYear(final ByteBuffer text, final int offset) {
+        return getYear(new AsciiSequence(text), offset);
     }
 
     /**
@@ -221,7 +788,7 @@ public final class DateHandler {
      * @return current month.
      */
     public int getMonth() {
-        return new DateTime(dateTimeZone).getMonthOfYear();
+        return PackedDateTime.month(now(true));
     }
 
     /**
@@ -232,7 +799,7 @@ public final class DateHandler {
      * @throws AssertionError if date format is incorrect.
      */
     public int getMonth(final String date) {
-        return parse(date).getMonthOfYear();
+        return PackedDateTime.month(parse(date));
     }
 
     /**
@@ -241,7 +808,7 @@ public final class DateHandler {
      * @return current day.
      */
     public int getDay() {
-        return new DateTime(dateTimeZone).getDayOfMonth();
+        return PackedDateTime.day(now(true));
     }
 
     /**
@@ -252,7 +819,7 @@ public final class DateHandler {
      * @throws AssertionError if date format is incorrect.
      */
     public int getDay(final String date) {
-        return parse(date).getDayOfMonth();
+        return PackedDateTime.day(parse(date));
     }
 
     /**
@@ -261,7 +828,7 @@ public final class DateHandler {
      * @return current hour.
      */
     public int getHour() {
-        return new DateTime(dateTimeZone).getHourOfDay();
+        return PackedDateTime.hour(now(true));
     }
 
     /**
@@ -272,7 +839,7 @@ public final class DateHandler {
      * @throws AssertionError if date format is incorrect.
      */
     public int getHour(final String date) {
-        return parse(date).getHourOfDay();
+        return PackedDateTime.hour(parse(date));
     }
 
     /**
@@ -281,7 +848,7 @@ public final class DateHandler {
      * @return current minute.
      */
     public int getMinute() {
-        return new DateTime(dateTimeZone).getMinuteOfHour();
+        return PackedDateTime.minute(now(true));
     }
 
     /**
@@ -292,7 +859,7 @@ public final class DateHandler {
      * @throws AssertionError if date format is incorrect.
      */
     public int getMinute(final String date) {
-        return parse(date).getMinuteOfHour();
+        return PackedDateTime.minute(parse(date));
     }
 
     /**
@@ -301,7 +868,7 @@ public final class DateHandler {
      * @return current second.
      */
     public int getSecond() {
-        return new DateTime(dateTimeZone).getSecondOfMinute();
+        return PackedDateTime.second(now(true));
     }
 
     /**
@@ -312,7 +879,7 @@ public final class DateHandler {
      * @throws AssertionError if date format is incorrect.
      */
     public int getSecond(final String date) {
-        return parse(date).getSecondOfMinute();
+        return PackedDateTime.second(parse(date));
     }
 
     /**
@@ -325,6 +892,31 @@ public final class DateHandler {
         return getDayInWeek(date, "Monday");
     }
 
+    /**
+     * Appends the start of the week (Monday) for the given date, see {@link #getStartOfWeek(String)}, without
+     * creating a string.
+     *
+     * @param date the reference date (format yyyy-MM-dd)
+     * @param out  destination, e.g. a {@link StringBuilder} or a {@link java.nio.CharBuffer}.
+     * @throws UncheckedIOException if the appendable fails.
+     */
+    public void getStartOfWeek(final String date, final Appendable out) {
+        append(dayInWeek(date, DayOfWeek.MONDAY), null, out);
+    }
+
+    /**
+     * Writes the start of the week (Monday) for the given date, see {@link #getStartOfWeek(String)}, into a buffer.
+     *
+     * @param date   the reference date (format yyyy-MM-dd)
+     * @param buffer destination.
+     * @param offset index of the first char to write.
+     * @return index after the last written char.
+     * @throws IndexOutOfBoundsException if the result doesn't fit; nothing is written then.
+     */
+    public int getStartOfWeek(final String date, final char[] buffer, final int offset) {
+        return DatePrinter.print(dayInWeek(date, DayOfWeek.MONDAY), buffer, offset);
+    }
+
     /**
      * Returns the end of the week (Sunday) for the given date.
      *
@@ -347,77 +939,987 @@ public final class DateHandler {
      * @return the date of that day in the same ISO week as the input date
      */
     public String getDayInWeek(final String date, final String targetDay) {
-        final var inputDate = parse(date);
-        final var currentDay = inputDate.getDayOfWeek();
-        final var target = DayOfWeek.valueOf(targetDay.toUpperCase(Locale.getDefault()));
+        return DatePrinter.toString(dayInWeek(date, CalendarTable.SHARED.dayOfWeek(targetDay, Locale.getDefault())));
+    }
+
+    /**
+     * Decodes a date or a date time once, for repeated reads and arithmetic without parsing it again:
+     * {@code parsed("2024-03-30T12:34:56").plus("1d").getHour()}.
+     *
+     * @param date date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @return parsed date.
+     * @throws AssertionError           if date format is incorrect.
+     * @throws IllegalArgumentException if date does not exist or local time falls into a DST gap.
+     */
+    public ParsedDate parsed(final String date) {
+        final long begin = begin(DateOperation.PARSE);
+        final ParsedDate result;
+        try {
+            result = ParsedDate.parse(date, engine, businessCalendar);
+        } catch (AssertionError | IllegalArgumentException e) {
+            reject(e);
+            throw e;
+        }
+        end(DateOperation.PARSE, begin);
+
+        return result;
+    }
 
-        final int diff = target.getValue() - currentDay; // e.g. Saturday(6) - Thursday(4) = +2
+    /**
+     * Adds some period of time to an instant given in epoch seconds. Calendar units (years, months, days) are
+     * applied in the time zone of this handler. See {@link #plus(String, String)} for the formula format.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @param formula     period formula.
+     * @return updated instant in epoch seconds.
+     * @throws IllegalArgumentException if formula is invalid.
+     * @throws ArithmeticException      if the instant or the result is out of the range of epoch millis.
+     */
+    public long plusEpochSecond(final long epochSecond, final String formula) {
+        final long begin = begin(DateOperation.PLUS);
+        final long result = shiftEpochSecond(epochSecond, compile(formula), true);
+        end(DateOperation.PLUS, begin);
 
-        return dateFormatter.print(inputDate.plusDays(diff));
+        return result;
     }
 
     /**
-     * If passed date format matches expected.
+     * Subtracts some period of time from an instant given in epoch seconds. Calendar units (years, months, days) are
+     * applied in the time zone of this handler. See {@link #minus(String, String)} for the formula format.
      *
-     * @param date date format for check.
-     * @return result of check.
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @param formula     period formula.
+     * @return updated instant in epoch seconds.
+     * @throws IllegalArgumentException if formula is invalid.
+     * @throws ArithmeticException      if the instant or the result is out of the range of epoch millis.
      */
-    private boolean isDate(final String date) {
-        return date.matches("^\\d{4}(-\\d{2}){2}$");
+    public long minusEpochSecond(final long epochSecond, final String formula) {
+        final long begin = begin(DateOperation.MINUS);
+        final long result = shiftEpochSecond(epochSecond, compile(formula), false);
+        end(DateOperation.MINUS, begin);
+
+        return result;
     }
 
     /**
-     * If passed date time object contains hours or minutes or seconds.
+     * Adds the same period of time to every instant of an array, in place, see {@link #plusEpochSecond(long, String)}.
+     * The formula is compiled once. When it is a fixed duration - no years or months, and no days unless the time
+     * zone of this handler has a fixed offset - it is added to every element in a loop the JIT vectorizes; otherwise
+     * every element goes through calendar arithmetic. Both ways reject the same instants: those whose instant or
+     * result is out of the range of epoch millis.
      *
-     * @param dt date time.
-     * @return result of check.
+     * @param epochSeconds instants in seconds since 1970-01-01T00:00:00Z, replaced with updated instants.
+     * @param formula      period formula.
+     * @throws IllegalArgumentException if formula is invalid.
+     * @throws ArithmeticException      if an instant or its result is out of the range of epoch millis; with a fixed
+     *                                  duration no element is updated then.
      */
-    private boolean isDate(final CustomDateTime dt) {
-        return dt.getH() + dt.getM() + dt.getS() == 0;
+    public void plusAllEpochSeconds(final long[] epochSeconds, final String formula) {
+        final long begin = begin(DateOperation.PLUS_ALL);
+        shiftAllEpochSeconds(epochSeconds, compile(formula), true);
+        end(DateOperation.PLUS_ALL, begin);
     }
 
     /**
-     * If passed date time format matches expected.
+     * Subtracts the same period of time from every instant of an array, in place, see
+     * {@link #plusAllEpochSeconds(long[], String)} and {@link #minusEpochSecond(long, String)}.
      *
-     * @param dateTime date time format for check.
-     * @return result of check.
+     * @param epochSeconds instants in seconds since 1970-01-01T00:00:00Z, replaced with updated instants.
+     * @param formula      period formula.
+     * @throws IllegalArgumentException if formula is invalid.
+     * @throws ArithmeticException      if an instant or its result is out of the range of epoch millis.
      */
-    private boolean isDateTime(final String dateTime) {
-        return dateTime.matches("^\\d{4}(-\\d{2}){2}T(\\d{2}:){2}\\d{2}$");
+    public void minusAllEpochSeconds(final long[] epochSeconds, final String formula) {
+        final long begin = begin(DateOperation.MINUS_ALL);
+        shiftAllEpochSeconds(epochSeconds, compile(formula), false);
+        end(DateOperation.MINUS_ALL, begin);
     }
 
     /**
-     * Parses a date or datetime string into a Joda-Time {@link DateTime} object.
-     * <p>
-     * The method automatically detects the format (date or datetime) and throws an
-     * assertion error if the input does not match any of the supported formats.
+     * Returns instants from start, stepping by a period, up to but not including the end. Calendar units (years,
+     * months, days) are applied in the time zone of this handler. See {@link #range(String, String, String)}.
      *
-     * @param date the date or datetime string to parse, must be in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss
-     * @return parsed {@link DateTime} object
-     * @throws AssertionError if the format is invalid
+     * @param startEpochSecond first instant in seconds since 1970-01-01T00:00:00Z.
+     * @param endEpochSecond   instant to stop before.
+     * @param step             period formula.
+     * @return lazy ordered stream of instants in epoch seconds, empty if end is not after start.
+     * @throws IllegalArgumentException if step is invalid or zero.
      */
-    private DateTime parse(final String date) {
-        assertTrue(isDate(date) || isDateTime(date), INVALID_DATE_FORMAT_ERROR_MESSAGE);
-        final var formatter = isDate(date) ? dateFormatter : dateTimeFormatter;
-        return formatter.parseDateTime(date);
+    public LongStream rangeEpochSecond(final long startEpochSecond, final long endEpochSecond, final String step) {
+        final long begin = begin(DateOperation.RANGE);
+        final var offset = rangeStep(step);
+        final long startMillis = startEpochSecond * MILLIS_PER_SECOND;
+        final var spliterator = IndexedSpliterator.below(
+                i -> Math.floorDiv(rangeElement(startMillis, dateTimeZone, offset, i), MILLIS_PER_SECOND),
+                endEpochSecond);
+        end(DateOperation.RANGE, begin);
+
+        return StreamSupport.longStream(spliterator, false);
     }
 
     /**
-     * Applies a custom date/time offset to the given base {@link DateTime}.
-     * <p>
-     * If {@code add} is true, the offset will be added; otherwise, it will be subtracted.
+     * Adds some period of time to a date given in epoch days. Formula may contain years, months and days only.
+     * Example: epoch day 0 (1970-01-01), formula = "1M2d", method will return 33 (1970-02-03).
      *
-     * @param base   the base {@link DateTime} to apply the offset to
-     * @param offset the {@link CustomDateTime} object containing the offset values
-     * @param add    true to add the offset, false to subtract it
-     * @return updated {@link DateTime} with the offset applied
+     * @param epochDay days since 1970-01-01.
+     * @param formula  period formula.
+     * @return updated date in epoch days.
+     * @throws IllegalArgumentException if formula is invalid or contains hours, minutes or seconds.
      */
-    private DateTime applyOffset(final DateTime base, final CustomDateTime offset, final boolean add) {
-        return (add ? base.plusYears(offset.getY()) : base.minusYears(offset.getY()))
-                .plusMonths(add ? offset.getMo() : -offset.getMo())
-                .plusDays(add ? offset.getD() : -offset.getD())
-                .plusHours(add ? offset.getH() : -offset.getH())
-                .plusMinutes(add ? offset.getM() : -offset.getM())
-                .plusSeconds(add ? offset.getS() : -offset.getS());
+    public int plusEpochDay(final int epochDay, final String formula) {
+        final long begin = begin(DateOperation.PLUS);
+        final int result = shiftEpochDay(epochDay, compile(formula), 1);
+        end(DateOperation.PLUS, begin);
+
+        return result;
+    }
+
+    /**
+     * Subtracts some period of time from a date given in epoch days. Formula may contain years, months and days only.
+     * Example: epoch day 33 (1970-02-03), formula = "1M2d", method will return 0 (1970-01-01).
+     *
+     * @param epochDay days since 1970-01-01.
+     * @param formula  period formula.
+     * @return updated date in epoch days.
+     * @throws IllegalArgumentException if formula is invalid or contains hours, minutes or seconds.
+     */
+    public int minusEpochDay(final int epochDay, final String formula) {
+        final long begin = begin(DateOperation.MINUS);
+        final int result = shiftEpochDay(epochDay, compile(formula), -1);
+        end(DateOperation.MINUS, begin);
+
+        return result;
+    }
+
+    /**
+     * Returns dates from start, stepping by a period, up to but not including the end. Formula may contain years,
+     * months and days only. See {@link #range(String, String, String)}.
+     *
+     * @param startEpochDay first date in days since 1970-01-01.
+     * @param endEpochDay   date to stop before.
+     * @param step          period formula.
+     * @return lazy ordered stream of dates in epoch days, empty if end is not after start.
+     * @throws IllegalArgumentException if step is invalid, zero or contains hours, minutes or seconds.
+     */
+    public IntStream rangeEpochDay(final int startEpochDay, final int endEpochDay, final String step) {
+        final long begin = begin(DateOperation.RANGE);
+        final var offset = requireDate(rangeStep(step));
+        final var spliterator = IndexedSpliterator.below(
+                i -> shiftEpochDay(startEpochDay, offset.calendarTimes(i), 1), endEpochDay);
+        end(DateOperation.RANGE, begin);
+
+        return StreamSupport.longStream(spliterator, false).mapToInt(Math::toIntExact);
+    }
+
+    /**
+     * Returns year of a date given in epoch days.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return year.
+     */
+    public int yearOf(final int epochDay) {
+        return PackedDateTime.year(EpochCalendar.toDate(epochDay));
+    }
+
+    /**
+     * Returns month of a date given in epoch days.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return month.
+     */
+    public int monthOf(final int epochDay) {
+        return PackedDateTime.month(EpochCalendar.toDate(epochDay));
+    }
+
+    /**
+     * Returns day of month of a date given in epoch days.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return day.
+     */
+    public int dayOf(final int epochDay) {
+        return PackedDateTime.day(EpochCalendar.toDate(epochDay));
+    }
+
+    /**
+     * Returns ISO day of week of a date given in epoch days.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return day of week from 1 (Monday) to 7 (Sunday).
+     */
+    public int dayOfWeekOf(final int epochDay) {
+        return EpochCalendar.dayOfWeek(epochDay);
+    }
+
+    /**
+     * Count of days between two dates given in epoch days.
+     *
+     * @param startEpochDay 1st date.
+     * @param endEpochDay   2nd date.
+     * @return the absolute value of 1st date minus 2nd.
+     */
+    public int daysBetween(final int startEpochDay, final int endEpochDay) {
+        return Math.abs(endEpochDay - startEpochDay);
+    }
+
+    /**
+     * Returns the date of an instant in the time zone of this handler.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @return days since 1970-01-01.
+     */
+    public int epochDayOf(final long epochSecond) {
+        return (int) Math.floorDiv(localEpochSecond(epochSecond), EpochCalendar.SECONDS_PER_DAY);
+    }
+
+    /**
+     * Returns hour of an instant in the time zone of this handler.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @return hour.
+     */
+    public int hourOf(final long epochSecond) {
+        return secondOfDay(epochSecond) / SECONDS_PER_HOUR;
+    }
+
+    /**
+     * Returns minute of an instant in the time zone of this handler.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @return minute.
+     */
+    public int minuteOf(final long epochSecond) {
+        return secondOfDay(epochSecond) % SECONDS_PER_HOUR / SECONDS_PER_MINUTE;
+    }
+
+    /**
+     * Returns second of an instant in the time zone of this handler.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @return second.
+     */
+    public int secondOf(final long epochSecond) {
+        return secondOfDay(epochSecond) % SECONDS_PER_MINUTE;
+    }
+
+    /**
+     * Converts a date or a date time to epoch days. Time of a date time is ignored.
+     *
+     * @param date date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @return days since 1970-01-01.
+     * @throws AssertionError           if date format is incorrect.
+     * @throws IllegalArgumentException if date does not exist.
+     */
+    public int toEpochDay(final String date) {
+        final long begin = begin(DateOperation.PARSE);
+        final long fields;
+        try {
+            fields = DateValidator.scanExisting(date);
+        } catch (AssertionError | IllegalArgumentException e) {
+            reject(e);
+            throw e;
+        }
+        end(DateOperation.PARSE, begin);
+
+        return EpochCalendar.toEpochDay(fields);
+    }
+
+    /**
+     * Converts a date or a date time, taken as local time in the time zone of this handler, to epoch seconds.
+     * A date stands for its start of day.
+     *
+     * @param date date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @return seconds since 1970-01-01T00:00:00Z.
+     * @throws AssertionError           if date format is incorrect.
+     * @throws IllegalArgumentException if date does not exist or local time falls into a DST gap.
+     */
+    public long toEpochSecond(final String date) {
+        final long begin = begin(DateOperation.PARSE);
+        final long millis = DateValidator.toEpochMillis(date, dateTimeZone, engine);
+        if (millis == DateValidator.NOT_VALID) {
+            reject(date);
+            DateValidator.scanValid(date, dateTimeZone, engine);
+        }
+        end(DateOperation.PARSE, begin);
+
+        return Math.floorDiv(millis, MILLIS_PER_SECOND);
+    }
+
+    /**
+     * Checks a date or a date time without throwing: it is valid if it has format yyyy-MM-dd or
+     * yyyy-MM-dd'T'HH:mm:ss, the date exists and its local time exists in the default time zone, which date
+     * methods such as {@link #getYear(String)} read it in.
+     *
+     * @param date date to check, may be null.
+     * @return true if date is valid.
+     */
+    public boolean isValid(final String date) {
+        return tryParse(date).isPresent();
+    }
+
+    /**
+     * Parses a date or a date time without throwing. The instant is the one date methods such as
+     * {@link #getYear(String)} read: local time of the default time zone.
+     *
+     * @param date date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss, may be null.
+     * @return milliseconds since 1970-01-01T00:00:00Z, or empty if date is not valid, see {@link #isValid(String)}.
+     */
+    public OptionalLong tryParse(final String date) {
+        final long begin = begin(DateOperation.PARSE);
+        final long millis = DateValidator.toEpochMillis(date, DateTimeZone.getDefault(), engine);
+        if (millis == DateValidator.NOT_VALID) {
+            reject(date);
+            return OptionalLong.empty();
+        }
+        end(DateOperation.PARSE, begin);
+
+        return OptionalLong.of(millis);
+    }
+
+    /**
+     * Converts a date or a date time, taken as local time in the time zone of this handler, to epoch seconds
+     * without throwing, see {@link #toEpochSecond(String)}.
+     *
+     * @param date date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss, may be null.
+     * @return seconds since 1970-01-01T00:00:00Z, or empty if format is incorrect, date does not exist or local
+     *         time falls into a DST gap.
+     */
+    public OptionalLong tryToEpochSecond(final String date) {
+        final long begin = begin(DateOperation.PARSE);
+        final long millis = DateValidator.toEpochMillis(date, dateTimeZone, engine);
+        if (millis == DateValidator.NOT_VALID) {
+            reject(date);
+            return OptionalLong.empty();
+        }
+        end(DateOperation.PARSE, begin);
+
+        return OptionalLong.of(Math.floorDiv(millis, MILLIS_PER_SECOND));
+    }
+
+    /**
+     * Returns current local time of this handler's clock in its time zone.
+     *
+     * @param time true to keep time of day, false for a date.
+     * @return packed date or date time.
+     */
+    private long now(final boolean time) {
+        return engine.toLocalFields(clock.millis(), dateTimeZone, time);
+    }
+
+    /**
+     * Parses a date or a date time, read as local time of the default time zone.
+     * <p>
+     * The method automatically detects the format (date or datetime) and throws an
+     * assertion error if the input does not match any of the supported formats.
+     *
+     * @param date the date or datetime string to parse, must be in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss
+     * @return packed date time.
+     * @throws AssertionError           if the format is invalid
+     * @throws IllegalArgumentException if date does not exist or local time falls into a DST gap.
+     */
+    private long parse(final String date) {
+        try {
+            return DateValidator.scanValid(date, DateTimeZone.getDefault(), engine);
+        } catch (AssertionError | IllegalArgumentException e) {
+            reject(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Validates a date or a date time the caller has already scanned, read as local time of the default time zone.
+     *
+     * @param date   scanned date or date time.
+     * @param fields result of {@link DateScanner#scan(CharSequence)}, other than {@link PackedDateTime#INVALID}.
+     * @return packed date time.
+     * @throws IllegalArgumentException if date does not exist or local time falls into a DST gap.
+     */
+    private long parse(final String date, final long fields) {
+        try {
+            return DateValidator.validate(date, fields, DateTimeZone.getDefault(), engine);
+        } catch (IllegalArgumentException e) {
+            reject(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Parses a date or a date time in place, at an index of a longer text, read as local time of a zone.
+     *
+     * @param text   text holding a date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @param offset index of the first year digit.
+     * @param zone   time zone of local time.
+     * @return packed date time.
+     * @throws AssertionError            if the format is invalid
+     * @throws IllegalArgumentException  if date does not exist or local time falls into a DST gap.
+     * @throws IndexOutOfBoundsException if offset is not an index of text.
+     */
+    private long parse(final CharSequence text, final int offset, final DateTimeZone zone) {
+        try {
+            return DateValidator.scanValid(text, offset, zone, engine);
+        } catch (AssertionError | IllegalArgumentException e) {
+            reject(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Parses a date time of a shape the scanner does not recognize with the lenient Joda-Time formatter.
+     *
+     * @param text date time.
+     * @return parsed {@link DateTime} object
+     * @throws IllegalArgumentException if the formatter can't parse it either.
+     */
+    private DateTime parseLenient(final String text) {
+        try {
+            return DATE_TIME_FORMATTER.parseDateTime(text);
+        } catch (IllegalArgumentException e) {
+            metrics.onFailure(FailureReason.INVALID_FORMAT);
+            throw e;
+        }
+    }
+
+    /**
+     * Compiles a formula, see {@link FormulaCache#get(String)}.
+     *
+     * @param formula period formula.
+     * @return compiled formula.
+     * @throws IllegalArgumentException if formula is invalid.
+     */
+    private DateTimeOffset compile(final String formula) {
+        try {
+            return FORMULAS.get(formula);
+        } catch (RuntimeException e) {
+            metrics.onFailure(FailureReason.INVALID_FORMULA);
+            throw e;
+        }
+    }
+
+    /**
+     * Reports the start of an operation to the metrics sink.
+     *
+     * @param operation operation.
+     * @return start time in nanoseconds if operations are timed, otherwise 0.
+     */
+    private long begin(final DateOperation operation) {
+        metrics.onOperation(operation);
+        return timed ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Reports the end of an operation to the metrics sink, if operations are timed.
+     *
+     * @param operation operation.
+     * @param begin     result of {@link #begin(DateOperation)}.
+     */
+    private void end(final DateOperation operation, final long begin) {
+        if (timed) {
+            metrics.onLatency(operation, System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Reports a date rejected by a validating parse.
+     *
+     * @param error error of the parse: {@link AssertionError} for a wrong format, otherwise a date that does not
+     *              exist.
+     */
+    private void reject(final Throwable error) {
+        metrics.onFailure(error instanceof AssertionError ? FailureReason.INVALID_FORMAT : FailureReason.INVALID_DATE);
+    }
+
+    /**
+     * Reports a date rejected by a check that does not throw.
+     *
+     * @param date rejected date, may be null.
+     */
+    private void reject(final String date) {
+        metrics.onFailure(date == null || DateScanner.scan(date) == PackedDateTime.INVALID
+                ? FailureReason.INVALID_FORMAT
+                : FailureReason.INVALID_DATE);
+    }
+
+    /**
+     * Parses a date in format yyyy-MM-dd. Inputs the scanner does not recognize go to the formatter, so they are
+     * accepted or rejected exactly as before.
+     *
+     * @param date date.
+     * @return parsed {@link DateTime} object
+     */
+    private DateTime parseDate(final String date) {
+        final long fields = DateScanner.scan(date);
+        return fields == PackedDateTime.INVALID || PackedDateTime.hasTime(fields)
+                ? DATE_FORMATTER.parseDateTime(date)
+                : toDateTime(date, fields);
+    }
+
+    /**
+     * Converts scanned fields into a {@link DateTime} in the default time zone, as the formatters do.
+     * Joda validates the calendar here: February 30 or a local time in a DST gap are rejected. Fields out of their
+     * range are handed to the formatter to fail with its usual error.
+     *
+     * @param text   scanned date or date time.
+     * @param fields packed date time or {@link PackedDateTime#OUT_OF_RANGE}.
+     * @return date time.
+     */
+    private DateTime toDateTime(final String text, final long fields) {
+        if (fields == PackedDateTime.OUT_OF_RANGE) {
+            return (text.length() == DateScanner.DATE_LENGTH ? DATE_FORMATTER : DATE_TIME_FORMATTER)
+                    .parseDateTime(text);
+        }
+
+        return new DateTime(PackedDateTime.year(fields), PackedDateTime.month(fields), PackedDateTime.day(fields),
+                PackedDateTime.hour(fields), PackedDateTime.minute(fields), PackedDateTime.second(fields), 0);
+    }
+
+    /**
+     * Adds compiled offset to or subtracts it from passed date.
+     * Result is a date if both start and offset are dates, otherwise a date time.
+     *
+     * @param start  date or date time.
+     * @param offset compiled formula.
+     * @param add    true to add the offset, false to subtract it
+     * @return packed updated date time.
+     */
+    private long shift(final String start, final DateTimeOffset offset, final boolean add) {
+        final long scanned = DateScanner.scan(start);
+        if (scanned == PackedDateTime.INVALID) {
+            // Shapes the scanner doesn't know are still handed to the lenient Joda-Time formatter, as before
+            final var result = applyOffset(parseLenient(start), offset, add);
+            final long date = PackedDateTime.ofDate(result.getYear(), result.getMonthOfYear(), result.getDayOfMonth());
+            return PackedDateTime.ofDateTime(date, result.getHourOfDay(), result.getMinuteOfHour(),
+                    result.getSecondOfMinute());
+        }
+
+        final long fields = parse(start, scanned);
+        final long result = shift(fields, DateValidator.zoneOf(start, fields, DateTimeZone.getDefault()), offset, add);
+
+        return PackedDateTime.withFormatOf(result, fields);
+    }
+
+    /**
+     * Adds compiled offset to or subtracts it from parsed date, local time of the default time zone.
+     *
+     * @param fields packed date or date time.
+     * @param offset compiled formula.
+     * @param add    true to add the offset, false to subtract it
+     * @return packed updated date time.
+     */
+    private long shift(final long fields, final DateTimeOffset offset, final boolean add) {
+        return shift(fields, DateTimeZone.getDefault(), offset, add);
+    }
+
+    /**
+     * Adds compiled offset to or subtracts it from parsed date, local time of a zone.
+     *
+     * @param fields packed date or date time.
+     * @param zone   time zone of local time.
+     * @param offset compiled formula.
+     * @param add    true to add the offset, false to subtract it
+     * @return packed updated date time.
+     */
+    private long shift(final long fields, final DateTimeZone zone, final DateTimeOffset offset, final boolean add) {
+        final long start = BusinessCalendar.shiftInstant(businessCalendar, engine, engine.toEpochMillis(fields, zone),
+                zone, offset, add);
+        final long instant = engine.applyOffset(start, zone, offset, add);
+
+        return engine.toLocalFields(instant, zone, offset.hasTime() || PackedDateTime.hasTime(fields));
+    }
+
+    /**
+     * Adds compiled offset to or subtracts it from a date read in place, at an index of a longer text, as local
+     * time of a zone.
+     *
+     * @param text   text holding a date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @param from   index of the first year digit.
+     * @param zone   time zone of local time, e.g. the default one, or the UTC offset the date time ends with.
+     * @param offset compiled formula.
+     * @param add    true to add the offset, false to subtract it
+     * @return packed updated date time.
+     * @throws AssertionError            if the format is invalid
+     * @throws IllegalArgumentException  if date does not exist or local time falls into a DST gap.
+     * @throws IndexOutOfBoundsException if the index is not an index of text.
+     */
+    /* default */ long shift(final CharSequence text, final int from, final DateTimeZone zone,
+                             final DateTimeOffset offset, final boolean add) {
+        return shift(parse(text, from, zone), zone, offset, add);
+    }
+
+    /**
+     * Finds the date of the day of the week in the same ISO week as the given date.
+     *
+     * @param date      the reference date (format yyyy-MM-dd)
+     * @param targetDay day of the week.
+     * @return packed date.
+     */
+    private long dayInWeek(final String date, final DayOfWeek targetDay) {
+        final long fields = parse(date);
+        final var zone = DateValidator.zoneOf(date, fields, DateTimeZone.getDefault());
+        final int epochDay = EpochCalendar.toEpochDay(fields);
+
+        final int diff = targetDay.getValue() - EpochCalendar.dayOfWeek(epochDay); // e.g. Saturday(6) - Thursday(4)
+        final long target = EpochCalendar.toDate(epochDay + diff);
+        // The target date is the answer unless its local time falls into a gap: only a transition skipping a whole
+        // day moves it to another date, which the engine works out
+        if (engine.toEpochMillis(PackedDateTime.ofDateTime(target, PackedDateTime.hour(fields),
+                PackedDateTime.minute(fields), PackedDateTime.second(fields)), zone) != DateValidator.NOT_VALID) {
+            return PackedDateTime.withStyleOf(target, fields);
+        }
+        final long instant = engine.applyOffset(engine.toEpochMillis(fields, zone), zone, DateTimeOffset.ofDays(diff),
+                true);
+
+        return PackedDateTime.withStyleOf(engine.toLocalFields(instant, zone, false), fields);
+    }
+
+    /**
+     * Adds a period of time to or subtracts it from the current date, looking the result up in the results of the
+     * day first, see {@link Builder#cacheTodayShifts(boolean)}.
+     *
+     * @param formula period formula.
+     * @param add     true to add the period, false to subtract it
+     * @return updated date time.
+     * @throws IllegalArgumentException if formula is invalid.
+     */
+    private String shiftToday(final String formula, final boolean add) {
+        final var today = todayShiftCache.today();
+        final String cached = formula == null ? null : today.get(formula, add);
+        final String result;
+        if (cached == null) {
+            result = add ? plus(today.date(), formula) : minus(today.date(), formula);
+            today.put(formula, add, result);
+        } else {
+            final var operation = add ? DateOperation.PLUS : DateOperation.MINUS;
+            final long begin = begin(operation);
+            result = cached;
+            end(operation, begin);
+        }
+
+        return result;
+    }
+
+    /**
+     * Compiles formula once into an operation shifting a single date.
+     *
+     * @param formula period formula.
+     * @param add     true to add the period, false to subtract it
+     * @return shift of one date.
+     */
+    private UnaryOperator<String> shiftOperation(final String formula, final boolean add) {
+        final var offset = compile(formula);
+        return start -> DatePrinter.toString(shift(start, offset, add), start);
+    }
+
+    /**
+     * Adds compiled offset to or subtracts it from an instant, in the time zone of this handler.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @param offset      compiled formula.
+     * @param add         true to add the offset, false to subtract it
+     * @return updated instant in epoch seconds.
+     * @throws ArithmeticException if the instant or the result is out of the range of epoch millis.
+     */
+    private long shiftEpochSecond(final long epochSecond, final DateTimeOffset offset, final boolean add) {
+        requireMillisRange(epochSecond);
+        final long start = BusinessCalendar.shiftInstant(businessCalendar, engine, epochSecond * MILLIS_PER_SECOND,
+                dateTimeZone, offset, add);
+        return Math.floorDiv(engine.applyOffset(start, dateTimeZone, offset, add), MILLIS_PER_SECOND);
+    }
+
+    /**
+     * Adds compiled offset to or subtracts it from every instant of an array, in place, in the time zone of this
+     * handler.
+     *
+     * @param epochSeconds instants in seconds since 1970-01-01T00:00:00Z.
+     * @param offset       compiled formula.
+     * @param add          true to add the offset, false to subtract it
+     */
+    private void shiftAllEpochSeconds(final long[] epochSeconds, final DateTimeOffset offset, final boolean add) {
+        if (offset.getY() == 0 && offset.getMo() == 0 && offset.getB() == 0
+                && (offset.getD() == 0 || dateTimeZone.isFixed())) {
+            // A day is 86400 seconds in a zone without transitions, so the offset is a plain duration
+            final long seconds = (long) offset.getD() * EpochCalendar.SECONDS_PER_DAY
+                    + offset.timeMillis() / MILLIS_PER_SECOND;
+            final long delta = add ? seconds : -seconds;
+            requireMillisRange(epochSeconds, delta);
+            addToAll(epochSeconds, delta);
+        } else {
+            for (int i = 0; i < epochSeconds.length; i++) {
+                epochSeconds[i] = shiftEpochSecond(epochSeconds[i], offset, add);
+            }
+        }
+    }
+
+    /**
+     * Makes sure every element and its sum with a number are in the range of epoch millis, so the fixed duration
+     * path fails where the calendar one does, before any element is updated. Only the smallest and the largest
+     * element are checked; finding them is a loop the JIT vectorizes as well.
+     *
+     * @param epochSeconds instants in seconds since 1970-01-01T00:00:00Z.
+     * @param delta        seconds to add.
+     * @throws ArithmeticException if an instant or its result is out of the range of epoch millis.
+     */
+    private static void requireMillisRange(final long[] epochSeconds, final long delta) {
+        long low = Long.MAX_VALUE;
+        long high = Long.MIN_VALUE;
+        for (final long epochSecond : epochSeconds) {
+            low = Math.min(low, epochSecond);
+            high = Math.max(high, epochSecond);
+        }
+        if (epochSeconds.length > 0) {
+            requireMillisRange(low);
+            requireMillisRange(high);
+            requireMillisRange(Math.addExact(delta < 0 ? low : high, delta));
+        }
+    }
+
+    /**
+     * Makes sure an instant in seconds can be converted to epoch millis.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @throws ArithmeticException if the instant is out of the range of epoch millis.
+     */
+    private static void requireMillisRange(final long epochSecond) {
+        if (epochSecond < MIN_EPOCH_SECOND || epochSecond > MAX_EPOCH_SECOND) {
+            throw new ArithmeticException("Epoch second out of the range of epoch millis: " + epochSecond);
+        }
+    }
+
+    /**
+     * Adds a number to every element. The loop is kept free of calls and checks so the JIT compiles it to SIMD
+     * instructions.
+     *
+     * @param values array to update.
+     * @param delta  number to add.
+     */
+    private static void addToAll(final long[] values, final long delta) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] += delta;
+        }
+    }
+
+    /**
+     * Adds date offset to a date, or subtracts it.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @param offset   compiled formula without time units.
+     * @param sign     1 to add the offset, -1 to subtract it
+     * @return updated date in epoch days.
+     */
+    private int shiftEpochDay(final int epochDay, final DateTimeOffset offset, final int sign) {
+        requireDate(offset);
+        return EpochCalendar.plusYearsMonths(BusinessCalendar.shiftEpochDay(businessCalendar, epochDay, offset, sign),
+                sign * offset.getY(), sign * offset.getMo()) + sign * offset.getD();
+    }
+
+    /**
+     * Makes sure an offset can be applied to a date.
+     *
+     * @param offset compiled formula.
+     * @return the offset.
+     * @throws IllegalArgumentException if offset contains hours, minutes or seconds.
+     */
+    private static DateTimeOffset requireDate(final DateTimeOffset offset) {
+        if (offset.hasTime()) {
+            throw new IllegalArgumentException("Hours, minutes and seconds can't be applied to a date");
+        }
+
+        return offset;
+    }
+
+    /**
+     * Compiles the step of a range.
+     *
+     * @param formula period formula.
+     * @return compiled formula.
+     * @throws IllegalArgumentException if formula is invalid or zero, as such range would never end, or has business
+     *                                  days, as the size of such range is not bounded by the calendar.
+     */
+    private DateTimeOffset rangeStep(final String formula) {
+        final var offset = compile(formula);
+        if (offset.isZero()) {
+            throw new IllegalArgumentException("Range step must not be zero: " + formula);
+        }
+        if (offset.getB() != 0) {
+            throw new IllegalArgumentException("Range step must not contain business days: " + formula);
+        }
+
+        return offset;
+    }
+
+    /**
+     * Computes an element of a range from its index: calendar units of the step are multiplied and applied in local
+     * time, then time units are added as a duration, as {@link DateEngine#applyOffset} does for a single step.
+     *
+     * @param startMillis first instant of the range.
+     * @param zone        time zone of calendar units.
+     * @param step        compiled step formula.
+     * @param index       index of the element.
+     * @return instant in milliseconds since 1970-01-01T00:00:00Z.
+     * @throws ArithmeticException if the element overflows.
+     */
+    private long rangeElement(final long startMillis, final DateTimeZone zone, final DateTimeOffset step,
+                              final long index) {
+        return engine.applyOffset(startMillis, zone, step.calendarTimes(index), true)
+                + Math.multiplyExact(index, step.timeMillis());
+    }
+
+    /**
+     * Converts an instant to local time of this handler's time zone.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z.
+     * @return local seconds since 1970-01-01T00:00:00.
+     */
+    private long localEpochSecond(final long epochSecond) {
+        final long millis = epochSecond * MILLIS_PER_SECOND;
+        return Math.floorDiv(millis + dateTimeZone.getOffset(millis), MILLIS_PER_SECOND);
+    }
+
+    private int secondOfDay(final long epochSecond) {
+        return Math.floorMod(localEpochSecond(epochSecond), EpochCalendar.SECONDS_PER_DAY);
+    }
+
+    /**
+     * Appends packed date or date time.
+     *
+     * @param fields packed date or date time.
+     * @param source text the format flags of fields come from, may be null if they have no fraction or offset.
+     * @param out    destination.
+     * @throws UncheckedIOException if the appendable fails.
+     */
+    private static void append(final long fields, final CharSequence source, final Appendable out) {
+        try {
+            DatePrinter.print(fields, source, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Applies a custom date/time offset to the given base {@link DateTime} of the lenient Joda-Time formatter.
+     * <p>
+     * If {@code add} is true, the offset will be added; otherwise, it will be subtracted.
+     *
+     * @param base   the base {@link DateTime} to apply the offset to
+     * @param offset the {@link DateTimeOffset} object containing the offset values
+     * @param add    true to add the offset, false to subtract it
+     * @return updated {@link DateTime} with the offset applied
+     */
+    private DateTime applyOffset(final DateTime base, final DateTimeOffset offset, final boolean add) {
+        final long start = BusinessCalendar.shiftInstant(businessCalendar, engine, base.getMillis(), base.getZone(),
+                offset, add);
+        return new DateTime(OffsetEngine.apply(start, base.getZone(), offset, add), base.getChronology());
+    }
+
+    /**
+     * Builder of {@link DateHandler}. Defaults: time zone UTC, system clock, no caching, Joda-Time engine, no metrics,
+     * no business calendar.
+     */
+    public static final class Builder {
+
+        private DateTimeZone zone = DateTimeZone.UTC;
+        private Clock clock = Clock.systemUTC();
+        private boolean cacheCurrentTime;
+        private boolean cacheTodayShifts;
+        private DateEngineType engine = DateEngineType.JODA;
+        private MetricsSink metrics = MetricsSink.NOOP;
+        private BusinessCalendar businessCalendar;
+
+        private Builder() {
+            // use DateHandler.builder()
+        }
+
+        /**
+         * Sets time zone of current time and of calendar units in epoch arithmetic.
+         *
+         * @param zone time zone, null stands for the default time zone.
+         * @return this builder.
+         */
+        public Builder zone(final DateTimeZone zone) {
+            this.zone = zone == null ? DateTimeZone.getDefault() : zone;
+            return this;
+        }
+
+        /**
+         * Sets source of current time, e.g. {@link Clock#fixed} in tests or {@link Clock#offset} to shift time.
+         * Only the instant of the clock is used; its zone is ignored in favour of {@link #zone(DateTimeZone)}.
+         *
+         * @param clock time source.
+         * @return this builder.
+         */
+        public Builder clock(final Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock");
+            return this;
+        }
+
+        /**
+         * Enables caching of current date and date time: {@link #getCurrentDateTime()} is formatted once per second
+         * and {@link #getCurrentDate()} once per day, then handed out without locking.
+         *
+         * @param cacheCurrentTime true to cache.
+         * @return this builder.
+         */
+        public Builder cacheCurrentTime(final boolean cacheCurrentTime) {
+            this.cacheCurrentTime = cacheCurrentTime;
+            return this;
+        }
+
+        /**
+         * Enables caching of {@link DateHandler#plus(String)} and {@link DateHandler#minus(String)} results: they
+         * only depend on the current date, so each formula is computed once per day in the zone of the handler, then
+         * looked up without locking. Results of up to 1024 formulas per direction are kept; a change of the default
+         * time zone, which dates are read in, starts over.
+         *
+         * @param cacheTodayShifts true to cache.
+         * @return this builder.
+         */
+        public Builder cacheTodayShifts(final boolean cacheTodayShifts) {
+            this.cacheTodayShifts = cacheTodayShifts;
+            return this;
+        }
+
+        /**
+         * Sets date time library doing the computations. Results are the same with every engine.
+         *
+         * @param engine engine type.
+         * @return this builder.
+         */
+        public Builder engine(final DateEngineType engine) {
+            this.engine = Objects.requireNonNull(engine, "engine");
+            return this;
+        }
+
+        /**
+         * Sets receiver of operation counters, rejected inputs and, if it asks for them, latencies. The default sink
+         * ignores them, and operations are not timed then.
+         *
+         * @param metrics metrics sink, e.g. {@link InMemoryMetrics} or an adapter of a metrics system.
+         * @return this builder.
+         */
+        public Builder metrics(final MetricsSink metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics");
+            return this;
+        }
+
+        /**
+         * Sets working days of business day units in formulas, e.g. "5b" is the 5th working day after a date. Business
+         * days are applied first, to the local date, then the other units of the formula. Without a calendar,
+         * formulas with business days are rejected with {@link IllegalStateException}.
+         *
+         * @param businessCalendar business calendar.
+         * @return this builder.
+         */
+        public Builder businessCalendar(final BusinessCalendar businessCalendar) {
+            this.businessCalendar = Objects.requireNonNull(businessCalendar, "businessCalendar");
+            return this;
+        }
+
+        /**
+         * Creates handler.
+         *
+         * @return date handler.
+         */
+        public DateHandler build() {
+            return new DateHandler(this);
+        }
     }
 }
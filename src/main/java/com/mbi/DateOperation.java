@@ -0,0 +1,40 @@
+package com.mbi;
+
+/**
+ * Operation of a {@link DateHandler} reported to a {@link MetricsSink}. Overloads of a method count as one operation;
+ * reads of fields of epoch days and epoch seconds are plain arithmetic and are not reported.
+ */
+public enum DateOperation {
+
+    /**
+     * {@code plus}, {@code plusEpochSecond} and {@code plusEpochDay}.
+     */
+    PLUS,
+
+    /**
+     * {@code minus}, {@code minusEpochSecond} and {@code minusEpochDay}.
+     */
+    MINUS,
+
+    /**
+     * {@code plusAll} and {@code plusAllEpochSeconds}, once per batch.
+     */
+    PLUS_ALL,
+
+    /**
+     * {@code minusAll} and {@code minusAllEpochSeconds}, once per batch.
+     */
+    MINUS_ALL,
+
+    /**
+     * {@code range}, {@code rangeEpochSecond} and {@code rangeEpochDay}; latency is the time to size the range,
+     * elements are computed later, as the stream is consumed.
+     */
+    RANGE,
+
+    /**
+     * {@code parsed}, {@code toEpochDay}, {@code toEpochSecond}, {@code isValid}, {@code tryParse} and
+     * {@code tryToEpochSecond}.
+     */
+    PARSE
+}
@@ -0,0 +1,279 @@
+package com.mbi;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Prints packed fields (see {@link PackedDateTime}) as 'yyyy-MM-dd' or 'yyyy-MM-dd'T'HH:mm:ss' with digit tables,
+ * without formatters and intermediate strings, or as 'yyyyMMdd' and 'yyyyMMdd'T'HHmmss' if they have the basic format
+ * flag. Given the text a date time was read from, a fraction of second or an offset it ends with is copied after the
+ * seconds, so a result is printed in the format of its input.
+ * <p>
+ * Output is the same as of the Joda-Time patterns: the year has at least four digits and a minus sign if negative.
+ * Printing into a {@code char[]} or an {@link Appendable} allocates nothing.
+ */
+final class DatePrinter {
+
+    private static final int MIN_YEAR_DIGITS = 4;
+    private static final int MAX_YEAR_DIGITS = 10;
+    private static final int RADIX = 10;
+    private static final int PAIRS = 100;
+
+    /**
+     * Length of "-MM-dd".
+     */
+    private static final int DATE_SUFFIX_LENGTH = 6;
+
+    /**
+     * Length of "'T'HH:mm:ss".
+     */
+    private static final int TIME_SUFFIX_LENGTH = 9;
+
+    /**
+     * Length of "MMdd".
+     */
+    private static final int BASIC_DATE_SUFFIX_LENGTH = 4;
+
+    /**
+     * Length of "'T'HHmmss".
+     */
+    private static final int BASIC_TIME_SUFFIX_LENGTH = 7;
+
+    /**
+     * Separator of fields in basic format.
+     */
+    private static final char NO_SEPARATOR = 0;
+
+    /**
+     * Tens and ones digits of numbers 0-99.
+     */
+    private static final char[] TENS = new char[PAIRS];
+    private static final char[] ONES = new char[PAIRS];
+
+    static {
+        for (int i = 0; i < PAIRS; i++) {
+            TENS[i] = (char) ('0' + i / RADIX);
+            ONES[i] = (char) ('0' + i % RADIX);
+        }
+    }
+
+    private DatePrinter() {
+        // utility class
+    }
+
+    /**
+     * Returns length of printed fields.
+     *
+     * @param fields packed date or date time.
+     * @return count of chars.
+     */
+    public static int length(final long fields) {
+        final int year = PackedDateTime.year(fields);
+        final boolean basic = PackedDateTime.isBasic(fields);
+        final int length = (year < 0 ? 1 : 0) + yearDigits(year) + (basic ? BASIC_DATE_SUFFIX_LENGTH
+                : DATE_SUFFIX_LENGTH);
+        final int timeLength = basic ? BASIC_TIME_SUFFIX_LENGTH : TIME_SUFFIX_LENGTH;
+
+        return PackedDateTime.hasTime(fields) ? length + timeLength : length;
+    }
+
+    /**
+     * Prints fields into a new string.
+     *
+     * @param fields packed date or date time.
+     * @return formatted date.
+     */
+    public static String toString(final long fields) {
+        return toString(fields, null);
+    }
+
+    /**
+     * Prints fields into a new string, followed by the fraction or the offset of the text they were read from.
+     *
+     * @param fields packed date or date time.
+     * @param source text the format flags of fields come from, may be null if they have no fraction or offset.
+     * @return formatted date.
+     */
+    public static String toString(final long fields, final CharSequence source) {
+        final var buffer = new char[length(fields) + suffixLength(fields, source)];
+        print(fields, source, buffer, 0);
+
+        return new String(buffer);
+    }
+
+    /**
+     * Prints fields into a buffer. Nothing is written if they don't fit.
+     *
+     * @param fields packed date or date time.
+     * @param buffer destination.
+     * @param offset index of the first char to write.
+     * @return index after the last written char.
+     * @throws IndexOutOfBoundsException if the buffer is too short.
+     */
+    public static int print(final long fields, final char[] buffer, final int offset) {
+        return print(fields, null, buffer, offset);
+    }
+
+    /**
+     * Prints fields into a buffer, followed by the fraction or the offset of the text they were read from. Nothing is
+     * written if they don't fit.
+     *
+     * @param fields packed date or date time.
+     * @param source text the format flags of fields come from, may be null if they have no fraction or offset.
+     * @param buffer destination.
+     * @param offset index of the first char to write.
+     * @return index after the last written char.
+     * @throws IndexOutOfBoundsException if the buffer is too short.
+     */
+    public static int print(final long fields, final CharSequence source, final char[] buffer, final int offset) {
+        final int suffixLength = suffixLength(fields, source);
+        final int end = offset + length(fields) + suffixLength;
+        Objects.checkFromToIndex(offset, end, buffer.length);
+        final int year = PackedDateTime.year(fields);
+        int position = offset;
+        if (year < 0) {
+            buffer[position++] = '-';
+        }
+        // Year digits by pairs from the last one, zero padded
+        int rest = Math.abs(year);
+        int yearEnd = position + yearDigits(year);
+        while (yearEnd - position > 1) {
+            yearEnd -= 2;
+            putTwoDigits(buffer, yearEnd, rest % PAIRS);
+            rest /= PAIRS;
+        }
+        if (yearEnd > position) {
+            buffer[position] = ONES[rest];
+        }
+        position += yearDigits(year);
+        final boolean basic = PackedDateTime.isBasic(fields);
+        position = putField(buffer, position, basic ? NO_SEPARATOR : '-', PackedDateTime.month(fields));
+        position = putField(buffer, position, basic ? NO_SEPARATOR : '-', PackedDateTime.day(fields));
+        if (PackedDateTime.hasTime(fields)) {
+            position = putField(buffer, position, 'T', PackedDateTime.hour(fields));
+            position = putField(buffer, position, basic ? NO_SEPARATOR : ':', PackedDateTime.minute(fields));
+            putField(buffer, position, basic ? NO_SEPARATOR : ':', PackedDateTime.second(fields));
+        }
+        if (suffixLength > 0) {
+            final int from = source.length() - suffixLength;
+            for (int i = 0; i < suffixLength; i++) {
+                buffer[end - suffixLength + i] = source.charAt(from + i);
+            }
+        }
+
+        return end;
+    }
+
+    /**
+     * Appends printed fields.
+     *
+     * @param fields packed date or date time.
+     * @param out    destination.
+     * @throws IOException if the appendable fails.
+     */
+    public static void print(final long fields, final Appendable out) throws IOException {
+        print(fields, null, out);
+    }
+
+    /**
+     * Appends printed fields, followed by the fraction or the offset of the text they were read from.
+     *
+     * @param fields packed date or date time.
+     * @param source text the format flags of fields come from, may be null if they have no fraction or offset.
+     * @param out    destination.
+     * @throws IOException if the appendable fails.
+     */
+    public static void print(final long fields, final CharSequence source, final Appendable out) throws IOException {
+        final int year = PackedDateTime.year(fields);
+        if (year < 0) {
+            out.append('-');
+        }
+        final int rest = Math.abs(year);
+        int divisor = 1;
+        for (int i = 1; i < yearDigits(year); i++) {
+            divisor *= RADIX;
+        }
+        for (; divisor > 0; divisor /= RADIX) {
+            out.append(ONES[rest / divisor % RADIX]);
+        }
+        final boolean basic = PackedDateTime.isBasic(fields);
+        appendTwoDigits(basic ? out : out.append('-'), PackedDateTime.month(fields));
+        appendTwoDigits(basic ? out : out.append('-'), PackedDateTime.day(fields));
+        if (PackedDateTime.hasTime(fields)) {
+            appendTwoDigits(out.append('T'), PackedDateTime.hour(fields));
+            appendTwoDigits(basic ? out : out.append(':'), PackedDateTime.minute(fields));
+            appendTwoDigits(basic ? out : out.append(':'), PackedDateTime.second(fields));
+        }
+        final int suffixLength = suffixLength(fields, source);
+        if (suffixLength > 0) {
+            out.append(source, source.length() - suffixLength, source.length());
+        }
+    }
+
+    /**
+     * Copies already formatted text into a buffer. Nothing is written if it doesn't fit.
+     *
+     * @param text   formatted date.
+     * @param buffer destination.
+     * @param offset index of the first char to write.
+     * @return index after the last written char.
+     * @throws IndexOutOfBoundsException if the buffer is too short.
+     */
+    public static int copy(final String text, final char[] buffer, final int offset) {
+        Objects.checkFromIndexSize(offset, text.length(), buffer.length);
+        text.getChars(0, text.length(), buffer, offset);
+
+        return offset + text.length();
+    }
+
+    /**
+     * Returns length of the fraction and the offset to copy from the text fields were read from.
+     *
+     * @param fields packed date or date time.
+     * @param source text fields were read from, may be null.
+     * @return count of chars, 0 if there is nothing to copy.
+     */
+    private static int suffixLength(final long fields, final CharSequence source) {
+        return source != null && PackedDateTime.hasSuffix(fields)
+                ? source.length() - DateScanner.suffixStart(fields)
+                : 0;
+    }
+
+    private static int yearDigits(final int year) {
+        final int value = Math.abs(year);
+        int digits = MIN_YEAR_DIGITS;
+        for (int limit = 10_000; digits < MAX_YEAR_DIGITS && value >= limit; limit *= RADIX) {
+            digits++;
+        }
+
+        return digits;
+    }
+
+    /**
+     * Writes a separator, unless it is {@link #NO_SEPARATOR}, and a two-digit field.
+     *
+     * @param buffer    destination.
+     * @param offset    index of the separator.
+     * @param separator separator char.
+     * @param value     field value 0-99.
+     * @return index after the field.
+     */
+    private static int putField(final char[] buffer, final int offset, final char separator, final int value) {
+        int position = offset;
+        if (separator != NO_SEPARATOR) {
+            buffer[position++] = separator;
+        }
+        putTwoDigits(buffer, position, value);
+
+        return position + 2;
+    }
+
+    private static void putTwoDigits(final char[] buffer, final int offset, final int value) {
+        buffer[offset] = TENS[value];
+        buffer[offset + 1] = ONES[value];
+    }
+
+    private static void appendTwoDigits(final Appendable out, final int value) throws IOException {
+        out.append(TENS[value]).append(ONES[value]);
+    }
+}
@@ -0,0 +1,456 @@
+package com.mbi;
+
+import java.util.Objects;
+
+/**
+ * Recognizes the formats supported by {@link DateHandler} without regular expressions: 'yyyy-MM-dd' and
+ * 'yyyy-MM-dd'T'HH:mm:ss', their basic forms 'yyyyMMdd' and 'yyyyMMdd'T'HHmmss', and date times followed by a
+ * fraction of second of 1-9 digits, e.g. '.250', and by 'Z' or a UTC offset, '+02:00' ('+0200' in basic form).
+ * <p>
+ * The text is read once from left to right: the fifth char tells the basic form from the extended one, which fixes
+ * the positions of the fields; after the seconds, each char decides whether a fraction, an offset or the end
+ * follows. Every position is checked once while the numeric fields are accumulated, and the result is returned as a
+ * {@link PackedDateTime} whose format flags record the shape, so recognizing a date allocates nothing. Fields are
+ * only checked against their widest range (month 1-12, day 1-31, hour 0-23, offset up to 18:00, etc.); the rest of
+ * the calendar (February 30, DST gaps) is left to the date engine.
+ * <p>
+ * Scanning in place, at an index of a longer text, reads the two extended formats only: chars after them are not
+ * part of the date there, though {@link #offsetAt(CharSequence, int)} reads an offset that follows a date time.
+ */
+final class DateScanner {
+
+    /**
+     * Length of 'yyyy-MM-dd'.
+     */
+    public static final int DATE_LENGTH = 10;
+
+    /**
+     * Length of 'yyyy-MM-dd'T'HH:mm:ss'.
+     */
+    public static final int DATE_TIME_LENGTH = 19;
+
+    /**
+     * Length of 'yyyyMMdd'.
+     */
+    public static final int BASIC_DATE_LENGTH = 8;
+
+    /**
+     * Length of 'yyyyMMdd'T'HHmmss'.
+     */
+    public static final int BASIC_DATE_TIME_LENGTH = 15;
+
+    /**
+     * Result of {@link #offsetAt(CharSequence, int)} if no offset follows a date time.
+     */
+    public static final int NO_OFFSET = Integer.MIN_VALUE;
+
+    /**
+     * Most digits of a fraction of second: nanoseconds.
+     */
+    private static final int MAX_FRACTION_DIGITS = 9;
+
+    /**
+     * Digits of a fraction of second making milliseconds.
+     */
+    private static final int MILLIS_DIGITS = 3;
+
+    /**
+     * Widest UTC offset, in hours.
+     */
+    private static final int MAX_OFFSET_HOURS = 18;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+
+    /**
+     * Length of '+hhmm'; '+hh:mm' has a separator more.
+     */
+    private static final int BASIC_OFFSET_LENGTH = 5;
+
+    /**
+     * Index of ':' in '+hh:mm'.
+     */
+    private static final int OFFSET_SEPARATOR_INDEX = 3;
+
+    /**
+     * Count of year digits, so index of the first date separator in 'yyyy-MM-dd'.
+     */
+    private static final int YEAR_DIGITS = 4;
+
+    /**
+     * Results of scanning what follows the seconds: bits of what was found, or an error if negative.
+     */
+    private static final int SUFFIX_INVALID = -1;
+    private static final int SUFFIX_OUT_OF_RANGE = -2;
+    private static final int FRACTION = 1;
+    private static final int OFFSET = 2;
+
+    /**
+     * Returned for a non-digit: large enough to turn any sum of up to four weighted digits negative.
+     */
+    private static final int NOT_A_DIGIT = -100_000;
+
+    private DateScanner() {
+        // utility class
+    }
+
+    /**
+     * Reads a date or a date time in any supported format, see the class description.
+     *
+     * @param text date or date time.
+     * @return packed fields with format flags, {@link PackedDateTime#INVALID} if text has no supported format, or
+     * {@link PackedDateTime#OUT_OF_RANGE} if a field is out of its range.
+     */
+    public static long scan(final CharSequence text) {
+        final int length = text.length();
+        long result = PackedDateTime.INVALID;
+        if (length == DATE_LENGTH) {
+            result = scanDate(text, 0, false);
+        } else if (length == DATE_TIME_LENGTH && text.charAt(YEAR_DIGITS) == '-') {
+            result = scanDateTime(text, 0, false);
+        } else if (length >= BASIC_DATE_LENGTH) {
+            result = scanOtherFormats(text);
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads 'yyyy-MM-dd'T'HH:mm:ss', or 'yyyy-MM-dd' if no 'T' follows the date, starting at an index of a longer
+     * text. Chars after the date are not read.
+     *
+     * @param text   text holding a date or date time.
+     * @param offset index of the first year digit.
+     * @return packed fields, {@link PackedDateTime#INVALID} if text has neither format there, or
+     * {@link PackedDateTime#OUT_OF_RANGE} if a field is out of its range.
+     * @throws IndexOutOfBoundsException if offset is not an index of text.
+     */
+    public static long scan(final CharSequence text, final int offset) {
+        final int width = widthAt(text, offset);
+        long result = PackedDateTime.INVALID;
+        if (width == DATE_LENGTH) {
+            result = scanDate(text, offset, false);
+        } else if (width == DATE_TIME_LENGTH) {
+            result = scanDateTime(text, offset, false);
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds out which format is expected at an index, see {@link #scan(CharSequence, int)}.
+     *
+     * @param text   text holding a date or date time.
+     * @param offset index of the first year digit.
+     * @return {@link #DATE_TIME_LENGTH}, {@link #DATE_LENGTH} or 0 if the text is too short for a date.
+     * @throws IndexOutOfBoundsException if offset is not an index of text.
+     */
+    public static int widthAt(final CharSequence text, final int offset) {
+        final int remaining = text.length() - Objects.checkIndex(offset, text.length());
+        int width = 0;
+        if (remaining >= DATE_TIME_LENGTH && text.charAt(offset + DATE_LENGTH) == 'T') {
+            width = DATE_TIME_LENGTH;
+        } else if (remaining >= DATE_LENGTH) {
+            width = DATE_LENGTH;
+        }
+
+        return width;
+    }
+
+    /**
+     * Returns index of the text where the fraction of second or the offset of a scanned date time starts.
+     *
+     * @param fields result of {@link #scan(CharSequence)}.
+     * @return index after the seconds.
+     */
+    public static int suffixStart(final long fields) {
+        return PackedDateTime.isBasic(fields) ? BASIC_DATE_TIME_LENGTH : DATE_TIME_LENGTH;
+    }
+
+    /**
+     * Reads milliseconds of the fraction of second of a scanned date time; further digits are truncated.
+     *
+     * @param text   scanned text.
+     * @param fields result of {@link #scan(CharSequence)}.
+     * @return milliseconds, 0 if there is no fraction.
+     */
+    public static int fractionMillis(final CharSequence text, final long fields) {
+        int millis = 0;
+        if (PackedDateTime.hasFraction(fields)) {
+            final int from = suffixStart(fields) + 1;
+            for (int i = from; i < from + MILLIS_DIGITS; i++) {
+                // A fraction shorter than 3 digits ends with the text, or with an offset
+                final int digit = i < text.length() ? digit(text.charAt(i)) : NOT_A_DIGIT;
+                millis = millis * 10 + Math.max(digit, 0);
+            }
+        }
+
+        return millis;
+    }
+
+    /**
+     * Reads the UTC offset a scanned date time ends with.
+     *
+     * @param text   scanned text.
+     * @param fields result of {@link #scan(CharSequence)} with the offset flag.
+     * @return offset in seconds, 0 for 'Z'.
+     */
+    public static int offsetSeconds(final CharSequence text, final long fields) {
+        final int length = text.length();
+        int seconds = 0;
+        if (text.charAt(length - 1) != 'Z') {
+            final boolean basic = PackedDateTime.isBasic(fields);
+            final int sign = length - BASIC_OFFSET_LENGTH - (basic ? 0 : 1);
+            seconds = digits(text, sign + 1, 2) * SECONDS_PER_HOUR
+                    + digits(text, basic ? sign + 3 : sign + 4, 2) * SECONDS_PER_MINUTE;
+            seconds = text.charAt(sign) == '-' ? -seconds : seconds;
+        }
+
+        return seconds;
+    }
+
+    /**
+     * Reads the UTC offset that follows a date time in place, at an index of a longer text: 'Z', '+hh:mm' or
+     * '-hh:mm' not followed by a digit, after an optional fraction of second.
+     *
+     * @param text text holding a date time in format yyyy-MM-dd'T'HH:mm:ss.
+     * @param from index after the seconds.
+     * @return offset in seconds, 0 for 'Z', or {@link #NO_OFFSET} if no offset follows.
+     */
+    public static int offsetAt(final CharSequence text, final int from) {
+        final int length = text.length();
+        final int start = from < length && text.charAt(from) == '.' ? fractionEnd(text, from + 1) : from;
+        final int end = start >= 0 && start < length ? offsetEnd(text, start) : SUFFIX_INVALID;
+        final boolean last = end > 0 && (end == length || digit(text.charAt(end)) < 0);
+
+        return last ? signedOffsetSeconds(text, start) : NO_OFFSET;
+    }
+
+    /**
+     * Reads a date time followed by a fraction of second or an offset, or a date or date time in basic format.
+     *
+     * @param text text of at least {@link #BASIC_DATE_LENGTH} chars.
+     * @return packed fields with format flags, {@link PackedDateTime#INVALID} or {@link PackedDateTime#OUT_OF_RANGE}.
+     */
+    private static long scanOtherFormats(final CharSequence text) {
+        final int length = text.length();
+        // Without '-' after the year only the basic format may match: it fixes where every field is
+        final boolean basic = text.charAt(YEAR_DIGITS) != '-';
+        final int dateTimeLength = basic ? BASIC_DATE_TIME_LENGTH : DATE_TIME_LENGTH;
+        long result = PackedDateTime.INVALID;
+        if (basic && length == BASIC_DATE_LENGTH) {
+            result = scanDate(text, 0, true);
+        } else if (length >= dateTimeLength) {
+            result = withSuffix(scanDateTime(text, 0, basic),
+                    length == dateTimeLength ? 0 : scanSuffix(text, dateTimeLength, basic), basic);
+        }
+
+        return result;
+    }
+
+    /**
+     * Combines a scanned date time with the scan of what follows its seconds.
+     *
+     * @param dateTime packed date time, {@link PackedDateTime#INVALID} or {@link PackedDateTime#OUT_OF_RANGE}.
+     * @param suffix   result of {@link #scanSuffix(CharSequence, int, boolean)}, 0 if nothing follows.
+     * @param basic    true for basic format.
+     * @return packed date time with format flags, {@link PackedDateTime#INVALID} or
+     * {@link PackedDateTime#OUT_OF_RANGE}.
+     */
+    private static long withSuffix(final long dateTime, final int suffix, final boolean basic) {
+        final long result;
+        if (dateTime == PackedDateTime.INVALID || suffix == SUFFIX_INVALID) {
+            result = PackedDateTime.INVALID;
+        } else if (dateTime == PackedDateTime.OUT_OF_RANGE || suffix == SUFFIX_OUT_OF_RANGE) {
+            result = PackedDateTime.OUT_OF_RANGE;
+        } else {
+            result = PackedDateTime.withFormat(dateTime, basic, (suffix & FRACTION) != 0, (suffix & OFFSET) != 0);
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads what may follow the seconds: an optional fraction of 1-9 digits after '.', then an optional offset, then
+     * the end of the text.
+     *
+     * @param text  scanned text.
+     * @param from  index after the seconds, below the length of text.
+     * @param basic true for basic format.
+     * @return {@link #FRACTION} and {@link #OFFSET} bits of what was found, {@link #SUFFIX_INVALID} or
+     * {@link #SUFFIX_OUT_OF_RANGE}.
+     */
+    private static int scanSuffix(final CharSequence text, final int from, final boolean basic) {
+        final boolean fraction = text.charAt(from) == '.';
+        final int offsetStart = fraction ? fractionEnd(text, from + 1) : from;
+        int result = fraction ? FRACTION : 0;
+        if (offsetStart < 0) {
+            result = SUFFIX_INVALID;
+        } else if (offsetStart < text.length()) {
+            final int offset = scanOffset(text, offsetStart, basic);
+            result = offset < 0 ? offset : result | offset;
+        }
+
+        return result;
+    }
+
+    /**
+     * Skips the digits of a fraction of second.
+     *
+     * @param text scanned text.
+     * @param from index after '.'.
+     * @return index after the last digit, at most 9 digits after '.', or {@link #SUFFIX_INVALID} if there is none.
+     */
+    private static int fractionEnd(final CharSequence text, final int from) {
+        final int end = Math.min(text.length(), from + MAX_FRACTION_DIGITS);
+        int position = from;
+        while (position < end && digit(text.charAt(position)) >= 0) {
+            position++;
+        }
+
+        return position > from ? position : SUFFIX_INVALID;
+    }
+
+    /**
+     * Reads 'Z' or an offset '+hh:mm' / '-hh:mm' ('+hhmm' / '-hhmm' in basic format) ending the text.
+     *
+     * @param text  scanned text.
+     * @param from  index of 'Z' or of the sign.
+     * @param basic true for basic format.
+     * @return {@link #OFFSET}, {@link #SUFFIX_INVALID}, or {@link #SUFFIX_OUT_OF_RANGE} for an offset over 18:00.
+     */
+    private static int scanOffset(final CharSequence text, final int from, final boolean basic) {
+        final int length = text.length() - from;
+        final char sign = text.charAt(from);
+        final boolean signed = sign == '+' || sign == '-';
+        final int separator = basic ? 0 : 1;
+        int result = sign == 'Z' && length == 1 ? OFFSET : SUFFIX_INVALID;
+        if (signed && length == BASIC_OFFSET_LENGTH + separator
+                && (basic || text.charAt(from + OFFSET_SEPARATOR_INDEX) == ':')) {
+            final int hours = digits(text, from + 1, 2);
+            final int minutes = digits(text, from + 3 + separator, 2);
+            if ((hours | minutes) >= 0) {
+                result = inOffsetRange(hours, minutes) ? OFFSET : SUFFIX_OUT_OF_RANGE;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the end of 'Z' or of an offset '+hh:mm' / '-hh:mm' up to 18:00 in a longer text.
+     *
+     * @param text scanned text.
+     * @param from index of 'Z' or of the sign, below the length of text.
+     * @return index after the offset, or {@link #SUFFIX_INVALID} if there is none.
+     */
+    private static int offsetEnd(final CharSequence text, final int from) {
+        final char sign = text.charAt(from);
+        final boolean extended = (sign == '+' || sign == '-') && text.length() - from > BASIC_OFFSET_LENGTH
+                && text.charAt(from + OFFSET_SEPARATOR_INDEX) == ':';
+        int end = sign == 'Z' ? from + 1 : SUFFIX_INVALID;
+        if (extended) {
+            final int hours = digits(text, from + 1, 2);
+            final int minutes = digits(text, from + OFFSET_SEPARATOR_INDEX + 1, 2);
+            if ((hours | minutes) >= 0 && inOffsetRange(hours, minutes)) {
+                end = from + BASIC_OFFSET_LENGTH + 1;
+            }
+        }
+
+        return end;
+    }
+
+    /**
+     * Reads 'Z' or an offset '+hh:mm' / '-hh:mm' found by {@link #offsetEnd(CharSequence, int)}.
+     *
+     * @param text scanned text.
+     * @param from index of 'Z' or of the sign.
+     * @return offset in seconds.
+     */
+    private static int signedOffsetSeconds(final CharSequence text, final int from) {
+        final char sign = text.charAt(from);
+        final int seconds = sign == 'Z' ? 0 : digits(text, from + 1, 2) * SECONDS_PER_HOUR
+                + digits(text, from + OFFSET_SEPARATOR_INDEX + 1, 2) * SECONDS_PER_MINUTE;
+
+        return sign == '-' ? -seconds : seconds;
+    }
+
+    private static boolean inOffsetRange(final int hours, final int minutes) {
+        return hours < MAX_OFFSET_HOURS && minutes < MINUTES_PER_HOUR || hours == MAX_OFFSET_HOURS && minutes == 0;
+    }
+
+    /**
+     * Reads 'yyyy-MM-dd', or 'yyyyMMdd' in basic format, at an index.
+     *
+     * @param text  text with at least {@link #DATE_LENGTH} chars from the index, {@link #BASIC_DATE_LENGTH} in basic
+     *              format.
+     * @param from  index of the first year digit.
+     * @param basic true for basic format.
+     * @return packed date, {@link PackedDateTime#INVALID} or {@link PackedDateTime#OUT_OF_RANGE}.
+     */
+    private static long scanDate(final CharSequence text, final int from, final boolean basic) {
+        final int separator = basic ? 0 : 1;
+        final int year = digits(text, from, 4);
+        final int month = digits(text, from + 4 + separator, 2);
+        final int day = digits(text, from + 6 + 2 * separator, 2);
+        final boolean valid = (year | month | day) >= 0
+                && (basic || text.charAt(from + 4) == '-' && text.charAt(from + 7) == '-');
+        final boolean inRange = (month - 1 | 12 - month | day - 1 | 31 - day) >= 0;
+
+        return valid
+                ? inRange(PackedDateTime.withFormat(PackedDateTime.ofDate(year, month, day), basic, false, false),
+                inRange)
+                : PackedDateTime.INVALID;
+    }
+
+    /**
+     * Reads 'yyyy-MM-dd'T'HH:mm:ss', or 'yyyyMMdd'T'HHmmss' in basic format, at an index.
+     *
+     * @param text  text with at least {@link #DATE_TIME_LENGTH} chars from the index,
+     *              {@link #BASIC_DATE_TIME_LENGTH} in basic format.
+     * @param from  index of the first year digit.
+     * @param basic true for basic format.
+     * @return packed date time, {@link PackedDateTime#INVALID} or {@link PackedDateTime#OUT_OF_RANGE}.
+     */
+    private static long scanDateTime(final CharSequence text, final int from, final boolean basic) {
+        final long date = scanDate(text, from, basic);
+        final int separator = basic ? 0 : 1;
+        final int time = from + (basic ? BASIC_DATE_LENGTH : DATE_LENGTH) + 1;
+        final int hour = digits(text, time, 2);
+        final int minute = digits(text, time + 2 + separator, 2);
+        final int second = digits(text, time + 4 + 2 * separator, 2);
+        final boolean separators = text.charAt(time - 1) == 'T'
+                && (basic || text.charAt(time + 2) == ':' && text.charAt(time + 5) == ':');
+        final boolean valid = date != PackedDateTime.INVALID && (hour | minute | second) >= 0 && separators;
+        final boolean inRange = date != PackedDateTime.OUT_OF_RANGE && (23 - hour | 59 - minute | 59 - second) >= 0;
+
+        return valid
+                ? inRange(PackedDateTime.ofDateTime(date, hour, minute, second), inRange)
+                : PackedDateTime.INVALID;
+    }
+
+    private static long inRange(final long fields, final boolean inRange) {
+        return inRange ? fields : PackedDateTime.OUT_OF_RANGE;
+    }
+
+    /**
+     * Reads a fixed number of ASCII digits.
+     *
+     * @param text  text to read.
+     * @param from  index of the first digit.
+     * @param count number of digits, up to 4.
+     * @return decimal value, or a negative number if any char is not a digit.
+     */
+    private static int digits(final CharSequence text, final int from, final int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + digit(text.charAt(i));
+        }
+
+        return value;
+    }
+
+    private static int digit(final char c) {
+        return c >= '0' && c <= '9' ? c - '0' : NOT_A_DIGIT;
+    }
+}
@@ -0,0 +1,130 @@
+package com.mbi;
+
+/**
+ * Immutable form of {@link CustomDateTime}: a compiled duration formula that is safe to share between threads.
+ * <p>
+ * Fields:
+ * <ul>
+ *     <li>y  - years</li>
+ *     <li>mo - months</li>
+ *     <li>d  - days</li>
+ *     <li>h  - hours</li>
+ *     <li>m  - minutes</li>
+ *     <li>s  - seconds</li>
+ *     <li>b  - business days</li>
+ * </ul>
+ */
+final class DateTimeOffset {
+
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    private final int y;   // years
+    private final int mo;  // months
+    private final int d;   // days
+    private final int h;   // hours
+    private final int m;   // minutes
+    private final int s;   // seconds
+    private final int b;   // business days
+
+    private DateTimeOffset(final int y, final int mo, final int d, final int h, final int m, final int s,
+                           final int b) {
+        this.y = y;
+        this.mo = mo;
+        this.d = d;
+        this.h = h;
+        this.m = m;
+        this.s = s;
+        this.b = b;
+    }
+
+    /**
+     * Creates an immutable copy of parsed formula.
+     *
+     * @param dateTime parsed formula.
+     * @return compiled offset.
+     */
+    public static DateTimeOffset of(final CustomDateTime dateTime) {
+        return new DateTimeOffset(dateTime.getY(), dateTime.getMo(), dateTime.getD(), dateTime.getH(),
+                dateTime.getM(), dateTime.getS(), dateTime.getB());
+    }
+
+    /**
+     * Creates offset of whole days.
+     *
+     * @param days days, may be negative.
+     * @return offset.
+     */
+    public static DateTimeOffset ofDays(final int days) {
+        return new DateTimeOffset(0, 0, days, 0, 0, 0, 0);
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getMo() {
+        return mo;
+    }
+
+    public int getD() {
+        return d;
+    }
+
+    public int getH() {
+        return h;
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int getS() {
+        return s;
+    }
+
+    public int getB() {
+        return b;
+    }
+
+    /**
+     * If offset contains hours or minutes or seconds.
+     *
+     * @return result of check.
+     */
+    public boolean hasTime() {
+        return (h | m | s) != 0;
+    }
+
+    /**
+     * If all units are zero.
+     *
+     * @return result of check.
+     */
+    public boolean isZero() {
+        return (y | mo | d | h | m | s | b) == 0;
+    }
+
+    /**
+     * Returns years, months and days of this offset multiplied by a factor; hours, minutes and seconds are dropped.
+     *
+     * @param factor multiplier.
+     * @return offset of calendar units.
+     * @throws ArithmeticException if a unit overflows.
+     */
+    public DateTimeOffset calendarTimes(final long factor) {
+        return new DateTimeOffset(Math.toIntExact(Math.multiplyExact(y, factor)),
+                Math.toIntExact(Math.multiplyExact(mo, factor)), Math.toIntExact(Math.multiplyExact(d, factor)),
+                0, 0, 0, 0);
+    }
+
+    /**
+     * Returns hours, minutes and seconds of this offset as a duration.
+     *
+     * @return milliseconds.
+     */
+    public long timeMillis() {
+        return h * MILLIS_PER_HOUR + m * MILLIS_PER_MINUTE + s * MILLIS_PER_SECOND;
+    }
+}
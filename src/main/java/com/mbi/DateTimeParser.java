@@ -1,14 +1,5 @@
 package com.mbi;
 
-
-import tools.jackson.databind.DeserializationFeature;
-import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.json.JsonMapper;
-
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Parses duration formulas (e.g., "1y2M3d4h5m6s") into a {@link CustomDateTime} object.
  * <p>
@@ -20,6 +11,7 @@ import java.util.Map;
  *     <li>h - hours</li>
  *     <li>m - minutes</li>
  *     <li>s - seconds</li>
+ *     <li>b - business days, see {@link BusinessCalendar}</li>
  * </ul>
  * <p>
  * Example: "1y2M3d4h5m6s"
@@ -30,13 +22,21 @@ import java.util.Map;
  * 4h - four hours.
  * 5m - 5 minutes.
  * 6s - 6 seconds.
+ * <p>
+ * The formula is read in a single pass: every number is accumulated digit by digit and assigned straight to the
+ * field of its unit, so no regex, intermediate tokens or map are created on the way.
  */
 final class DateTimeParser {
 
-    private static final ObjectMapper MAPPER = JsonMapper
-            .builderWithJackson2Defaults()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true)
-            .build();
+    /**
+     * Longest number that is accumulated in place; longer ones are handed to {@link Integer#parseInt(String)}.
+     */
+    private static final int MAX_FAST_DIGITS = 9;
+
+    /**
+     * Long form of the months unit: formula "2mo" is the same as "2M".
+     */
+    private static final String MONTHS_UNIT = "mo";
 
     /**
      * Parses a time formula into a {@link CustomDateTime} object in format:
@@ -46,35 +46,110 @@ final class DateTimeParser {
      * Hours - h.
      * Minutes - m.
      * Seconds - s.
+     * Business days - b.
      *
      * @param formula string with time units (e.g., "1y2M3d4h5m6s")
      * @return parsed custom datetime object
-     * @throws IllegalArgumentException if input format is invalid
+     * @throws IllegalArgumentException if input format is invalid or has an unknown unit
      */
     public CustomDateTime parse(final String formula) {
         if (formula == null || formula.isBlank()) {
             throw new IllegalArgumentException("Formula must not be null or blank");
         }
 
-        // Normalize: replace 'M' (months) with 'mo' to avoid conflict with 'm' (minutes)
-        final String normalized = formula.replace("M", "mo");
-
         // Must start with digit and end with letter
-        if (!Character.isDigit(normalized.charAt(0))
-                || !Character.isLetter(normalized.charAt(normalized.length() - 1))) {
+        if (!isDigit(formula.charAt(0)) || !Character.isLetter(formula.charAt(formula.length() - 1))) {
             throw new IllegalArgumentException("Invalid format: must start with digit and end with letter");
         }
 
-        // Split into alternating number and unit tokens
-        final var parts = Arrays.asList(normalized.split("(?<=\\D)(?=\\d)|(?<=\\d)(?=\\D)"));
-        final Map<String, Integer> result = new HashMap<>();
-        for (int i = 0; i < parts.size(); i += 2) {
-            // Odd = key, even = value
-            final String number = parts.get(i);
-            final String unit = parts.get(i + 1);
-            result.put(unit, Integer.parseInt(number));
+        final var result = new CustomDateTime();
+        final int length = formula.length();
+        int position = 0;
+        while (position < length) {
+            // Alternating number and unit tokens: the checks above guarantee each number is followed by a unit
+            final int numberStart = position;
+            while (isDigit(formula.charAt(position))) {
+                position++;
+            }
+            final int value = toInt(formula, numberStart, position);
+
+            final int unitStart = position;
+            while (position < length && !isDigit(formula.charAt(position))) {
+                position++;
+            }
+            if (!assign(result, formula, unitStart, position, value)) {
+                throw new IllegalArgumentException("Unknown unit \"" + formula.substring(unitStart, position)
+                        + "\" in formula \"" + formula + "\", expected one of: y, M (or mo), d, h, m, s, b");
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Assigns value to the field of the unit located at {@code formula[from, to)}.
+     * 'M' and "mo" both stand for months, so that 'm' stays free for minutes.
+     *
+     * @param target  datetime object to fill
+     * @param formula formula being parsed
+     * @param from    unit start, inclusive
+     * @param to      unit end, exclusive
+     * @param value   number preceding the unit
+     * @return false if unit is unknown
+     */
+    private static boolean assign(final CustomDateTime target, final String formula, final int from, final int to,
+                                  final int value) {
+        final boolean months = to - from == MONTHS_UNIT.length() && formula.startsWith(MONTHS_UNIT, from);
+        if (months) {
+            target.setMo(value);
+            return true;
+        }
+
+        var known = to - from == 1;
+        switch (known ? formula.charAt(from) : ' ') {
+            case 'y' -> target.setY(value);
+            case 'M' -> target.setMo(value);
+            case 'd' -> target.setD(value);
+            case 'h' -> target.setH(value);
+            case 'm' -> target.setM(value);
+            case 's' -> target.setS(value);
+            case 'b' -> target.setB(value);
+            default -> known = false;
         }
 
-        return MAPPER.convertValue(result, CustomDateTime.class);
+        return known;
+    }
+
+    /**
+     * Reads a non-negative decimal number located at {@code formula[from, to)}.
+     *
+     * @param formula formula being parsed
+     * @param from    first digit, inclusive
+     * @param to      last digit, exclusive
+     * @return parsed number
+     * @throws NumberFormatException if number does not fit into int
+     */
+    private static int toInt(final String formula, final int from, final int to) {
+        if (to - from > MAX_FAST_DIGITS) {
+            // May overflow: let the JDK parse it and raise its usual error
+            return Integer.parseInt(formula.substring(from, to));
+        }
+
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + formula.charAt(i) - '0';
+        }
+
+        return value;
+    }
+
+    /**
+     * If char is an ASCII digit.
+     *
+     * @param c char for check.
+     * @return result of check.
+     */
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -0,0 +1,228 @@
+package com.mbi;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+
+/**
+ * Validates dates in the formats of {@link DateScanner} and converts them to instants without throwing:
+ * every failure - unknown format, field out of range, day missing in the month, local time in a DST gap - is
+ * reported with {@link #NOT_VALID}, so rejecting input costs no exception or stack trace.
+ * <p>
+ * The {@code scan*} methods are the throwing counterparts: they raise the errors {@link DateHandler} has always
+ * raised for such input.
+ */
+final class DateValidator {
+
+    /**
+     * Result for input that is not a valid date. No date of years 0000-9999 maps to it.
+     */
+    public static final long NOT_VALID = Long.MIN_VALUE;
+
+    /**
+     * Invalid date time format error message, worded as TestNG assertions used to report it.
+     */
+    private static final String INVALID_DATE_FORMAT_ERROR_MESSAGE =
+            "Incorrect date format expected [true] but found [false]";
+
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+
+    private DateValidator() {
+        // utility class
+    }
+
+    /**
+     * Converts date or date time to an instant, interpreting it as local time of the zone, or of its own offset if
+     * it has one. Ambiguous local time in a DST overlap is resolved to the earlier instant, see {@link DateEngine}.
+     * Milliseconds of a fraction of second are added, further digits are truncated.
+     *
+     * @param text   date or date time, may be null.
+     * @param zone   time zone.
+     * @param engine engine resolving local time.
+     * @return milliseconds since 1970-01-01T00:00:00Z, or {@link #NOT_VALID}.
+     */
+    public static long toEpochMillis(final CharSequence text, final DateTimeZone zone, final DateEngine engine) {
+        final long fields = text == null ? PackedDateTime.INVALID : DateScanner.scan(text);
+        final long millis = exists(fields) ? engine.toEpochMillis(fields, zoneOf(text, fields, zone)) : NOT_VALID;
+        return millis == NOT_VALID ? NOT_VALID : millis + DateScanner.fractionMillis(text, fields);
+    }
+
+    /**
+     * Returns the zone a scanned date time is local time of: UTC for 'Z', a fixed offset zone for an offset,
+     * otherwise the passed zone.
+     *
+     * @param text   scanned text.
+     * @param fields result of {@link DateScanner#scan(CharSequence)}.
+     * @param zone   zone of text without an offset.
+     * @return time zone.
+     */
+    public static DateTimeZone zoneOf(final CharSequence text, final long fields, final DateTimeZone zone) {
+        return PackedDateTime.hasOffset(fields)
+                ? DateTimeZone.forOffsetMillis(DateScanner.offsetSeconds(text, fields) * MILLIS_PER_SECOND)
+                : zone;
+    }
+
+    /**
+     * If scanned fields are in range and the day exists in its month.
+     *
+     * @param fields result of {@link DateScanner#scan(CharSequence)}.
+     * @return result of check.
+     */
+    public static boolean exists(final long fields) {
+        return fields != PackedDateTime.INVALID && fields != PackedDateTime.OUT_OF_RANGE
+                && PackedDateTime.day(fields) <= EpochCalendar.lengthOfMonth(PackedDateTime.year(fields),
+                PackedDateTime.month(fields));
+    }
+
+    /**
+     * Counts seconds from 1970-01-01T00:00:00 to the scanned local date time.
+     *
+     * @param fields packed date time.
+     * @return local seconds since 1970-01-01T00:00:00.
+     */
+    public static long localEpochSecond(final long fields) {
+        final int epochDay = EpochCalendar.toEpochDay(PackedDateTime.year(fields), PackedDateTime.month(fields),
+                PackedDateTime.day(fields));
+        return (long) epochDay * EpochCalendar.SECONDS_PER_DAY
+                + PackedDateTime.hour(fields) * SECONDS_PER_HOUR
+                + PackedDateTime.minute(fields) * SECONDS_PER_MINUTE
+                + PackedDateTime.second(fields);
+    }
+
+    /**
+     * Scans a date or a date time.
+     *
+     * @param text date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @return packed date time or {@link PackedDateTime#OUT_OF_RANGE}.
+     * @throws AssertionError if date format is incorrect.
+     */
+    public static long scan(final String text) {
+        final long fields = DateScanner.scan(text);
+        if (fields == PackedDateTime.INVALID) {
+            throw new AssertionError(INVALID_DATE_FORMAT_ERROR_MESSAGE);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Scans a date or a date time and makes sure such date exists in the calendar.
+     *
+     * @param text date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @return packed date time.
+     * @throws AssertionError           if date format is incorrect.
+     * @throws IllegalArgumentException if date does not exist.
+     */
+    public static long scanExisting(final String text) {
+        final long fields = scan(text);
+        if (!exists(fields)) {
+            raiseJodaError(text, fields, DateTimeZone.UTC);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Scans a date or a date time and makes sure it exists as local time of the zone, or of its own offset if it
+     * has one, see {@link #zoneOf(CharSequence, long, DateTimeZone)}.
+     *
+     * @param text   date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @param zone   time zone of text without an offset.
+     * @param engine engine resolving local time.
+     * @return packed date time.
+     * @throws AssertionError           if date format is incorrect.
+     * @throws IllegalArgumentException if date does not exist or local time falls into a DST gap.
+     */
+    public static long scanValid(final String text, final DateTimeZone zone, final DateEngine engine) {
+        return validate(text, scan(text), zone, engine);
+    }
+
+    /**
+     * Scans a date or a date time in place, at an index of a longer text, see {@link DateScanner#scan(CharSequence,
+     * int)}, and makes sure it exists as local time of the zone.
+     *
+     * @param text   text holding a date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @param offset index of the first year digit.
+     * @param zone   time zone.
+     * @param engine engine resolving local time.
+     * @return packed date time.
+     * @throws AssertionError            if date format is incorrect.
+     * @throws IllegalArgumentException  if date does not exist or local time falls into a DST gap.
+     * @throws IndexOutOfBoundsException if offset is not an index of text.
+     */
+    public static long scanValid(final CharSequence text, final int offset, final DateTimeZone zone,
+                                 final DateEngine engine) {
+        final long fields = DateScanner.scan(text, offset);
+        if (fields == PackedDateTime.INVALID) {
+            throw new AssertionError(INVALID_DATE_FORMAT_ERROR_MESSAGE);
+        }
+        if (!exists(fields) || engine.toEpochMillis(fields, zone) == NOT_VALID) {
+            // Only failures copy the date out of the text
+            final int end = offset + DateScanner.widthAt(text, offset);
+            raiseJodaError(text.subSequence(offset, end).toString(), fields, zone);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Makes sure a date the caller has already scanned exists as local time of the zone, or of its own offset if it
+     * has one, so a caller that needs the fields anyway does not scan the text twice.
+     *
+     * @param text   scanned date or date time.
+     * @param fields result of {@link DateScanner#scan(CharSequence)}, other than {@link PackedDateTime#INVALID}.
+     * @param zone   time zone of text without an offset.
+     * @param engine engine resolving local time.
+     * @return the fields.
+     * @throws IllegalArgumentException if date does not exist or local time falls into a DST gap.
+     */
+    public static long validate(final String text, final long fields, final DateTimeZone zone,
+                                final DateEngine engine) {
+        final var local = zoneOf(text, fields, zone);
+        if (!exists(fields) || engine.toEpochMillis(fields, local) == NOT_VALID) {
+            raiseJodaError(text, fields, local);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Raises the error Joda-Time reports for a date of the right format that it can't accept.
+     *
+     * @param text   date or date time.
+     * @param fields packed date time or {@link PackedDateTime#OUT_OF_RANGE}.
+     * @param zone   time zone of local time.
+     */
+    private static void raiseJodaError(final String text, final long fields, final DateTimeZone zone) {
+        if (fields == PackedDateTime.OUT_OF_RANGE) {
+            final String pattern = jodaPattern(text.length());
+            if (pattern != null) {
+                DateTimeFormat.forPattern(pattern).parseDateTime(text);
+            }
+            // A fraction or an offset has no fixed pattern, and Joda-Time accepts offsets up to 23:59
+            throw new IllegalArgumentException("Cannot parse \"" + text + "\": value out of range");
+        } else {
+            new DateTime(PackedDateTime.year(fields), PackedDateTime.month(fields), PackedDateTime.day(fields),
+                    PackedDateTime.hour(fields), PackedDateTime.minute(fields), PackedDateTime.second(fields), 0,
+                    zone);
+        }
+    }
+
+    /**
+     * Returns Joda-Time pattern of a date of fixed length.
+     *
+     * @param length length of the date.
+     * @return pattern, or null for a date time with a fraction or an offset.
+     */
+    private static String jodaPattern(final int length) {
+        return switch (length) {
+            case DateScanner.DATE_LENGTH -> "yyyy-MM-dd";
+            case DateScanner.DATE_TIME_LENGTH -> "yyyy-MM-dd'T'HH:mm:ss";
+            case DateScanner.BASIC_DATE_LENGTH -> "yyyyMMdd";
+            case DateScanner.BASIC_DATE_TIME_LENGTH -> "yyyyMMdd'T'HHmmss";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.mbi;
+
+import java.util.Locale;
+
+/**
+ * Proleptic ISO calendar arithmetic on epoch days (days since 1970-01-01), free of objects and time zones.
+ * <p>
+ * Conversions follow the era-based algorithms of H. Hinnant's "chrono-Compatible Low-Level Date Algorithms":
+ * a year is shifted to start in March, so the leap day is the last day of its year and month lengths repeat in
+ * a 153-day cycle.
+ */
+final class EpochCalendar {
+
+    /**
+     * Seconds in a day.
+     */
+    public static final int SECONDS_PER_DAY = 86_400;
+
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private static final int DAYS_PER_ERA = 146_097;
+    private static final int YEARS_PER_ERA = 400;
+    private static final int DAYS_0000_03_01_TO_1970_01_01 = 719_468;
+    private static final int MARCH_BASED_MONTHS_TO_JANUARY = 10;
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int MARCH = 3;
+    private static final int FEBRUARY = 2;
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int THURSDAY = 4;
+    private static final int[] DAYS_IN_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private EpochCalendar() {
+        // utility class
+    }
+
+    /**
+     * Converts a date to epoch day.
+     *
+     * @param year  year.
+     * @param month month of year, 1-12.
+     * @param day   day of month.
+     * @return days since 1970-01-01.
+     */
+    public static int toEpochDay(final int year, final int month, final int day) {
+        final int marchYear = month <= FEBRUARY ? year - 1 : year;
+        final int era = Math.floorDiv(marchYear, YEARS_PER_ERA);
+        final int yearOfEra = marchYear - era * YEARS_PER_ERA;
+        final int marchMonth = month > FEBRUARY ? month - MARCH : month + MARCH_BASED_MONTHS_TO_JANUARY - 1;
+        final int dayOfYear = (153 * marchMonth + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_03_01_TO_1970_01_01;
+    }
+
+    /**
+     * Converts the date of packed fields to epoch day, time is ignored.
+     *
+     * @param fields packed date or date time.
+     * @return days since 1970-01-01.
+     */
+    public static int toEpochDay(final long fields) {
+        return toEpochDay(PackedDateTime.year(fields), PackedDateTime.month(fields), PackedDateTime.day(fields));
+    }
+
+    /**
+     * Converts epoch day to a date, read from {@link CalendarTable#SHARED} if it covers the day.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return packed date, see {@link PackedDateTime}.
+     */
+    public static long toDate(final int epochDay) {
+        final long date = CalendarTable.SHARED.date(epochDay);
+        return date == CalendarTable.NOT_COVERED ? computeDate(epochDay) : date;
+    }
+
+    /**
+     * Computes the date of an epoch day.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return packed date, see {@link PackedDateTime}.
+     */
+    public static long computeDate(final int epochDay) {
+        final long shifted = (long) epochDay + DAYS_0000_03_01_TO_1970_01_01;
+        final long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        final int dayOfEra = (int) (shifted - era * DAYS_PER_ERA);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / (DAYS_PER_ERA - 1)) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int marchMonth = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+        final int month = marchMonth < MARCH_BASED_MONTHS_TO_JANUARY
+                ? marchMonth + MARCH
+                : marchMonth - MARCH_BASED_MONTHS_TO_JANUARY + 1;
+        final int year = (int) (era * YEARS_PER_ERA) + yearOfEra + (month <= FEBRUARY ? 1 : 0);
+
+        return PackedDateTime.ofDate(year, month, day);
+    }
+
+    /**
+     * Converts local seconds to a date or a date time.
+     *
+     * @param localEpochSecond local seconds since 1970-01-01T00:00:00.
+     * @param time             true to keep time of day, false for a date.
+     * @return packed date or date time, see {@link PackedDateTime}.
+     */
+    public static long toDateTime(final long localEpochSecond, final boolean time) {
+        final long date = toDate((int) Math.floorDiv(localEpochSecond, SECONDS_PER_DAY));
+        if (!time) {
+            return date;
+        }
+        final int secondOfDay = Math.floorMod(localEpochSecond, SECONDS_PER_DAY);
+
+        return PackedDateTime.ofDateTime(date, secondOfDay / SECONDS_PER_HOUR,
+                secondOfDay % SECONDS_PER_HOUR / SECONDS_PER_MINUTE, secondOfDay % SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * Returns ISO day of week.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return day of week from 1 (Monday) to 7 (Sunday).
+     */
+    public static int dayOfWeek(final int epochDay) {
+        return Math.floorMod(epochDay + THURSDAY - 1, DAYS_PER_WEEK) + 1;
+    }
+
+    /**
+     * Returns name of day of week in the default locale, as Joda-Time names it.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @return day of week, e.g. "Monday".
+     */
+    public static String dayOfWeekText(final int epochDay) {
+        return CalendarTable.SHARED.dayName(dayOfWeek(epochDay), Locale.getDefault());
+    }
+
+    /**
+     * If year is a leap year in the proleptic ISO calendar.
+     *
+     * @param year year.
+     * @return result of check.
+     */
+    public static boolean isLeapYear(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % YEARS_PER_ERA == 0);
+    }
+
+    /**
+     * Returns number of days in month.
+     *
+     * @param year  year.
+     * @param month month of year, 1-12.
+     * @return month length.
+     */
+    public static int lengthOfMonth(final int year, final int month) {
+        return month == FEBRUARY && isLeapYear(year) ? DAYS_IN_MONTH[month] + 1 : DAYS_IN_MONTH[month];
+    }
+
+    /**
+     * Adds years, then months, to a date; the day is clamped to the end of a shorter month at each step,
+     * as Joda-Time does.
+     *
+     * @param epochDay days since 1970-01-01.
+     * @param years    years to add, may be negative.
+     * @param months   months to add, may be negative.
+     * @return days since 1970-01-01.
+     */
+    public static int plusYearsMonths(final int epochDay, final int years, final int months) {
+        final long date = toDate(epochDay);
+        final int day = PackedDateTime.day(date);
+        final int year = PackedDateTime.year(date) + years;
+        final int clamped = Math.min(day, lengthOfMonth(year, PackedDateTime.month(date)));
+        final int monthIndex = PackedDateTime.month(date) - 1 + months;
+        final int resultYear = year + Math.floorDiv(monthIndex, MONTHS_PER_YEAR);
+        final int resultMonth = Math.floorMod(monthIndex, MONTHS_PER_YEAR) + 1;
+
+        return toEpochDay(resultYear, resultMonth, Math.min(clamped, lengthOfMonth(resultYear, resultMonth)));
+    }
+}
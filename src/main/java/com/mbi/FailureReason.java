@@ -0,0 +1,23 @@
+package com.mbi;
+
+/**
+ * Why input of a {@link DateHandler} was rejected, as reported to a {@link MetricsSink}. Checks that return a result
+ * instead of throwing, such as {@link DateHandler#isValid(String)}, report their rejections too.
+ */
+public enum FailureReason {
+
+    /**
+     * Date is not in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     */
+    INVALID_FORMAT,
+
+    /**
+     * Date has the right format but does not exist: e.g. February 30, or local time in a DST gap.
+     */
+    INVALID_DATE,
+
+    /**
+     * Period formula can't be parsed.
+     */
+    INVALID_FORMULA
+}
@@ -0,0 +1,141 @@
+package com.mbi;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe, size-bounded cache of compiled duration formulas.
+ * <p>
+ * Lookups are lock-free. Once the cache grows over its bound, a CLOCK sweep (second-chance approximation of LRU)
+ * evicts entries that were not used since the previous sweep, so generated or adversarial formulas can't grow it
+ * without limit. The clock hand keeps its position between sweeps and wraps around at the end of the table, so every
+ * entry gets the same second chance wherever it is stored. Only one thread sweeps at a time; others carry on without waiting, which means the size may
+ * briefly exceed the bound by the number of concurrent misses.
+ */
+final class FormulaCache {
+
+    /**
+     * Cache shared by all handlers and parsed dates, bounded by system property {@code com.mbi.formulaCacheSize}.
+     */
+    public static final FormulaCache SHARED = new FormulaCache(Integer.getInteger("com.mbi.formulaCacheSize", 512));
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final int maxSize;
+    /**
+     * Clock hand: position of the sweep in the table, only used under the eviction lock.
+     */
+    private Iterator<Map.Entry<String, Entry>> hand;
+
+    /**
+     * Constructor with cache bound.
+     *
+     * @param maxSize max number of cached formulas.
+     * @throws IllegalArgumentException if bound is not positive.
+     */
+    public FormulaCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Formula cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns compiled formula, parsing and caching it on first use. Invalid formulas are never cached.
+     *
+     * @param formula period formula, e.g. "1y2M3d4h5m6s".
+     * @return compiled offset.
+     * @throws IllegalArgumentException if formula is invalid.
+     */
+    public DateTimeOffset get(final String formula) {
+        final var entry = formula == null ? null : entries.get(formula);
+        if (entry != null) {
+            hits.increment();
+            entry.touch();
+            return entry.offset;
+        }
+
+        misses.increment();
+        final var offset = DateTimeOffset.of(new DateTimeParser().parse(formula));
+        entries.putIfAbsent(formula, new Entry(offset));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+
+        return offset;
+    }
+
+    /**
+     * Returns current counters.
+     *
+     * @return cache stats.
+     */
+    public FormulaCacheStats stats() {
+        return new FormulaCacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), maxSize);
+    }
+
+    /**
+     * Sweeps the cache from where the previous sweep stopped until it fits its bound: referenced entries lose their
+     * mark, unreferenced ones are removed.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            while (entries.size() > maxSize) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.entrySet().iterator();
+                }
+                final var candidate = hand.next();
+                if (!candidate.getValue().clearReference()) {
+                    hand.remove();
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Cached offset with its CLOCK reference mark.
+     */
+    private static final class Entry {
+
+        private final DateTimeOffset offset;
+        private volatile boolean referenced;
+
+        private Entry(final DateTimeOffset offset) {
+            this.offset = offset;
+            // Survive the first sweep, or a new entry could be evicted before its first reuse
+            this.referenced = true;
+        }
+
+        /**
+         * Marks entry as recently used. Writes only when the mark is missing to keep hot entries' cache lines shared.
+         */
+        private void touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        /**
+         * Clears the mark.
+         *
+         * @return whether the entry was referenced since the previous sweep.
+         */
+        private boolean clearReference() {
+            final boolean wasReferenced = referenced;
+            referenced = false;
+            return wasReferenced;
+        }
+    }
+}
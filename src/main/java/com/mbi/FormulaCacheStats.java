@@ -0,0 +1,24 @@
+package com.mbi;
+
+/**
+ * Snapshot of the compiled formula cache counters used by {@link DateHandler#plus(String, String)} and
+ * {@link DateHandler#minus(String, String)}.
+ *
+ * @param hits      lookups answered from the cache.
+ * @param misses    lookups that had to parse the formula.
+ * @param evictions entries dropped to keep the cache within its bound.
+ * @param size      current number of cached formulas.
+ * @param maxSize   cache bound, set with system property {@code com.mbi.formulaCacheSize}.
+ */
+public record FormulaCacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+
+    /**
+     * Share of lookups answered from the cache.
+     *
+     * @return hit rate from 0 to 1, or 0 if there were no lookups yet.
+     */
+    public double hitRate() {
+        final long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
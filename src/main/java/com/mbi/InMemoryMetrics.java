@@ -0,0 +1,113 @@
+package com.mbi;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MetricsSink} keeping counters in memory, for tests and for a metrics system that polls them.
+ * <p>
+ * Counters are {@link LongAdder}s, striped between threads, so handlers shared by many threads don't contend on them.
+ * Latencies go to histograms of power-of-two buckets: bucket {@code i} counts operations that took from
+ * {@code 2^(i-1)} to {@code 2^i - 1} nanoseconds, bucket 0 those under a nanosecond.
+ */
+public final class InMemoryMetrics implements MetricsSink {
+
+    /**
+     * Number of buckets of a latency histogram, enough for any {@code long} duration.
+     */
+    public static final int LATENCY_BUCKETS = Long.SIZE + 1;
+
+    private final LongAdder[] operations = adders(DateOperation.values().length);
+    private final LongAdder[] failures = adders(FailureReason.values().length);
+    private final LongAdder[][] latencies;
+
+    /**
+     * Creates a sink counting operations and failures, without latencies.
+     */
+    public InMemoryMetrics() {
+        this(false);
+    }
+
+    /**
+     * Creates a sink counting operations and failures.
+     *
+     * @param recordLatency true to also keep latency histograms; the handler then reads the clock twice per operation.
+     */
+    public InMemoryMetrics(final boolean recordLatency) {
+        if (recordLatency) {
+            latencies = new LongAdder[DateOperation.values().length][];
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = adders(LATENCY_BUCKETS);
+            }
+        } else {
+            latencies = null;
+        }
+    }
+
+    @Override
+    public void onOperation(final DateOperation operation) {
+        operations[operation.ordinal()].increment();
+    }
+
+    @Override
+    public void onFailure(final FailureReason reason) {
+        failures[reason.ordinal()].increment();
+    }
+
+    @Override
+    public boolean recordsLatency() {
+        return latencies != null;
+    }
+
+    @Override
+    public void onLatency(final DateOperation operation, final long nanos) {
+        if (latencies != null) {
+            latencies[operation.ordinal()][Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0))].increment();
+        }
+    }
+
+    /**
+     * Returns how many times an operation started.
+     *
+     * @param operation operation.
+     * @return count.
+     */
+    public long count(final DateOperation operation) {
+        return operations[operation.ordinal()].sum();
+    }
+
+    /**
+     * Returns how many inputs were rejected for a reason.
+     *
+     * @param reason why input was rejected.
+     * @return count.
+     */
+    public long failures(final FailureReason reason) {
+        return failures[reason.ordinal()].sum();
+    }
+
+    /**
+     * Returns a snapshot of the latency histogram of an operation.
+     *
+     * @param operation operation.
+     * @return counts by bucket, {@link #LATENCY_BUCKETS} long; all zero if latency is not recorded.
+     */
+    public long[] latencyHistogram(final DateOperation operation) {
+        final long[] histogram = new long[LATENCY_BUCKETS];
+        if (latencies != null) {
+            for (int i = 0; i < LATENCY_BUCKETS; i++) {
+                histogram[i] = latencies[operation.ordinal()][i].sum();
+            }
+        }
+
+        return histogram;
+    }
+
+    private static LongAdder[] adders(final int size) {
+        final var adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+
+        return adders;
+    }
+}
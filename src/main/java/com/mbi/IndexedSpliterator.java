@@ -0,0 +1,110 @@
+package com.mbi;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Spliterator over values {@code f(0), f(1), ...} of a non-decreasing function that are below a bound.
+ * <p>
+ * Every element is computed from its index alone, so the spliterator holds no running state besides the index
+ * range: the size is found by binary search, and a split halves the index range instead of walking it, which lets
+ * parallel streams hand each half to a different thread right away.
+ */
+final class IndexedSpliterator implements Spliterator.OfLong {
+
+    private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+
+    private final LongUnaryOperator valueAt;
+    private final long fence;
+    private long index;
+
+    private IndexedSpliterator(final LongUnaryOperator valueAt, final long index, final long fence) {
+        this.valueAt = valueAt;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    /**
+     * Creates a spliterator over values of the function below the bound.
+     *
+     * @param valueAt non-decreasing function of index, with {@code f(1) > f(0)}.
+     * @param bound   exclusive upper bound of values.
+     * @return spliterator.
+     * @throws ArithmeticException if the number of values overflows.
+     */
+    public static IndexedSpliterator below(final LongUnaryOperator valueAt, final long bound) {
+        return new IndexedSpliterator(valueAt, 0, count(valueAt, bound));
+    }
+
+    @Override
+    public OfLong trySplit() {
+        final long middle = (index + fence) >>> 1;
+        if (middle <= index) {
+            return null;
+        }
+        final var prefix = new IndexedSpliterator(valueAt, index, middle);
+        index = middle;
+
+        return prefix;
+    }
+
+    @Override
+    public boolean tryAdvance(final LongConsumer action) {
+        if (index >= fence) {
+            return false;
+        }
+        action.accept(valueAt.applyAsLong(index++));
+
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final LongConsumer action) {
+        final long end = fence;
+        for (long i = index; i < end; i++) {
+            action.accept(valueAt.applyAsLong(i));
+        }
+        index = end;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    /**
+     * Counts values below the bound: the bound is bracketed by doubling the index, then found by bisection,
+     * so a range of n values costs about 2 log2(n) evaluations.
+     *
+     * @param valueAt non-decreasing function of index.
+     * @param bound   exclusive upper bound of values.
+     * @return index of the first value not below the bound.
+     */
+    private static long count(final LongUnaryOperator valueAt, final long bound) {
+        if (valueAt.applyAsLong(0) >= bound) {
+            return 0;
+        }
+        long below = 0;
+        long notBelow = 1;
+        while (valueAt.applyAsLong(notBelow) < bound) {
+            below = notBelow;
+            notBelow = Math.multiplyExact(notBelow, 2);
+        }
+        while (notBelow - below > 1) {
+            final long middle = (below + notBelow) >>> 1;
+            if (valueAt.applyAsLong(middle) < bound) {
+                below = middle;
+            } else {
+                notBelow = middle;
+            }
+        }
+
+        return notBelow;
+    }
+}
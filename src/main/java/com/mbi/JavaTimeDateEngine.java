@@ -0,0 +1,93 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * java.time engine: {@link LocalDateTime} arithmetic and {@link java.time.zone.ZoneRules} of the JDK. Joda-Time zones
+ * are mapped to {@link ZoneId}s by id.
+ * <p>
+ * Results match {@link JodaDateEngine} as long as both libraries carry the same time zone rules; they may differ
+ * around rule changes newer than one of the bundled tz databases.
+ */
+final class JavaTimeDateEngine implements DateEngine {
+
+    /**
+     * Shared instance.
+     */
+    public static final JavaTimeDateEngine INSTANCE = new JavaTimeDateEngine();
+
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final Map<DateTimeZone, ZoneId> zones = new ConcurrentHashMap<>();
+
+    private JavaTimeDateEngine() {
+        // use INSTANCE
+    }
+
+    @Override
+    public long toEpochMillis(final long fields, final DateTimeZone zone) {
+        final var local = toLocalDateTime(fields);
+        final var offsets = toZoneId(zone).getRules().getValidOffsets(local);
+        // No offset in a gap; the earlier instant, i.e. the offset before the transition, comes first in an overlap
+        return offsets.isEmpty() ? DateValidator.NOT_VALID : local.toEpochSecond(offsets.get(0)) * MILLIS_PER_SECOND;
+    }
+
+    @Override
+    public long applyOffset(final long instant, final DateTimeZone zone, final DateTimeOffset offset,
+                            final boolean add) {
+        final int sign = add ? 1 : -1;
+        long result = instant;
+        if ((offset.getY() | offset.getMo() | offset.getD()) != 0) {
+            final var zoneId = toZoneId(zone);
+            var dateTime = Instant.ofEpochMilli(instant).atZone(zoneId);
+            // Resolve after every unit, with no preferred offset: gaps move forward, overlaps take the earlier offset
+            if (offset.getY() != 0) {
+                dateTime = ZonedDateTime.ofLocal(dateTime.toLocalDateTime().plusYears(sign * offset.getY()), zoneId,
+                        null);
+            }
+            if (offset.getMo() != 0) {
+                dateTime = ZonedDateTime.ofLocal(dateTime.toLocalDateTime().plusMonths(sign * offset.getMo()),
+                        zoneId, null);
+            }
+            if (offset.getD() != 0) {
+                dateTime = ZonedDateTime.ofLocal(dateTime.toLocalDateTime().plusDays(sign * offset.getD()), zoneId,
+                        null);
+            }
+            result = dateTime.toInstant().toEpochMilli();
+        }
+        if (offset.hasTime()) {
+            result = Math.addExact(result, sign * (offset.getH() * MILLIS_PER_HOUR
+                    + offset.getM() * MILLIS_PER_MINUTE + offset.getS() * (long) MILLIS_PER_SECOND));
+        }
+
+        return result;
+    }
+
+    @Override
+    public long toLocalFields(final long instant, final DateTimeZone zone, final boolean time) {
+        final var local = LocalDateTime.ofInstant(Instant.ofEpochMilli(instant), toZoneId(zone));
+        final long date = PackedDateTime.ofDate(local.getYear(), local.getMonthValue(), local.getDayOfMonth());
+
+        return time
+                ? PackedDateTime.ofDateTime(date, local.getHour(), local.getMinute(), local.getSecond())
+                : date;
+    }
+
+    private static LocalDateTime toLocalDateTime(final long fields) {
+        return LocalDateTime.of(PackedDateTime.year(fields), PackedDateTime.month(fields), PackedDateTime.day(fields),
+                PackedDateTime.hour(fields), PackedDateTime.minute(fields), PackedDateTime.second(fields));
+    }
+
+    private ZoneId toZoneId(final DateTimeZone zone) {
+        return zones.computeIfAbsent(zone, z -> ZoneId.of(z.getID()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+
+/**
+ * Joda-Time engine: zone rules and calendar units of Joda-Time, arithmetic on epoch millis without
+ * {@link org.joda.time.DateTime} objects, see {@link OffsetEngine}. Reference implementation of {@link DateEngine}.
+ */
+final class JodaDateEngine implements DateEngine {
+
+    /**
+     * Shared instance.
+     */
+    public static final JodaDateEngine INSTANCE = new JodaDateEngine();
+
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    private JodaDateEngine() {
+        // use INSTANCE
+    }
+
+    @Override
+    public long toEpochMillis(final long fields, final DateTimeZone zone) {
+        final long local = DateValidator.localEpochSecond(fields) * MILLIS_PER_SECOND;
+        final int offset = zone.getOffsetFromLocal(local);
+        final long instant = local - offset;
+        // In a gap the offset found for the local time doesn't hold at the resulting instant
+        return zone.getOffset(instant) == offset ? instant : DateValidator.NOT_VALID;
+    }
+
+    @Override
+    public long applyOffset(final long instant, final DateTimeZone zone, final DateTimeOffset offset,
+                            final boolean add) {
+        return OffsetEngine.apply(instant, zone, offset, add);
+    }
+
+    @Override
+    public long toLocalFields(final long instant, final DateTimeZone zone, final boolean time) {
+        return EpochCalendar.toDateTime(Math.floorDiv(instant + zone.getOffset(instant), MILLIS_PER_SECOND), time);
+    }
+}
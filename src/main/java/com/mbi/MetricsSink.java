@@ -0,0 +1,60 @@
+package com.mbi;
+
+/**
+ * Receives counters and latencies of {@link DateHandler} operations, see
+ * {@link DateHandler.Builder#metrics(MetricsSink)}. Implement it to forward them to a metrics system, or use
+ * {@link InMemoryMetrics}.
+ * <p>
+ * Methods are called on the threads calling the handler, in its hot paths: implementations must be thread-safe and
+ * should not block. A handler asks {@link #recordsLatency()} once, when built, and reads the clock only if it is true.
+ */
+public interface MetricsSink {
+
+    /**
+     * Sink that ignores everything, the default of a handler.
+     */
+    MetricsSink NOOP = new MetricsSink() {
+        @Override
+        public void onOperation(final DateOperation operation) {
+            // ignored
+        }
+
+        @Override
+        public void onFailure(final FailureReason reason) {
+            // ignored
+        }
+    };
+
+    /**
+     * Called when an operation starts.
+     *
+     * @param operation operation.
+     */
+    void onOperation(DateOperation operation);
+
+    /**
+     * Called when input is rejected, before the error is thrown or an empty result is returned.
+     *
+     * @param reason why input was rejected.
+     */
+    void onFailure(FailureReason reason);
+
+    /**
+     * If the handler should measure operations and report them with {@link #onLatency(DateOperation, long)}.
+     *
+     * @return true to receive latencies; false by default.
+     */
+    default boolean recordsLatency() {
+        return false;
+    }
+
+    /**
+     * Called when an operation completes, if {@link #recordsLatency()} is true. Failed operations are not timed.
+     *
+     * @param operation operation.
+     * @param nanos     time the operation took, in nanoseconds.
+     */
+    default void onLatency(final DateOperation operation, final long nanos) {
+        // latency is not recorded by default
+    }
+}
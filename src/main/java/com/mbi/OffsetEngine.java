@@ -0,0 +1,82 @@
+package com.mbi;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeZone;
+import org.joda.time.DurationField;
+import org.joda.time.chrono.ISOChronology;
+
+/**
+ * Applies a whole {@link DateTimeOffset} to an instant in one calendar computation, without the six intermediate
+ * {@link org.joda.time.DateTime} copies of chained {@code plusYears(..).plusMonths(..)...plusSeconds(..)}.
+ * <p>
+ * The result is the same as the chain's:
+ * <ul>
+ *     <li>years, months and days are added to the local date time, one unit after another, so the day of month is
+ *     clamped at each step (2024-02-29 + 1y1M = 2025-03-28) and the local time of day is kept across DST changes;
+ *     after each step the local time is resolved against the zone, which moves a time in a DST gap forward and
+ *     picks the earlier offset in an overlap;</li>
+ *     <li>hours, minutes and seconds are added to the instant as a single exact duration.</li>
+ * </ul>
+ * Zero components are skipped, as the chain does.
+ */
+final class OffsetEngine {
+
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    /**
+     * Calendar of local time: ISO without a zone.
+     */
+    private static final Chronology LOCAL = ISOChronology.getInstanceUTC();
+
+    private OffsetEngine() {
+        // utility class
+    }
+
+    /**
+     * Adds offset to an instant, or subtracts it.
+     *
+     * @param instant epoch millis.
+     * @param zone    time zone of calendar units.
+     * @param offset  compiled formula.
+     * @param add     true to add the offset, false to subtract it
+     * @return updated epoch millis.
+     * @throws ArithmeticException if the result overflows epoch millis.
+     */
+    public static long apply(final long instant, final DateTimeZone zone, final DateTimeOffset offset,
+                             final boolean add) {
+        final int sign = add ? 1 : -1;
+        long result = instant;
+        if ((offset.getY() | offset.getMo() | offset.getD()) != 0) {
+            result = addLocal(result, zone, LOCAL.years(), sign * offset.getY());
+            result = addLocal(result, zone, LOCAL.months(), sign * offset.getMo());
+            result = addLocal(result, zone, LOCAL.days(), sign * offset.getD());
+        }
+        if (offset.hasTime()) {
+            result = Math.addExact(result, sign * (offset.getH() * MILLIS_PER_HOUR
+                    + offset.getM() * MILLIS_PER_MINUTE + offset.getS() * MILLIS_PER_SECOND));
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds a calendar unit to the local date time of an instant and resolves the result back to an instant.
+     *
+     * @param instant epoch millis.
+     * @param zone    time zone.
+     * @param unit    calendar unit of local time.
+     * @param value   amount to add, may be negative.
+     * @return updated epoch millis.
+     */
+    private static long addLocal(final long instant, final DateTimeZone zone, final DurationField unit,
+                                 final int value) {
+        if (value == 0) {
+            return instant;
+        }
+        final long local = unit.add(Math.addExact(instant, zone.getOffset(instant)), value);
+
+        return Math.subtractExact(local, zone.getOffsetFromLocal(local));
+    }
+}
@@ -0,0 +1,189 @@
+package com.mbi;
+
+/**
+ * Local date time fields packed into a single {@code long}, so they can be passed around without allocation.
+ * <p>
+ * Layout, from the lowest bit:
+ * <ul>
+ *     <li>0-5   - second</li>
+ *     <li>6-11  - minute</li>
+ *     <li>12-16 - hour</li>
+ *     <li>17-21 - day of month</li>
+ *     <li>22-25 - month</li>
+ *     <li>26    - time flag: set for 'yyyy-MM-dd'T'HH:mm:ss', clear for 'yyyy-MM-dd'</li>
+ *     <li>27    - basic format flag: set for 'yyyyMMdd' and 'yyyyMMdd'T'HHmmss'</li>
+ *     <li>28    - fraction flag: seconds of the text have a decimal fraction, e.g. '.250'</li>
+ *     <li>29    - offset flag: the text ends with 'Z' or a UTC offset, e.g. '+02:00'</li>
+ *     <li>30-31 - reserved</li>
+ *     <li>32-63 - year, signed</li>
+ * </ul>
+ * Format flags (27-29) only tell how the text was written, so that a result can be printed the same way; they don't
+ * change the value of the fields.
+ */
+final class PackedDateTime {
+
+    /**
+     * Value that never denotes a date: used to report input in an unsupported format without exceptions.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * Value that never denotes a date: used to report input in a supported format with a field out of its range,
+     * e.g. month 13 or minute 60.
+     */
+    public static final long OUT_OF_RANGE = Long.MIN_VALUE + 1;
+
+    private static final int MINUTE_SHIFT = 6;
+    private static final int HOUR_SHIFT = 12;
+    private static final int DAY_SHIFT = 17;
+    private static final int MONTH_SHIFT = 22;
+    private static final int TIME_FLAG_SHIFT = 26;
+    private static final long BASIC_FLAG = 1L << 27;
+    private static final long FRACTION_FLAG = 1L << 28;
+    private static final long OFFSET_FLAG = 1L << 29;
+    private static final long FORMAT_FLAGS = BASIC_FLAG | FRACTION_FLAG | OFFSET_FLAG;
+    private static final int YEAR_SHIFT = 32;
+    private static final long SIX_BITS = 0x3F;
+    private static final long FIVE_BITS = 0x1F;
+    private static final long FOUR_BITS = 0xF;
+
+    private PackedDateTime() {
+        // utility class
+    }
+
+    /**
+     * Packs date fields.
+     *
+     * @param year  year.
+     * @param month month of year.
+     * @param day   day of month.
+     * @return packed date.
+     */
+    public static long ofDate(final int year, final int month, final int day) {
+        return (long) year << YEAR_SHIFT | (long) month << MONTH_SHIFT | (long) day << DAY_SHIFT;
+    }
+
+    /**
+     * Packs date time fields.
+     *
+     * @param date   packed date.
+     * @param hour   hour of day.
+     * @param minute minute of hour.
+     * @param second second of minute.
+     * @return packed date time.
+     */
+    public static long ofDateTime(final long date, final int hour, final int minute, final int second) {
+        return date | 1L << TIME_FLAG_SHIFT | (long) hour << HOUR_SHIFT | (long) minute << MINUTE_SHIFT | second;
+    }
+
+    public static int year(final long packed) {
+        return (int) (packed >> YEAR_SHIFT);
+    }
+
+    public static int month(final long packed) {
+        return (int) (packed >>> MONTH_SHIFT & FOUR_BITS);
+    }
+
+    public static int day(final long packed) {
+        return (int) (packed >>> DAY_SHIFT & FIVE_BITS);
+    }
+
+    public static int hour(final long packed) {
+        return (int) (packed >>> HOUR_SHIFT & FIVE_BITS);
+    }
+
+    public static int minute(final long packed) {
+        return (int) (packed >>> MINUTE_SHIFT & SIX_BITS);
+    }
+
+    public static int second(final long packed) {
+        return (int) (packed & SIX_BITS);
+    }
+
+    /**
+     * If packed value was read from or should be printed as 'yyyy-MM-dd'T'HH:mm:ss'.
+     *
+     * @param packed packed date time.
+     * @return result of check.
+     */
+    public static boolean hasTime(final long packed) {
+        return (packed >>> TIME_FLAG_SHIFT & 1) != 0;
+    }
+
+    /**
+     * Sets format flags of packed fields.
+     *
+     * @param packed   packed date or date time.
+     * @param basic    true for 'yyyyMMdd' or 'yyyyMMdd'T'HHmmss'.
+     * @param fraction true if seconds have a fraction.
+     * @param offset   true if time has 'Z' or a UTC offset.
+     * @return packed value with the flags.
+     */
+    public static long withFormat(final long packed, final boolean basic, final boolean fraction,
+                                  final boolean offset) {
+        return packed & ~FORMAT_FLAGS | (basic ? BASIC_FLAG : 0) | (fraction ? FRACTION_FLAG : 0)
+                | (offset ? OFFSET_FLAG : 0);
+    }
+
+    /**
+     * Copies format flags of another value, so a result is printed as its input was written.
+     *
+     * @param packed packed date or date time.
+     * @param source packed value to copy the flags of.
+     * @return packed value with the flags of the source.
+     */
+    public static long withFormatOf(final long packed, final long source) {
+        return packed & ~FORMAT_FLAGS | source & FORMAT_FLAGS;
+    }
+
+    /**
+     * Copies the basic format flag only, for a date derived from a date time that may have a fraction or an offset.
+     *
+     * @param packed packed date.
+     * @param source packed value to copy the flag of.
+     * @return packed value with the flag of the source.
+     */
+    public static long withStyleOf(final long packed, final long source) {
+        return packed & ~FORMAT_FLAGS | source & BASIC_FLAG;
+    }
+
+    /**
+     * If packed value was read from or should be printed as 'yyyyMMdd' or 'yyyyMMdd'T'HHmmss'.
+     *
+     * @param packed packed date or date time.
+     * @return result of check.
+     */
+    public static boolean isBasic(final long packed) {
+        return (packed & BASIC_FLAG) != 0;
+    }
+
+    /**
+     * If the text of packed value has a fraction of second or an offset after the seconds.
+     *
+     * @param packed packed date time.
+     * @return result of check.
+     */
+    public static boolean hasSuffix(final long packed) {
+        return (packed & (FRACTION_FLAG | OFFSET_FLAG)) != 0;
+    }
+
+    /**
+     * If the text of packed value has a fraction of second.
+     *
+     * @param packed packed date time.
+     * @return result of check.
+     */
+    public static boolean hasFraction(final long packed) {
+        return (packed & FRACTION_FLAG) != 0;
+    }
+
+    /**
+     * If the text of packed value ends with 'Z' or a UTC offset.
+     *
+     * @param packed packed date time.
+     * @return result of check.
+     */
+    public static boolean hasOffset(final long packed) {
+        return (packed & OFFSET_FLAG) != 0;
+    }
+}
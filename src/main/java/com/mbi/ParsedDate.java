@@ -0,0 +1,281 @@
+package com.mbi;
+
+import org.joda.time.DateTimeZone;
+
+import java.util.Locale;
+
+/**
+ * Date or date time decoded once from a string in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss, or another format of
+ * {@link DateScanner}.
+ * <p>
+ * The value holds packed primitive fields, so getters are bit operations and date arithmetic doesn't parse or format
+ * anything; the text is only produced by {@link #toString()}, in the format the value was parsed from. Results are
+ * the same as of the {@link DateHandler} methods taking a string: like them, a date time is read as local time of
+ * the default time zone, which the value keeps from the moment it was parsed, or of its offset if it has one.
+ * <p>
+ * Instances are immutable and thread-safe. Obtain them with {@link DateHandler#parsed(String)}, which computes with
+ * the engine and the business calendar of the handler, or {@link #parse(String)}, which computes with Joda-Time.
+ */
+public final class ParsedDate {
+
+    private final long fields;
+    private final DateTimeZone zone;
+    private final DateEngine engine;
+    private final BusinessCalendar businessCalendar;
+
+    /**
+     * Text the value was parsed from if it ends with a fraction of second or an offset, to print them back,
+     * otherwise null.
+     */
+    private final String source;
+
+    private ParsedDate(final long fields, final DateTimeZone zone, final DateEngine engine,
+                       final BusinessCalendar businessCalendar, final String source) {
+        this.fields = fields;
+        this.zone = zone;
+        this.engine = engine;
+        this.businessCalendar = businessCalendar;
+        this.source = source;
+    }
+
+    /**
+     * Decodes a date or a date time.
+     *
+     * @param date date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @return parsed date.
+     * @throws AssertionError           if date format is incorrect.
+     * @throws IllegalArgumentException if date does not exist or local time falls into a DST gap of the default
+     *                                  time zone.
+     */
+    public static ParsedDate parse(final String date) {
+        return parse(date, JodaDateEngine.INSTANCE, null);
+    }
+
+    /**
+     * Decodes a date or a date time for arithmetic by the engine.
+     *
+     * @param date             date in format yyyy-MM-dd or yyyy-MM-dd'T'HH:mm:ss.
+     * @param engine           date engine.
+     * @param businessCalendar calendar of business days in formulas, may be null.
+     * @return parsed date.
+     */
+    /* default */ static ParsedDate parse(final String date, final DateEngine engine,
+                                          final BusinessCalendar businessCalendar) {
+        final long fields = DateValidator.scanValid(date, DateTimeZone.getDefault(), engine);
+        return new ParsedDate(fields, DateValidator.zoneOf(date, fields, DateTimeZone.getDefault()), engine,
+                businessCalendar, PackedDateTime.hasSuffix(fields) ? date : null);
+    }
+
+    /**
+     * Returns year.
+     *
+     * @return year.
+     */
+    public int getYear() {
+        return PackedDateTime.year(fields);
+    }
+
+    /**
+     * Returns month of year.
+     *
+     * @return month, 1-12.
+     */
+    public int getMonth() {
+        return PackedDateTime.month(fields);
+    }
+
+    /**
+     * Returns day of month.
+     *
+     * @return day.
+     */
+    public int getDay() {
+        return PackedDateTime.day(fields);
+    }
+
+    /**
+     * Returns hour of day, 0 for a date.
+     *
+     * @return hour.
+     */
+    public int getHour() {
+        return PackedDateTime.hour(fields);
+    }
+
+    /**
+     * Returns minute of hour, 0 for a date.
+     *
+     * @return minute.
+     */
+    public int getMinute() {
+        return PackedDateTime.minute(fields);
+    }
+
+    /**
+     * Returns second of minute, 0 for a date.
+     *
+     * @return second.
+     */
+    public int getSecond() {
+        return PackedDateTime.second(fields);
+    }
+
+    /**
+     * If value is a date time rather than a date.
+     *
+     * @return true for a date time.
+     */
+    public boolean hasTime() {
+        return PackedDateTime.hasTime(fields);
+    }
+
+    /**
+     * Returns day of week as a text in full format, see {@link DateHandler#getDayOfWeek(String)}.
+     *
+     * @return day of week.
+     */
+    public String getDayOfWeek() {
+        return EpochCalendar.dayOfWeekText(toEpochDay());
+    }
+
+    /**
+     * Returns days since 1970-01-01. Time of a date time is ignored.
+     *
+     * @return epoch day.
+     */
+    public int toEpochDay() {
+        return EpochCalendar.toEpochDay(getYear(), getMonth(), getDay());
+    }
+
+    /**
+     * Adds some period of time, see {@link DateHandler#plus(String, String)}.
+     * Result is a date if both this value and the formula are dates, otherwise a date time.
+     *
+     * @param formula period formula.
+     * @return updated date.
+     * @throws IllegalArgumentException if formula is invalid.
+     */
+    public ParsedDate plus(final String formula) {
+        return shift(FormulaCache.SHARED.get(formula), true);
+    }
+
+    /**
+     * Subtracts some period of time, see {@link DateHandler#minus(String, String)}.
+     * Result is a date if both this value and the formula are dates, otherwise a date time.
+     *
+     * @param formula period formula.
+     * @return updated date.
+     * @throws IllegalArgumentException if formula is invalid.
+     */
+    public ParsedDate minus(final String formula) {
+        return shift(FormulaCache.SHARED.get(formula), false);
+    }
+
+    /**
+     * Returns the date of the specified day of the week in the same ISO week, see
+     * {@link DateHandler#getDayInWeek(String, String)}.
+     *
+     * @param targetDay the name of the day of the week (e.g., "Monday", "Saturday")
+     * @return date of that day.
+     */
+    public ParsedDate getDayInWeek(final String targetDay) {
+        final var target = CalendarTable.SHARED.dayOfWeek(targetDay, Locale.getDefault());
+        final int epochDay = toEpochDay();
+        final int days = target.getValue() - EpochCalendar.dayOfWeek(epochDay);
+
+        return zone.isFixed()
+                ? ofDate(EpochCalendar.toDate(epochDay + days))
+                : ofInstant(engine.applyOffset(engine.toEpochMillis(fields, zone), zone, DateTimeOffset.ofDays(days),
+                true), false);
+    }
+
+    /**
+     * Count of calendar days between two dates, times are ignored.
+     *
+     * @param other 2nd date.
+     * @return the absolute value of this date minus 2nd.
+     */
+    public int daysBetween(final ParsedDate other) {
+        return Math.abs(toEpochDay() - other.toEpochDay());
+    }
+
+    /**
+     * Formats value as it was parsed: yyyy-MM-dd for a date, yyyy-MM-dd'T'HH:mm:ss for a date time, in basic format
+     * and with the fraction of second and the offset of the parsed text if it had them.
+     *
+     * @return formatted date.
+     */
+    @Override
+    public String toString() {
+        return DatePrinter.toString(fields, source);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof ParsedDate parsedDate && parsedDate.fields == fields && parsedDate.zone.equals(zone)
+                && parsedDate.suffix().equals(suffix());
+    }
+
+    @Override
+    public int hashCode() {
+        return (Long.hashCode(fields) * 31 + zone.hashCode()) * 31 + suffix().hashCode();
+    }
+
+    /**
+     * Applies compiled formula to the instant in the time zone the value was read in, as {@link DateHandler} does.
+     * A date result keeps only the local date of the resulting instant.
+     *
+     * @param offset compiled formula.
+     * @param add    true to add the offset, false to subtract it
+     * @return updated date.
+     */
+    private ParsedDate shift(final DateTimeOffset offset, final boolean add) {
+        final boolean date = !hasTime() && !offset.hasTime();
+        if (date && zone.isFixed()) {
+            // Without DST local dates map to instants one to one: stay in the calendar
+            final int sign = add ? 1 : -1;
+            final int epochDay = EpochCalendar.plusYearsMonths(
+                    BusinessCalendar.shiftEpochDay(businessCalendar, toEpochDay(), offset, sign),
+                    sign * offset.getY(), sign * offset.getMo()) + sign * offset.getD();
+            return ofDate(EpochCalendar.toDate(epochDay));
+        }
+        final long instant = BusinessCalendar.shiftInstant(businessCalendar, engine,
+                engine.toEpochMillis(fields, zone), zone, offset, add);
+
+        return ofInstant(engine.applyOffset(instant, zone, offset, add), !date);
+    }
+
+    /**
+     * Reads local date, or date time, of an instant in the time zone of this value. A date time keeps the format of
+     * this value.
+     *
+     * @param instant epoch millis.
+     * @param time    true to keep time of day.
+     * @return date or date time.
+     */
+    private ParsedDate ofInstant(final long instant, final boolean time) {
+        final long local = engine.toLocalFields(instant, zone, time);
+        return time
+                ? new ParsedDate(PackedDateTime.withFormatOf(local, fields), zone, engine, businessCalendar, source)
+                : ofDate(local);
+    }
+
+    /**
+     * Creates a date in the time zone of this value, basic if this value is.
+     *
+     * @param date packed date.
+     * @return date.
+     */
+    private ParsedDate ofDate(final long date) {
+        return new ParsedDate(PackedDateTime.withStyleOf(date, fields), zone, engine, businessCalendar, null);
+    }
+
+    /**
+     * Returns the fraction of second and the offset the value is printed with.
+     *
+     * @return suffix, empty if none.
+     */
+    private String suffix() {
+        return source == null ? "" : source.substring(DateScanner.suffixStart(fields));
+    }
+}
@@ -0,0 +1,118 @@
+package com.mbi;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Results of {@link DateHandler#plus(String)} and {@link DateHandler#minus(String)} for the current day, by formula.
+ * <p>
+ * Such a result only depends on today's date in the zone of the handler, and on the default time zone the date is
+ * read in, so it is computed once per day and formula. The results of a day are published together with the
+ * interval of clock millis the day covers, as {@link CurrentTimeCache} does: readers compare the clock with that
+ * interval and read the maps without locking; the first reader that finds the day over starts a new one. A result
+ * is always stored into the day it was computed from, so a late writer can't leak yesterday's result into today.
+ * <p>
+ * Each day keeps at most a bounded number of formulas per direction; the rest are computed on every call.
+ */
+final class TodayShiftCache {
+
+    private final Clock clock;
+    private final DateTimeZone zone;
+    private final int maxSize;
+    private volatile Day day = new Day(0, 0, null, "");
+
+    /**
+     * Constructor with time source and bound.
+     *
+     * @param clock   time source.
+     * @param zone    time zone of the current date.
+     * @param maxSize max number of formulas cached per day and direction.
+     */
+    public TodayShiftCache(final Clock clock, final DateTimeZone zone, final int maxSize) {
+        this.clock = clock;
+        this.zone = zone;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns results of the current day, starting a new day if the clock or the default time zone moved on.
+     *
+     * @return current day.
+     */
+    public Day today() {
+        final long now = clock.millis();
+        final var defaultZone = DateTimeZone.getDefault();
+        var current = day;
+        if (!current.covers(now, defaultZone)) {
+            final var start = new DateTime(now, zone).withTimeAtStartOfDay();
+            current = new Day(start.getMillis(), start.plusDays(1).withTimeAtStartOfDay().getMillis(), defaultZone,
+                    DatePrinter.toString(PackedDateTime.ofDate(start.getYear(), start.getMonthOfYear(),
+                            start.getDayOfMonth())));
+            day = current;
+        }
+
+        return current;
+    }
+
+    /**
+     * Results of one day.
+     */
+    /* default */ final class Day {
+
+        private final long from;
+        private final long until;
+        private final DateTimeZone defaultZone;
+        private final String date;
+        private final Map<String, String> plus = new ConcurrentHashMap<>();
+        private final Map<String, String> minus = new ConcurrentHashMap<>();
+
+        private Day(final long from, final long until, final DateTimeZone defaultZone, final String date) {
+            this.from = from;
+            this.until = until;
+            this.defaultZone = defaultZone;
+            this.date = date;
+        }
+
+        /**
+         * Returns the date of this day.
+         *
+         * @return date in format 'yyyy-MM-dd'.
+         */
+        public String date() {
+            return date;
+        }
+
+        /**
+         * Returns a cached result.
+         *
+         * @param formula period formula.
+         * @param add     true for a result of plus, false for minus.
+         * @return result, or null if it is not cached.
+         */
+        public String get(final String formula, final boolean add) {
+            return (add ? plus : minus).get(formula);
+        }
+
+        /**
+         * Caches a result computed from {@link #date()}, unless the day already holds as many formulas as allowed.
+         *
+         * @param formula period formula.
+         * @param add     true for a result of plus, false for minus.
+         * @param result  shifted date.
+         */
+        public void put(final String formula, final boolean add, final String result) {
+            final var results = add ? plus : minus;
+            if (results.size() < maxSize) {
+                results.putIfAbsent(formula, result);
+            }
+        }
+
+        private boolean covers(final long millis, final DateTimeZone zone) {
+            return millis >= from && millis < until && zone.equals(defaultZone);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import com.mbi.BusinessCalendar;
+import com.mbi.DateHandler;
+import org.joda.time.DateTimeZone;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.testng.Assert.*;
+
+/**
+ * Measures bytes allocated per call by every public method of a warmed-up handler, with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, and fails when a method allocates more than
+ * its budget. Catches changes that bring back per-call garbage, e.g. a pattern compiled or a map built on every call.
+ * <p>
+ * Budgets are bytes per call with some headroom over what the methods allocate today; a method that returns a new
+ * string can't go below the string itself. Inputs, buffers and lists are built once, so only the method's own
+ * allocations are counted. Runs in its own suite, so other tests don't allocate on the measured thread.
+ */
+public class AllocationBudgetTest {
+
+    private static final int WARM_UP = 30_000;
+    private static final int CALLS = 10_000;
+    private static final int ROUNDS = 3;
+
+    private static final String[] DATES = {"2024-01-31", "2024-02-29T23:59:59", "2023-03-26T04:30:00",
+            "1999-12-31T12:00:00", "2024-06-15T07:08:09", "2025-12-29"};
+    private static final String[] DAYS = {"2024-01-31", "2024-02-29", "2023-03-26", "1999-12-31", "2025-12-29"};
+    private static final String[] FORMULAS = {"1d", "1M", "1y2M3d4h5m6s", "25h", "59m59s", "36d12h"};
+    private static final String[] DAY_FORMULAS = {"1d", "1M", "1y2M3d", "14d", "400d"};
+    private static final String ROW = "id=7;from=2024-01-31T10:00:00;to=2024-03-31";
+    private static final ByteBuffer ROW_BYTES = ByteBuffer.wrap(ROW.getBytes(StandardCharsets.US_ASCII));
+    private static final long EPOCH_SECOND = 1_711_794_896L;
+
+    private final DateHandler date = DateHandler.builder()
+            .zone(DateTimeZone.forID("Europe/Kiev"))
+            .clock(Clock.fixed(Instant.parse("2024-03-30T22:30:15Z"), ZoneOffset.UTC))
+            .businessCalendar(BusinessCalendar.builder(1990, 2030).build())
+            .build();
+    private final StringBuilder out = new StringBuilder(64);
+    private final char[] buffer = new char[32];
+    private final long[] epochSeconds = new long[16];
+    private final List<String> starts = List.of(DATES);
+    private final String[] startArray = DATES.clone();
+    private Object sink;
+    private long checksum;
+
+    @Test
+    public void testAllocationBudgets() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        var report = new StringBuilder("Bytes allocated per call, after warm-up:\n");
+        var overBudget = new ArrayList<String>();
+        for (var budget : budgets()) {
+            var bytes = bytesPerCall(threads, budget.body());
+            report.append(String.format("  %-32s %6d  budget %6d%s%n", budget.name(), bytes, budget.maxBytes(),
+                    bytes > budget.maxBytes() ? "  OVER" : ""));
+            if (bytes > budget.maxBytes()) {
+                overBudget.add(budget.name() + ": " + bytes + " > " + budget.maxBytes());
+            }
+        }
+        System.out.print(report);
+
+        assertTrue(overBudget.isEmpty(), "Methods over allocation budget:\n" + String.join("\n", overBudget));
+    }
+
+    /**
+     * Least bytes per call over a few rounds, so a GC or a JIT recompilation in one round doesn't count.
+     */
+    private long bytesPerCall(com.sun.management.ThreadMXBean threads, IntConsumer body) {
+        var thread = Thread.currentThread().threadId();
+        for (int i = 0; i < WARM_UP; i++) {
+            body.accept(i);
+        }
+        var least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            var before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < CALLS; i++) {
+                body.accept(i);
+            }
+            least = Math.min(least, (threads.getThreadAllocatedBytes(thread) - before) / CALLS);
+        }
+        return least;
+    }
+
+    /**
+     * Keeps a result reachable, so the JIT can't drop the call that made it.
+     */
+    private void keep(Object result) {
+        sink = result;
+    }
+
+    private void keep(long result) {
+        checksum += result;
+    }
+
+    private void keep(boolean result) {
+        checksum += result ? 1 : 0;
+    }
+
+    /**
+     * Every public method of the handler on valid input, with its budget in bytes per call.
+     */
+    private List<Budget> budgets() {
+        var budgets = new ArrayList<Budget>();
+        budgets.add(new Budget("getCurrentDate", 136, i -> keep(date.getCurrentDate())));
+        budgets.add(new Budget("getCurrentDateTime", 168, i -> keep(date.getCurrentDateTime())));
+        budgets.add(new Budget("getCurrentDateTime(Appendable)", 0, i -> {
+            out.setLength(0);
+            date.getCurrentDateTime(out);
+            keep(out);
+        }));
+        budgets.add(new Budget("getCurrentDateTime(char[])", 0, i -> keep(date.getCurrentDateTime(buffer, 0))));
+        budgets.add(new Budget("getDayOfWeek", 16, i -> keep(date.getDayOfWeek())));
+        budgets.add(new Budget("getDayOfWeek(String)", 16, i -> keep(date.getDayOfWeek(day(i)))));
+        budgets.add(new Budget("daysBetweenDates", 240, i -> keep(date.daysBetweenDates(day(i), day(i + 1)))));
+        budgets.add(new Budget("daysBetweenDates(CharSequence)", 16,
+                i -> keep(date.daysBetweenDates(ROW, 10, ROW, 33))));
+        budgets.add(new Budget("daysBetweenDates(ByteBuffer)", 56,
+                i -> keep(date.daysBetweenDates(ROW_BYTES, 10, ROW_BYTES, 33))));
+        budgets.add(new Budget("businessDaysBetween", 16, i -> keep(date.businessDaysBetween(day(i), day(i + 1)))));
+        budgets.add(new Budget("plus", 280, i -> keep(date.plus(formula(i)))));
+        budgets.add(new Budget("plus(String, String)", 160, i -> keep(date.plus(date(i), formula(i)))));
+        budgets.add(new Budget("plus(Appendable)", 0, i -> {
+            out.setLength(0);
+            date.plus(date(i), formula(i), out);
+            keep(out);
+        }));
+        budgets.add(new Budget("plus(char[])", 0, i -> keep(date.plus(date(i), formula(i), buffer, 0))));
+        budgets.add(new Budget("plus(CharSequence)", 168, i -> keep(date.plus(ROW, 10, formula(i)))));
+        budgets.add(new Budget("plus(ByteBuffer)", 176, i -> keep(date.plus(ROW_BYTES, 33, formula(i)))));
+        budgets.add(new Budget("minus", 280, i -> keep(date.minus(formula(i)))));
+        budgets.add(new Budget("minus(String, String)", 160, i -> keep(date.minus(date(i), formula(i)))));
+        budgets.add(new Budget("minus(Appendable)", 0, i -> {
+            out.setLength(0);
+            date.minus(date(i), formula(i), out);
+            keep(out);
+        }));
+        budgets.add(new Budget("minus(char[])", 0, i -> keep(date.minus(date(i), formula(i), buffer, 0))));
+        budgets.add(new Budget("minus(CharSequence)", 160, i -> keep(date.minus(ROW, 33, formula(i)))));
+        budgets.add(new Budget("minus(ByteBuffer)", 192, i -> keep(date.minus(ROW_BYTES, 10, formula(i)))));
+        budgets.add(new Budget("plusAll(List)", 1232, i -> keep(date.plusAll(starts, formula(i)))));
+        budgets.add(new Budget("plusAll(String[])", 1136, i -> keep(date.plusAll(startArray, formula(i)))));
+        budgets.add(new Budget("minusAll(List)", 1192, i -> keep(date.minusAll(starts, formula(i)))));
+        budgets.add(new Budget("minusAll(String[])", 1136, i -> keep(date.minusAll(startArray, formula(i)))));
+        budgets.add(new Budget("range", 408, i -> keep(date.range(date(i), "2026-01-01", "1M").limit(8).count())));
+        budgets.add(new Budget("getYear", 16, i -> keep(date.getYear())));
+        budgets.add(new Budget("getYear(String)", 16, i -> keep(date.getYear(date(i)))));
+        budgets.add(new Budget("getYear(CharSequence)", 16, i -> keep(date.getYear(ROW, 10))));
+        budgets.add(new Budget("getYear(ByteBuffer)", 40, i -> keep(date.getYear(ROW_BYTES, 33))));
+        budgets.add(new Budget("getMonth(String)", 16, i -> keep(date.getMonth(date(i)))));
+        budgets.add(new Budget("getDay(String)", 16, i -> keep(date.getDay(date(i)))));
+        budgets.add(new Budget("getHour(String)", 16, i -> keep(date.getHour(date(i)))));
+        budgets.add(new Budget("getStartOfWeek", 136, i -> keep(date.getStartOfWeek(day(i)))));
+        budgets.add(new Budget("getStartOfWeek(Appendable)", 0, i -> {
+            out.setLength(0);
+            date.getStartOfWeek(day(i), out);
+            keep(out);
+        }));
+        budgets.add(new Budget("getStartOfWeek(char[])", 0, i -> keep(date.getStartOfWeek(day(i), buffer, 0))));
+        budgets.add(new Budget("getEndOfWeek", 136, i -> keep(date.getEndOfWeek(day(i)))));
+        budgets.add(new Budget("getDayInWeek", 136, i -> keep(date.getDayInWeek(day(i), "Wednesday"))));
+        budgets.add(new Budget("parsed", 72, i -> keep(date.parsed(date(i)))));
+        budgets.add(new Budget("plusEpochSecond", 152, i -> keep(date.plusEpochSecond(epochSecond(i), formula(i)))));
+        budgets.add(new Budget("minusEpochSecond", 128, i -> keep(date.minusEpochSecond(epochSecond(i), formula(i)))));
+        budgets.add(new Budget("plusAllEpochSeconds", 80, i -> {
+            date.plusAllEpochSeconds(epochSeconds, formula(i));
+            keep(epochSeconds);
+        }));
+        budgets.add(new Budget("minusAllEpochSeconds", 80, i -> {
+            date.minusAllEpochSeconds(epochSeconds, formula(i));
+            keep(epochSeconds);
+        }));
+        budgets.add(new Budget("plusEpochDay", 16, i -> keep(date.plusEpochDay(19_000 + i % 400, dayFormula(i)))));
+        budgets.add(new Budget("minusEpochDay", 16, i -> keep(date.minusEpochDay(19_000 + i % 400, dayFormula(i)))));
+        budgets.add(new Budget("epochDayFields", 16, i -> keep(date.yearOf(i) + date.monthOf(i) + date.dayOf(i)
+                + date.dayOfWeekOf(i) + date.daysBetween(i, 19_000))));
+        budgets.add(new Budget("epochSecondFields", 80, i -> keep(date.epochDayOf(epochSecond(i))
+                + date.hourOf(epochSecond(i)) + date.minuteOf(epochSecond(i)) + date.secondOf(epochSecond(i)))));
+        budgets.add(new Budget("toEpochDay", 16, i -> keep(date.toEpochDay(date(i)))));
+        budgets.add(new Budget("toEpochSecond", 16, i -> keep(date.toEpochSecond(date(i)))));
+        budgets.add(new Budget("isValid", 48, i -> keep(date.isValid(date(i)))));
+        budgets.add(new Budget("tryParse", 48, i -> keep(date.tryParse(date(i)))));
+        budgets.add(new Budget("tryToEpochSecond", 48, i -> keep(date.tryToEpochSecond(date(i)))));
+
+        return budgets;
+    }
+
+    private static String date(int input) {
+        return DATES[input % DATES.length];
+    }
+
+    private static String day(int input) {
+        return DAYS[input % DAYS.length];
+    }
+
+    private static String formula(int input) {
+        return FORMULAS[input % FORMULAS.length];
+    }
+
+    private static String dayFormula(int input) {
+        return DAY_FORMULAS[input % DAY_FORMULAS.length];
+    }
+
+    private static long epochSecond(int input) {
+        return EPOCH_SECOND + input % 1_000 * 7_919L * 3_600;
+    }
+
+    /**
+     * A method under test, with the most bytes it may allocate per call.
+     */
+    private record Budget(String name, long maxBytes, IntConsumer body) {
+    }
+}
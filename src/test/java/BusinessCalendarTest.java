@@ -0,0 +1,163 @@
+import com.mbi.BusinessCalendar;
+import com.mbi.DateHandler;
+import org.joda.time.DateTimeZone;
+import org.testng.annotations.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+public class BusinessCalendarTest {
+
+    private final BusinessCalendar calendar = BusinessCalendar.builder(2024, 2025)
+            .holiday("2024-12-25")
+            .holiday("2025-01-01")
+            .workingDate("2024-12-28")
+            .build();
+    private final DateHandler date = DateHandler.builder().businessCalendar(calendar).build();
+
+    @Test
+    public void testPlusWorkingDays() {
+        assertEquals(plus("2024-01-05", 1), "2024-01-08");
+        assertEquals(plus("2024-01-06", 1), "2024-01-08");
+        assertEquals(plus("2024-01-05", 5), "2024-01-12");
+        assertEquals(plus("2024-01-08", -1), "2024-01-05");
+        assertEquals(plus("2024-01-07", -1), "2024-01-05");
+        assertEquals(plus("2024-01-07", 0), "2024-01-07");
+        assertEquals(plus("2024-12-24", 1), "2024-12-26");
+        assertEquals(plus("2024-12-27", 1), "2024-12-28");
+        assertEquals(plus("2024-12-31", 1), "2025-01-02");
+        assertTrue(calendar.isWorkingDay(epochDay("2024-12-28")));
+        assertFalse(calendar.isWorkingDay(epochDay("2024-12-25")));
+    }
+
+    @Test
+    public void testWorkingDaysBetween() {
+        assertEquals(calendar.workingDaysBetween(epochDay("2024-01-05"), epochDay("2024-01-09")), 2);
+        assertEquals(calendar.workingDaysBetween(epochDay("2024-01-09"), epochDay("2024-01-05")), 2);
+        assertEquals(calendar.workingDaysBetween(epochDay("2024-01-06"), epochDay("2024-01-07")), 0);
+        // 522 weekdays after 2024-01-01, two of them holidays, and one working Saturday
+        assertEquals(calendar.workingDaysBetween(epochDay("2024-01-01"), epochDay("2025-12-31")), 521);
+    }
+
+    @Test
+    public void testMatchesDayByDayCount() {
+        var random = new Random(21);
+        var builder = BusinessCalendar.builder(1990, 2040).weekend(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+        for (int i = 0; i < 500; i++) {
+            builder.holiday(LocalDate.of(1990 + random.nextInt(51), 1 + random.nextInt(12), 1 + random.nextInt(28))
+                    .toString());
+        }
+        var decades = builder.build();
+
+        for (int i = 0; i < 2000; i++) {
+            var start = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(10_000));
+            var n = random.nextInt(600) - 300;
+
+            var expected = start;
+            for (int left = Math.abs(n); left > 0; ) {
+                expected = expected.plusDays(Integer.signum(n));
+                if (decades.isWorkingDay((int) expected.toEpochDay())) {
+                    left--;
+                }
+            }
+            var actual = decades.plusWorkingDays((int) start.toEpochDay(), n);
+            assertEquals(LocalDate.ofEpochDay(actual), expected, start + " " + n);
+
+            var end = start.plusDays(random.nextInt(4000));
+            var count = Stream.iterate(start.plusDays(1), day -> !day.isAfter(end), day -> day.plusDays(1))
+                    .filter(day -> decades.isWorkingDay((int) day.toEpochDay()))
+                    .count();
+            assertEquals(decades.workingDaysBetween((int) start.toEpochDay(), (int) end.toEpochDay()), count);
+            if (n > 0) {
+                assertEquals(decades.workingDaysBetween((int) start.toEpochDay(), actual), n);
+            }
+        }
+    }
+
+    @Test
+    public void testFormulaWithBusinessDays() {
+        assertEquals(date.plus("2024-01-05", "1b"), "2024-01-08");
+        assertEquals(date.plus("2024-01-05T10:00:00", "1b2h"), "2024-01-08T12:00:00");
+        assertEquals(date.plus("2024-01-05", "1M1b"), "2024-02-08");
+        assertEquals(date.minus("2024-01-08", "1b"), "2024-01-05");
+        assertEquals(date.minus("2024-01-08T10:00:00", "2b1d"), "2024-01-03T10:00:00");
+        assertEquals(date.plusEpochDay(epochDay("2024-12-24"), "1b"), epochDay("2024-12-26"));
+        assertEquals(date.minusEpochDay(epochDay("2025-01-02"), "1b"), epochDay("2024-12-31"));
+        assertEquals(date.parsed("2024-12-24").plus("3b").toString(), "2024-12-28");
+        assertEquals(date.parsed("2024-12-24T08:00:00").minus("1b").toString(), "2024-12-23T08:00:00");
+        assertEquals(date.businessDaysBetween("2024-01-05", "2024-01-09T23:00:00"), 2);
+
+        var seconds = new long[]{epochDay("2024-01-05") * 86_400L + 3600, epochDay("2024-12-31") * 86_400L};
+        date.plusAllEpochSeconds(seconds, "1b");
+        assertEquals(seconds, new long[]{epochDay("2024-01-08") * 86_400L + 3600, epochDay("2025-01-02") * 86_400L});
+        assertEquals(date.minusEpochSecond(seconds[1], "1b"), epochDay("2024-12-31") * 86_400L);
+    }
+
+    @Test
+    public void testFormulaWithBusinessDaysInTimeZone() {
+        var kyiv = DateHandler.builder()
+                .zone(DateTimeZone.forID("Europe/Kiev"))
+                .businessCalendar(calendar)
+                .build();
+
+        // Friday 23:30 in Kyiv is Friday 21:30 UTC, the next business day keeps the local time
+        assertEquals(kyiv.plusEpochSecond(1_704_490_200L, "1b"), 1_704_490_200L + 3 * 86_400L);
+    }
+
+    @Test
+    public void testBusinessDaysNeedCalendar() {
+        var plain = new DateHandler();
+
+        expectThrows(IllegalStateException.class, () -> plain.plus("2024-01-05", "1b"));
+        expectThrows(IllegalStateException.class, () -> plain.plusEpochDay(0, "1b"));
+        expectThrows(IllegalStateException.class, () -> plain.parsed("2024-01-05").plus("1b"));
+        expectThrows(IllegalStateException.class, () -> plain.businessDaysBetween("2024-01-05", "2024-01-08"));
+        assertEquals(plain.plus("2024-01-05", "0b"), "2024-01-05");
+    }
+
+    @Test
+    public void testOutsideCalendarYears() {
+        var ex = expectThrows(IllegalArgumentException.class, () -> date.plus("2023-12-29", "1b"));
+        assertEquals(ex.getMessage(), "Date 2023-12-29 is outside business calendar 2024-2025");
+        ex = expectThrows(IllegalArgumentException.class, () -> date.plus("2025-12-31", "1b"));
+        assertEquals(ex.getMessage(), "1 working days from 2025-12-31 are outside business calendar 2024-2025");
+        expectThrows(IllegalArgumentException.class, () -> date.minus("2024-01-01", "1b"));
+        expectThrows(IllegalArgumentException.class, () -> date.range("2024-01-01", "2024-02-01", "1b"));
+    }
+
+    @Test
+    public void testWholeSupportedRange() {
+        var whole = BusinessCalendar.builder(1, 9999).build();
+        var handler = DateHandler.builder().businessCalendar(whole).build();
+
+        assertEquals(handler.plus("0001-01-01", "1b"), "0001-01-02");
+        assertEquals(handler.plus("9999-12-30", "1b"), "9999-12-31");
+        assertEquals(handler.businessDaysBetween("0001-01-01", "9999-12-31"), 2_608_614);
+    }
+
+    @Test
+    public void testBuilderValidation() {
+        expectThrows(IllegalArgumentException.class, () -> BusinessCalendar.builder(2025, 2024));
+        expectThrows(IllegalArgumentException.class, () -> BusinessCalendar.builder(0, 2024));
+        expectThrows(IllegalArgumentException.class, () -> BusinessCalendar.builder(2024, 10_000));
+        expectThrows(IllegalArgumentException.class, () -> BusinessCalendar.builder(-1_000_000_000, 1_000_000_000));
+        expectThrows(IllegalArgumentException.class, () -> BusinessCalendar.builder(2024, 2025).holiday("2023-12-25"));
+        expectThrows(IllegalArgumentException.class, () -> BusinessCalendar.builder(2024, 2025).holiday("2024-02-30"));
+        expectThrows(IllegalArgumentException.class, () -> BusinessCalendar.builder(2024, 2025).holiday("25.12.2024"));
+        expectThrows(IllegalArgumentException.class,
+                () -> BusinessCalendar.builder(2024, 2025).workingDate("2024-12-28T10:00:00"));
+        expectThrows(NullPointerException.class, () -> DateHandler.builder().businessCalendar(null));
+    }
+
+    private String plus(String start, int n) {
+        return LocalDate.ofEpochDay(calendar.plusWorkingDays(epochDay(start), n)).toString();
+    }
+
+    private static int epochDay(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+}
@@ -0,0 +1,339 @@
+import com.mbi.BatchErrorMode;
+import com.mbi.BatchResult;
+import com.mbi.BusinessCalendar;
+import com.mbi.DateEngineType;
+import com.mbi.DateHandler;
+import com.mbi.DateOperation;
+import com.mbi.InMemoryMetrics;
+import org.joda.time.DateTimeZone;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.testng.Assert.*;
+
+/**
+ * Hits one shared handler from many platform and virtual threads through every public method, and compares each
+ * result with the one the same handler gave single-threaded. Errors are results too: the same input must fail the
+ * same way. Also reports how throughput scales with threads, to catch contention on shared caches and formatters.
+ * <p>
+ * Runs in its own suite, without parallel methods, so other tests don't compete for the cores.
+ */
+public class ConcurrencyStressTest {
+
+    private static final int INPUTS = 240;
+    private static final String[] DATES = {"2024-01-31", "2024-02-29T23:59:59", "2023-03-26T03:30:00",
+            "2024-03-31T03:30:00", "2024-10-27T03:30:00", "1999-12-31T12:00:00", "2024-02-30", "2024-1-1",
+            "0001-01-01", "9999-12-31T23:59:59", "2024-06-15T07:08:09", "2025-12-29"};
+    private static final String[] FORMULAS = {"1d", "1M", "1y2M3d4h5m6s", "25h", "59m59s", "400d", "x1", "1y1M1d",
+            "36d12h", "2M29d", "1s", "3b1h"};
+    private static final String ROW = "id=7;from=2024-01-31T10:00:00;to=2024-03-31";
+    private static final ByteBuffer ROW_BYTES = ByteBuffer.wrap(ROW.getBytes(StandardCharsets.US_ASCII));
+    private static final long EPOCH_SECOND = 1_711_794_896L;
+
+    private final DateTimeZone kyivZone = DateTimeZone.forID("Europe/Kiev");
+    private final Clock fixed = Clock.fixed(Instant.parse("2024-03-30T22:30:15Z"), ZoneOffset.UTC);
+    private final BusinessCalendar businessCalendar = BusinessCalendar.builder(1990, 2030)
+            .holiday("2024-01-01")
+            .build();
+
+    @DataProvider
+    public Object[][] engines() {
+        return new Object[][]{
+                {DateEngineType.JODA},
+                {DateEngineType.JAVA_TIME},
+        };
+    }
+
+    @Test(dataProvider = "engines")
+    public void testPlatformThreads(DateEngineType engine) throws Exception {
+        var threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            assertSameResults(engine, executor, threads, 2);
+        }
+    }
+
+    @Test(dataProvider = "engines")
+    public void testVirtualThreads(DateEngineType engine) throws Exception {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            assertSameResults(engine, executor, 100, 1);
+        }
+    }
+
+    @Test
+    public void testThroughputScaling() throws Exception {
+        var metrics = new InMemoryMetrics();
+        var handler = handler(DateEngineType.JODA, metrics);
+        var calls = calls(handler);
+        var expected = reference(calls);
+        var cores = Runtime.getRuntime().availableProcessors();
+        var counts = new ArrayList<Integer>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(cores);
+
+        var report = new StringBuilder("Throughput of a shared DateHandler, calls per second:\n");
+        double single = 0;
+        for (int threads : counts) {
+            var mismatches = new ConcurrentLinkedQueue<String>();
+            long elapsed;
+            try (var executor = Executors.newFixedThreadPool(threads)) {
+                run(executor, threads, 1, calls, expected, mismatches); // warm-up
+                var started = System.nanoTime();
+                run(executor, threads, 2, calls, expected, mismatches);
+                elapsed = System.nanoTime() - started;
+            }
+            assertTrue(mismatches.isEmpty(), String.join("\n", mismatches));
+
+            var throughput = threads * 2.0 * calls.size() * INPUTS / (elapsed / 1e9);
+            single = threads == 1 ? throughput : single;
+            report.append(String.format("  threads=%-3d %,14.0f  speedup x%.2f%n", threads, throughput,
+                    throughput / single));
+        }
+        System.out.print(report);
+    }
+
+    private void assertSameResults(DateEngineType engine, ExecutorService executor, int workers, int passes)
+            throws Exception {
+        var metrics = new InMemoryMetrics(true);
+        var handler = handler(engine, metrics);
+        var calls = calls(handler);
+        var expected = reference(calls);
+        var plusCalls = metrics.count(DateOperation.PLUS);
+
+        var mismatches = new ConcurrentLinkedQueue<String>();
+        run(executor, workers, passes, calls, expected, mismatches);
+
+        assertTrue(mismatches.isEmpty(), mismatches.size() + " results differ, e.g.\n"
+                + String.join("\n", mismatches.stream().limit(10).toList()));
+        // Counters must not lose updates under contention either
+        assertEquals(metrics.count(DateOperation.PLUS), plusCalls * (1 + (long) workers * passes));
+    }
+
+    /**
+     * Starts workers together; each makes passes over all inputs and calls, from its own starting input, so
+     * different threads run different calls at the same time.
+     */
+    private static void run(ExecutorService executor, int workers, int passes, List<Call> calls, Object[][] expected,
+                            Queue<String> mismatches) throws Exception {
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<?>>();
+        for (int w = 0; w < workers; w++) {
+            var first = w * 7;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int pass = 0; pass < passes; pass++) {
+                    for (int n = 0; n < INPUTS; n++) {
+                        var input = (first + n) % INPUTS;
+                        for (int c = 0; c < calls.size(); c++) {
+                            var actual = outcome(calls.get(c), input);
+                            if (!actual.equals(expected[c][input])) {
+                                mismatches.add(calls.get(c).name() + "(" + input + "): expected ["
+                                        + expected[c][input] + "] but found [" + actual + "]");
+                            }
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (var future : futures) {
+            future.get();
+        }
+    }
+
+    private static Object[][] reference(List<Call> calls) {
+        var expected = new Object[calls.size()][INPUTS];
+        for (int c = 0; c < calls.size(); c++) {
+            for (int input = 0; input < INPUTS; input++) {
+                expected[c][input] = outcome(calls.get(c), input);
+            }
+        }
+
+        return expected;
+    }
+
+    private static Object outcome(Call call, int input) {
+        try {
+            var result = call.body().apply(input);
+            return switch (result) {
+                case int[] ints -> Arrays.toString(ints);
+                case long[] longs -> Arrays.toString(longs);
+                case char[] chars -> new String(chars);
+                case Object[] objects -> Arrays.toString(objects);
+                case null -> "null";
+                default -> result.toString();
+            };
+        } catch (RuntimeException | AssertionError e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private DateHandler handler(DateEngineType engine, InMemoryMetrics metrics) {
+        return DateHandler.builder()
+                .zone(kyivZone)
+                .clock(fixed)
+                .cacheCurrentTime(true)
+                .engine(engine)
+                .metrics(metrics)
+                .businessCalendar(businessCalendar)
+                .build();
+    }
+
+    /**
+     * Every public method of the handler, as a function of an input index.
+     */
+    private static List<Call> calls(DateHandler date) {
+        var calls = new ArrayList<Call>();
+        calls.add(new Call("getCurrentDate", i -> date.getCurrentDate()));
+        calls.add(new Call("getCurrentDateTime", i -> date.getCurrentDateTime()));
+        calls.add(new Call("getCurrentDateTime(Appendable)", i -> {
+            var out = new StringBuilder();
+            date.getCurrentDateTime(out);
+            return out;
+        }));
+        calls.add(new Call("getCurrentDateTime(char[])", i -> {
+            var buffer = new char[21];
+            date.getCurrentDateTime(buffer, 2);
+            return buffer;
+        }));
+        calls.add(new Call("getDayOfWeek", i -> date.getDayOfWeek()));
+        calls.add(new Call("getDayOfWeek(String)", i -> date.getDayOfWeek(date(i))));
+        calls.add(new Call("daysBetweenDates", i -> date.daysBetweenDates(date(i), date(i + 5))));
+        calls.add(new Call("daysBetweenDates(CharSequence)", i -> date.daysBetweenDates(ROW, 10, ROW, 33)));
+        calls.add(new Call("daysBetweenDates(ByteBuffer)", i -> date.daysBetweenDates(ROW_BYTES, 10, ROW_BYTES, 33)));
+        calls.add(new Call("businessDaysBetween", i -> date.businessDaysBetween(date(i), date(i + 5))));
+        calls.add(new Call("plus", i -> date.plus(formula(i))));
+        calls.add(new Call("plus(String, String)", i -> date.plus(date(i), formula(i))));
+        calls.add(new Call("plus(Appendable)", i -> {
+            var out = new StringBuilder("> ");
+            date.plus(date(i), formula(i), out);
+            return out;
+        }));
+        calls.add(new Call("plus(char[])", i -> {
+            var buffer = new char[24];
+            var end = date.plus(date(i), formula(i), buffer, 1);
+            return new String(buffer, 0, end);
+        }));
+        calls.add(new Call("plus(CharSequence)", i -> date.plus(ROW, 10, formula(i))));
+        calls.add(new Call("plus(ByteBuffer)", i -> date.plus(ROW_BYTES, 33, formula(i))));
+        calls.add(new Call("minus", i -> date.minus(formula(i))));
+        calls.add(new Call("minus(String, String)", i -> date.minus(date(i), formula(i))));
+        calls.add(new Call("minus(Appendable)", i -> {
+            var out = new StringBuilder();
+            date.minus(date(i), formula(i), out);
+            return out;
+        }));
+        calls.add(new Call("minus(char[])", i -> {
+            var buffer = new char[24];
+            var end = date.minus(date(i), formula(i), buffer, 0);
+            return new String(buffer, 0, end);
+        }));
+        calls.add(new Call("minus(CharSequence)", i -> date.minus(ROW, 33, formula(i))));
+        calls.add(new Call("minus(ByteBuffer)", i -> date.minus(ROW_BYTES, 10, formula(i))));
+        calls.add(new Call("plusAll(List)", i -> date.plusAll(List.of(date(i), date(i + 1)), formula(i))));
+        calls.add(new Call("plusAll(String[])", i -> date.plusAll(new String[]{date(i), date(i + 2)}, formula(i))));
+        calls.add(new Call("plusAll(COLLECT)", i -> errorClasses(date.plusAll(
+                List.of(date(i), date(i + 6), date(i + 7)), formula(i), BatchErrorMode.COLLECT))));
+        calls.add(new Call("minusAll(List)", i -> date.minusAll(List.of(date(i), date(i + 3)), formula(i))));
+        calls.add(new Call("minusAll(String[])", i -> date.minusAll(new String[]{date(i), date(i + 4)}, formula(i))));
+        calls.add(new Call("minusAll(COLLECT)", i -> errorClasses(date.minusAll(
+                List.of(date(i), date(i + 7)), formula(i), BatchErrorMode.COLLECT))));
+        calls.add(new Call("range", i -> date.range(date(i), "2024-04-15", formula(i)).limit(50).toList()));
+        calls.add(new Call("getYear", i -> date.getYear()));
+        calls.add(new Call("getYear(String)", i -> date.getYear(date(i))));
+        calls.add(new Call("getYear(CharSequence)", i -> date.getYear(ROW, 10 + i % 2 * 23)));
+        calls.add(new Call("getYear(ByteBuffer)", i -> date.getYear(ROW_BYTES, 33 - i % 2 * 23)));
+        calls.add(new Call("getMonth", i -> date.getMonth() + "/" + date.getMonth(date(i))));
+        calls.add(new Call("getDay", i -> date.getDay() + "/" + date.getDay(date(i))));
+        calls.add(new Call("getHour", i -> date.getHour() + "/" + date.getHour(date(i))));
+        calls.add(new Call("getMinute", i -> date.getMinute() + "/" + date.getMinute(date(i))));
+        calls.add(new Call("getSecond", i -> date.getSecond() + "/" + date.getSecond(date(i))));
+        calls.add(new Call("getStartOfWeek", i -> date.getStartOfWeek(date(i))));
+        calls.add(new Call("getStartOfWeek(Appendable)", i -> {
+            var out = new StringBuilder();
+            date.getStartOfWeek(date(i), out);
+            return out;
+        }));
+        calls.add(new Call("getStartOfWeek(char[])", i -> {
+            var buffer = new char[10];
+            date.getStartOfWeek(date(i), buffer, 0);
+            return buffer;
+        }));
+        calls.add(new Call("getEndOfWeek", i -> date.getEndOfWeek(date(i))));
+        calls.add(new Call("getDayInWeek", i -> date.getDayInWeek(date(i), i % 2 == 0 ? "Wednesday" : "Saturday")));
+        calls.add(new Call("parsed", i -> {
+            var parsed = date.parsed(date(i));
+            return parsed.plus(formula(i)) + " " + parsed.getDayOfWeek() + " " + parsed.toEpochDay();
+        }));
+        calls.add(new Call("plusEpochSecond", i -> date.plusEpochSecond(epochSecond(i), formula(i))));
+        calls.add(new Call("minusEpochSecond", i -> date.minusEpochSecond(epochSecond(i), formula(i))));
+        calls.add(new Call("rangeEpochSecond", i -> date.rangeEpochSecond(epochSecond(i), epochSecond(i) + 86_400 * 40,
+                formula(i)).limit(50).toArray()));
+        calls.add(new Call("plusEpochDay", i -> date.plusEpochDay(19_000 + i * 31, formula(i))));
+        calls.add(new Call("minusEpochDay", i -> date.minusEpochDay(19_000 + i * 31, formula(i))));
+        calls.add(new Call("rangeEpochDay", i -> date.rangeEpochDay(19_000 + i, 19_400 + i, formula(i))
+                .limit(50).toArray()));
+        calls.add(new Call("epochDayFields", i -> {
+            var epochDay = i * 977 - 100_000;
+            return date.yearOf(epochDay) + "-" + date.monthOf(epochDay) + "-" + date.dayOf(epochDay) + " "
+                    + date.dayOfWeekOf(epochDay) + " " + date.daysBetween(epochDay, 19_000);
+        }));
+        calls.add(new Call("epochSecondFields", i -> {
+            var epochSecond = epochSecond(i);
+            return date.epochDayOf(epochSecond) + " " + date.hourOf(epochSecond) + ":" + date.minuteOf(epochSecond)
+                    + ":" + date.secondOf(epochSecond);
+        }));
+        calls.add(new Call("toEpochDay", i -> date.toEpochDay(date(i))));
+        calls.add(new Call("toEpochSecond", i -> date.toEpochSecond(date(i))));
+        calls.add(new Call("isValid", i -> date.isValid(date(i))));
+        calls.add(new Call("tryParse", i -> date.tryParse(date(i))));
+        calls.add(new Call("tryToEpochSecond", i -> date.tryToEpochSecond(date(i))));
+        calls.add(new Call("forZone", i -> DateHandler.forZone(i % 2 == 0 ? "Europe/Kiev" : "Asia/Tokyo")
+                .toEpochSecond(date(i))));
+
+        return calls;
+    }
+
+    private static String date(int input) {
+        return DATES[input % DATES.length];
+    }
+
+    private static String formula(int input) {
+        return FORMULAS[input % FORMULAS.length];
+    }
+
+    private static long epochSecond(int input) {
+        return EPOCH_SECOND + input * 7_919L * 3_600;
+    }
+
+    private static String errorClasses(BatchResult result) {
+        var errors = new StringBuilder();
+        result.errors().forEach((index, error) -> errors.append(index).append('=').append(error.getClass()
+                .getSimpleName()).append(' '));
+        return result.values() + " " + errors;
+    }
+
+    /**
+     * Public method of the handler under test.
+     */
+    private record Call(String name, IntFunction<Object> body) {
+    }
+}
@@ -0,0 +1,146 @@
+import com.mbi.DateEngineType;
+import com.mbi.DateHandler;
+import org.joda.time.DateTimeZone;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/**
+ * Behaviour every date engine must share. Subclasses run it against one engine each; random offsets are also
+ * compared with the Joda-Time engine, the reference implementation.
+ */
+public abstract class DateEngineConformanceTest {
+
+    private static final int SAMPLES = 5_000;
+    private static final String[] FORMULAS = {"1d", "1M", "1y", "1y1M1d", "2M29d", "36d", "25h", "1d1h", "59m59s",
+            "1y2M3d4h5m6s", "400d"};
+
+    private final DateTimeZone kyivZone = DateTimeZone.forID("Europe/Kiev");
+
+    protected abstract DateEngineType engine();
+
+    private DateHandler handler(DateTimeZone zone) {
+        return DateHandler.builder().zone(zone).engine(engine()).build();
+    }
+
+    @DataProvider
+    public Object[][] zones() {
+        return new Object[][]{
+                {"UTC"},
+                {"Europe/Kiev"},
+                {"America/New_York"},
+                {"America/Sao_Paulo"},
+                {"Australia/Lord_Howe"},
+                {"Asia/Kathmandu"},
+        };
+    }
+
+    @Test
+    public void testPlusMinus() {
+        var date = handler(DateTimeZone.UTC);
+
+        assertEquals(date.plus("2024-01-31", "1M"), "2024-02-29");
+        assertEquals(date.plus("2024-02-29", "1y"), "2025-02-28");
+        assertEquals(date.plus("2024-02-29", "1y1M"), "2025-03-28");
+        assertEquals(date.plus("2024-01-31", "1h"), "2024-01-31T01:00:00");
+        assertEquals(date.plus("2024-01-31T23:59:59", "1s"), "2024-02-01T00:00:00");
+        assertEquals(date.minus("2024-03-01T00:30:00", "1d1h"), "2024-02-28T23:30:00");
+        assertEquals(date.plus("9999-12-31", "1d"), "10000-01-01");
+        assertEquals(date.minus("0000-01-01", "1d"), "-0001-12-31");
+    }
+
+    @Test
+    public void testFields() {
+        var date = handler(DateTimeZone.UTC);
+
+        assertEquals(date.getYear("2024-03-30T12:34:56"), 2024);
+        assertEquals(date.getMonth("2024-03-30T12:34:56"), 3);
+        assertEquals(date.getDay("2024-03-30T12:34:56"), 30);
+        assertEquals(date.getHour("2024-03-30T12:34:56"), 12);
+        assertEquals(date.getMinute("2024-03-30T12:34:56"), 34);
+        assertEquals(date.getSecond("2024-03-30T12:34:56"), 56);
+        assertEquals(date.getDayInWeek("2024-03-30T12:34:56", "Monday"), "2024-03-25");
+        assertEquals(date.getEndOfWeek("2024-03-30"), "2024-03-31");
+    }
+
+    @Test
+    public void testCurrentTime() {
+        var clock = Clock.fixed(Instant.parse("2024-03-30T22:30:15Z"), ZoneOffset.UTC);
+        var kyiv = DateHandler.builder().zone(kyivZone).clock(clock).engine(engine()).build();
+
+        assertEquals(kyiv.getCurrentDate(), "2024-03-31");
+        assertEquals(kyiv.getCurrentDateTime(), "2024-03-31T00:30:15");
+        assertEquals(kyiv.getDayOfWeek(), "Sunday");
+        assertEquals(kyiv.getYear(), 2024);
+        assertEquals(kyiv.getHour(), 0);
+        assertEquals(kyiv.getSecond(), 15);
+    }
+
+    @Test
+    public void testDaylightSavingTime() {
+        var kyiv = handler(kyivZone);
+        var beforeGap = kyiv.toEpochSecond("2024-03-30T03:30:00");
+
+        // Local time in the gap moves forward, a day keeps local time otherwise
+        assertEquals(kyiv.plusEpochSecond(beforeGap, "1d"), kyiv.toEpochSecond("2024-03-31T04:30:00"));
+        assertEquals(kyiv.plusEpochSecond(beforeGap, "2d"), kyiv.toEpochSecond("2024-04-01T03:30:00"));
+        assertTrue(kyiv.tryToEpochSecond("2024-03-31T03:30:00").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> kyiv.toEpochSecond("2024-03-31T03:30:00"));
+
+        // Overlap resolves to the earlier instant
+        assertEquals(kyiv.toEpochSecond("2024-10-27T03:30:00"), 1729989000L);
+        assertEquals(kyiv.plusEpochSecond(kyiv.toEpochSecond("2024-10-26T03:30:00"), "1d"), 1729989000L);
+    }
+
+    @Test
+    public void testParsedDate() {
+        var parsed = handler(DateTimeZone.UTC).parsed("2024-01-31T12:34:56");
+
+        assertEquals(parsed.plus("1M").toString(), "2024-02-29T12:34:56");
+        assertEquals(parsed.minus("1d13h").toString(), "2024-01-29T23:34:56");
+        assertEquals(parsed.getDayInWeek("Sunday").toString(), "2024-02-04");
+    }
+
+    @Test(dataProvider = "zones")
+    public void testOffsetsMatchReferenceEngine(String zoneId) {
+        var zone = DateTimeZone.forID(zoneId);
+        var reference = new DateHandler(zone);
+        var date = handler(zone);
+        var random = new Random(zoneId.hashCode());
+        // Years with the same rules in the tz databases of Joda-Time and of the JDK
+        long from = reference.toEpochSecond("1995-01-01T00:00:00");
+        long to = reference.toEpochSecond("2020-01-01T00:00:00");
+
+        for (int i = 0; i < SAMPLES; i++) {
+            long epochSecond = from + (long) (random.nextDouble() * (to - from));
+            var formula = FORMULAS[random.nextInt(FORMULAS.length)];
+
+            assertEquals(date.plusEpochSecond(epochSecond, formula), reference.plusEpochSecond(epochSecond, formula),
+                    epochSecond + " + " + formula);
+            assertEquals(date.minusEpochSecond(epochSecond, formula), reference.minusEpochSecond(epochSecond, formula),
+                    epochSecond + " - " + formula);
+        }
+    }
+
+    @Test(dataProvider = "zones")
+    public void testLocalTimeMatchesReferenceEngine(String zoneId) {
+        var zone = DateTimeZone.forID(zoneId);
+        var reference = new DateHandler(zone);
+        var date = handler(zone);
+        var random = new Random(zoneId.hashCode());
+
+        for (int i = 0; i < SAMPLES; i++) {
+            // Every minute of the day, so that DST gaps and overlaps are hit
+            var text = String.format("%04d-%02d-%02dT%02d:%02d:00", 1995 + random.nextInt(25),
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60));
+
+            assertEquals(date.tryToEpochSecond(text), reference.tryToEpochSecond(text), text);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+import com.mbi.DateFileShifter;
+import com.mbi.DateHandler;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+public class DateFileShifterTest {
+
+    private final DateHandler date = new DateHandler();
+
+    @Test
+    public void testShiftColumn() throws IOException {
+        var input = file("id,date,comment\r\n1,2024-01-31,2024-01-31\r\n2,2024-03-30T12:00:00,x\r\n3,,\r\n4,not a date\n");
+        var output = file("");
+
+        var shifter = DateFileShifter.builder(date).plus("1M").column(1, ',').build();
+
+        assertEquals(shifter.shift(input, output), 2);
+        assertEquals(read(output),
+                "id,date,comment\r\n1,2024-02-29,2024-01-31\r\n2,2024-04-30T12:00:00,x\r\n3,,\r\n4,not a date\n");
+    }
+
+    @Test
+    public void testShiftTokens() throws IOException {
+        var input = file("2024-01-31 start\n"
+                + "[2024-03-30T12:00:00Z] id=x2024-01-01 next=2024-03-30T23:59:59.250\n"
+                + "version 12024-01-01 2024-02-30x");
+        var output = file("");
+
+        var shifter = DateFileShifter.builder(date).minus("1d1h").build();
+
+        expectThrows(IllegalArgumentException.class, () -> shifter.shift(input, output));
+        Files.writeString(input, read(input).replace("2024-02-30x", "2024-02-29x"));
+        assertEquals(shifter.shift(input, output), 4);
+        assertEquals(read(output), "2024-01-29T23:00:00 start\n"
+                + "[2024-03-29T11:00:00Z] id=x2024-01-01 next=2024-03-29T22:59:59.250\n"
+                + "version 12024-01-01 2024-02-27T23:00:00x");
+    }
+
+    @Test
+    public void testShiftTokensSkipsOutOfRangeFields() throws IOException {
+        var input = file("build 2024-13-45 at 2024-01-31\nid 9999-99-99T99:99:99 2024-01-31T10:00:00\n");
+        var output = file("");
+
+        var shifter = DateFileShifter.builder(date).plus("1d").build();
+
+        assertEquals(shifter.shift(input, output), 2);
+        assertEquals(read(output), "build 2024-13-45 at 2024-02-01\nid 9999-99-99T99:99:99 2024-02-01T10:00:00\n");
+        assertEquals(shifter.shiftInPlace(input), 2);
+        assertEquals(read(input), read(output));
+
+        var cell = file("a,2024-13-45\n");
+        var column = DateFileShifter.builder(date).plus("1d").column(1, ',').build();
+        expectThrows(IllegalArgumentException.class, () -> column.shift(cell, output));
+    }
+
+    @Test
+    public void testShiftTokensInTheirOffset() throws IOException {
+        // Wall times around DST transitions of Europe and the US: read in the default zone instead of their offset,
+        // they would fall into a gap or move by another amount there
+        var input = file("a=2024-03-31T03:30:00Z b=2024-03-31T03:30:00.250+03:00\n"
+                + "c=2024-03-10T02:30:00-05:00 d=2024-03-30T03:30:00+02:00 e=2024-01-15T10:00:00\n");
+        var output = file("");
+        var expected = "a=2024-04-01T04:30:00Z b=2024-04-01T04:30:00.250+03:00\n"
+                + "c=2024-03-11T03:30:00-05:00 d=2024-03-31T04:30:00+02:00 e=2024-01-16T11:00:00\n";
+
+        var shifter = DateFileShifter.builder(date).plus("1d1h").build();
+
+        assertEquals(shifter.shift(input, output), 5);
+        assertEquals(read(output), expected);
+        assertEquals(shifter.shiftInPlace(input), 5);
+        assertEquals(read(input), expected);
+    }
+
+    @Test
+    public void testShiftMatchesPlusAcrossChunks() throws IOException {
+        var text = new StringBuilder();
+        var expected = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            var value = date.plus("2020-01-01T12:00:00", i + "h");
+            text.append(i).append('\t').append(value).append('\t').append(i % 7).append('\n');
+            expected.append(i).append('\t').append(date.plus(value, "1y2M3d")).append('\t').append(i % 7).append('\n');
+        }
+        var input = file(text.toString());
+        var output = file("");
+
+        var shifter = DateFileShifter.builder(date).plus("1y2M3d").column(1, '\t').chunkSize(1000).build();
+
+        assertEquals(shifter.shift(input, output), 20_000);
+        assertEquals(read(output), expected.toString());
+        assertEquals(shifter.shiftInPlace(input), 20_000);
+        assertEquals(read(input), expected.toString());
+    }
+
+    @Test
+    public void testShiftInPlace() throws IOException {
+        var input = file("a,2024-01-31T10:00:00\nb,2024-02-29T10:00:00\n");
+
+        var shifter = DateFileShifter.builder(date).plus("1y1h").column(1, ',').chunkSize(8).build();
+
+        assertEquals(shifter.shiftInPlace(input), 2);
+        assertEquals(read(input), "a,2025-01-31T11:00:00\nb,2025-02-28T11:00:00\n");
+    }
+
+    @Test
+    public void testShiftInPlaceRejectsWidthChange() throws IOException {
+        var content = "a,2024-01-31T10:00:00\nb,2024-02-29\n";
+        var input = file(content);
+
+        var addTime = DateFileShifter.builder(date).plus("1h").column(1, ',').build();
+        var pastYear9999 = DateFileShifter.builder(date).plus("8000y").column(1, ',').build();
+
+        expectThrows(IllegalStateException.class, () -> addTime.shiftInPlace(input));
+        assertEquals(read(input), content);
+        expectThrows(IllegalStateException.class, () -> pastYear9999.shiftInPlace(input));
+    }
+
+    @Test
+    public void testShiftInPlaceLeavesFileUnchangedOnError() throws IOException {
+        var content = "2024-01-31\n".repeat(2000) + "bad 2024-02-30\n" + "2024-01-31\n".repeat(10);
+        var input = file(content);
+
+        var shifter = DateFileShifter.builder(date).plus("1d").chunkSize(4096).build();
+
+        expectThrows(IllegalArgumentException.class, () -> shifter.shiftInPlace(input));
+        assertEquals(Files.readAllBytes(input), content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        var input = file("");
+        var output = file("old");
+
+        var shifter = DateFileShifter.builder(date).plus("1d").build();
+
+        assertEquals(shifter.shift(input, output), 0);
+        assertEquals(read(output), "");
+        assertEquals(shifter.shiftInPlace(input), 0);
+    }
+
+    @Test
+    public void testBuilderValidation() {
+        var builder = DateFileShifter.builder(date);
+
+        expectThrows(IllegalStateException.class, builder::build);
+        expectThrows(IllegalArgumentException.class, () -> builder.plus("x1").build());
+        expectThrows(IllegalArgumentException.class, () -> builder.column(-1, ','));
+        expectThrows(IllegalArgumentException.class, () -> builder.chunkSize(0));
+        expectThrows(NullPointerException.class, () -> DateFileShifter.builder(null));
+    }
+
+    private static Path file(String content) {
+        try {
+            var file = Files.createTempFile("date-file-shifter", ".txt");
+            file.toFile().deleteOnExit();
+            return Files.writeString(file, content, StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String read(Path file) throws IOException {
+        return Files.readString(file, StandardCharsets.US_ASCII);
+    }
+}
@@ -1,12 +1,31 @@
+import com.mbi.BatchErrorMode;
 import com.mbi.DateHandler;
+import com.mbi.DateOperation;
+import com.mbi.FailureReason;
+import com.mbi.InMemoryMetrics;
+import com.mbi.ParsedDate;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import org.testng.annotations.Test;
-import tools.jackson.databind.exc.UnrecognizedPropertyException;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
 
 import static org.testng.Assert.*;
 
@@ -146,7 +165,7 @@ public class DateHandlerTest {
     public void testFormulaFormat() {
         assertThrows(IllegalArgumentException.class, () -> date.plus("21"));
         assertThrows(IllegalArgumentException.class, () -> date.plus("d21"));
-        assertThrows(UnrecognizedPropertyException.class, () -> date.plus("21dasds"));
+        assertThrows(IllegalArgumentException.class, () -> date.plus("21dasds"));
     }
 
     @Test
@@ -288,10 +307,9 @@ public class DateHandlerTest {
 
     @Test
     public void testCantParseUnknownFormulaField() {
-        var ex = expectThrows(UnrecognizedPropertyException.class, () -> date.plus("2y2m1dd"));
-        assertEquals(ex.getMessage(), """
-                Unrecognized property "dd" (class com.mbi.CustomDateTime), not marked as ignorable (6 known properties: "y", "mo", "d", "h", "m", "s")
-                 at [No location information] (through reference chain: com.mbi.CustomDateTime["dd"])""");
+        var ex = expectThrows(IllegalArgumentException.class, () -> date.plus("2y2m1dd"));
+        assertEquals(ex.getMessage(),
+                "Unknown unit \"dd\" in formula \"2y2m1dd\", expected one of: y, M (or mo), d, h, m, s, b");
     }
 
     @Test
@@ -303,6 +321,39 @@ public class DateHandlerTest {
         assertEquals(date.getDayInWeek("2025-01-15T23:21:12", "Sunday"), "2025-01-19");
     }
 
+    @Test
+    public void testGetDayInWeekIgnoresCase() {
+        assertEquals(date.getDayInWeek("2025-01-15", "monday"), "2025-01-13");
+        assertEquals(date.getDayInWeek("2025-01-15", "SUNDAY"), "2025-01-19");
+        assertEquals(date.getDayInWeek("2025-01-15", "fRiDaY"), "2025-01-17");
+        assertEquals(date.parsed("2025-01-15").getDayInWeek("tuesday").toString(), "2025-01-14");
+        expectThrows(IllegalArgumentException.class, () -> date.getDayInWeek("2025-01-15", "Funday"));
+        expectThrows(IllegalArgumentException.class, () -> date.parsed("2025-01-15").getDayInWeek("Mon"));
+    }
+
+    @Test
+    public void testEpochDayFieldsInsideAndOutsideCalendarTable() {
+        // The calendar table covers 1900-2200, days around and far beyond its edges are computed
+        for (var day : List.of("0001-01-01", "1899-12-31", "1900-01-01", "2000-02-29", "2200-12-31", "2201-01-01",
+                "9999-12-31")) {
+            var expected = LocalDate.parse(day);
+            var epochDay = (int) expected.toEpochDay();
+
+            assertEquals(date.yearOf(epochDay), expected.getYear(), day);
+            assertEquals(date.monthOf(epochDay), expected.getMonthValue(), day);
+            assertEquals(date.dayOf(epochDay), expected.getDayOfMonth(), day);
+            assertEquals(date.dayOfWeekOf(epochDay), expected.getDayOfWeek().getValue(), day);
+            assertEquals(date.getDayOfWeek(day), expected.getDayOfWeek().getDisplayName(TextStyle.FULL,
+                    Locale.getDefault()), day);
+        }
+        for (int epochDay = -30_000; epochDay < 100_000; epochDay += 7) {
+            var expected = LocalDate.ofEpochDay(epochDay);
+
+            assertEquals(date.yearOf(epochDay) * 10_000 + date.monthOf(epochDay) * 100 + date.dayOf(epochDay),
+                    expected.getYear() * 10_000 + expected.getMonthValue() * 100 + expected.getDayOfMonth());
+        }
+    }
+
     @Test
     public void testGetStartOfWeek() {
         assertEquals(date.getStartOfWeek("2025-01-15"), "2025-01-13");
@@ -319,4 +370,714 @@ public class DateHandlerTest {
         assertEquals(date.getEndOfWeek("2025-01-11"), "2025-01-12");
         assertEquals(date.getEndOfWeek("2025-01-11T23:21:12"), "2025-01-12");
     }
+
+    @Test
+    public void testFormulaCacheCountsHitsAndMisses() {
+        var before = DateHandler.getFormulaCacheStats();
+        date.plus("2025-01-01", "1d2h3m4s");
+        date.minus("2025-01-01", "1d2h3m4s");
+        var after = DateHandler.getFormulaCacheStats();
+
+        assertTrue(after.misses() + after.hits() >= before.misses() + before.hits() + 2);
+        assertTrue(after.hits() > before.hits());
+    }
+
+    @Test
+    public void testFormulaCacheIsBounded() {
+        var maxSize = DateHandler.getFormulaCacheStats().maxSize();
+        for (int i = 0; i < maxSize * 2; i++) {
+            assertEquals(date.plus("2025-01-01", (1000 + i) + "s"), date.plus("2025-01-01", "0d" + (1000 + i) + "s"));
+        }
+        var stats = DateHandler.getFormulaCacheStats();
+
+        assertTrue(stats.evictions() > 0);
+        assertTrue(stats.size() <= maxSize + 8, "Cache grew over its bound: " + stats);
+    }
+
+    @Test
+    public void testInvalidCalendarValues() {
+        assertThrows(IllegalArgumentException.class, () -> date.getYear("2017-02-30"));
+        assertThrows(IllegalArgumentException.class, () -> date.getYear("2017-13-01"));
+        assertThrows(IllegalArgumentException.class, () -> date.getHour("2017-02-04T24:00:00"));
+        assertThrows(IllegalArgumentException.class, () -> date.plus("2017-02-04T23:60:00", "1d"));
+        assertThrows(IllegalArgumentException.class, () -> date.daysBetweenDates("2017-02-29", "2017-03-01"));
+        assertThrows(AssertionError.class, () -> date.getYear("2017-02-04 12:00:00"));
+        assertThrows(AssertionError.class, () -> date.getYear("２０１７-02-04"));
+    }
+
+    @Test
+    public void testPlusKeepsLenientDateTimeInput() {
+        assertEquals(date.plus("2017-1-1T1:1:1", "1d"), "2017-01-02T01:01:01");
+        assertThrows(IllegalArgumentException.class, () -> date.plus("2017-01-01 01:01:01", "1d"));
+    }
+
+    @Test
+    public void testEpochDayFields() {
+        var epochDay = date.toEpochDay("2024-02-29T23:59:59");
+
+        assertEquals(epochDay, 19782);
+        assertEquals(date.yearOf(epochDay), 2024);
+        assertEquals(date.monthOf(epochDay), 2);
+        assertEquals(date.dayOf(epochDay), 29);
+        assertEquals(date.dayOfWeekOf(epochDay), 4);
+        assertEquals(date.yearOf(-1), 1969);
+        assertEquals(date.dayOf(-1), 31);
+        assertEquals(date.daysBetween(date.toEpochDay("2018-03-21"), date.toEpochDay("2018-03-20")), 1);
+
+        assertThrows(AssertionError.class, () -> date.toEpochDay("2017-02-0"));
+        assertThrows(IllegalArgumentException.class, () -> date.toEpochDay("2017-02-29"));
+    }
+
+    @Test
+    public void testPlusMinusEpochDay() {
+        var epochDay = date.toEpochDay("2024-01-31");
+
+        assertEquals(date.plusEpochDay(epochDay, "1M"), date.toEpochDay("2024-02-29"));
+        assertEquals(date.plusEpochDay(epochDay, "1y1M"), date.toEpochDay("2025-02-28"));
+        assertEquals(date.minusEpochDay(epochDay, "2M3d"), date.toEpochDay("2023-11-27"));
+
+        assertThrows(IllegalArgumentException.class, () -> date.plusEpochDay(epochDay, "1d2h"));
+    }
+
+    @Test
+    public void testEpochSecondInTimeZone() {
+        var kyiv = new DateHandler(kyivZone);
+        var epochSecond = kyiv.toEpochSecond("2024-03-30T12:34:56");
+
+        assertEquals(epochSecond, 1711794896L);
+        assertEquals(kyiv.hourOf(epochSecond), 12);
+        assertEquals(kyiv.minuteOf(epochSecond), 34);
+        assertEquals(kyiv.secondOf(epochSecond), 56);
+        assertEquals(date.hourOf(epochSecond), 10);
+        assertEquals(kyiv.epochDayOf(kyiv.toEpochSecond("2024-03-31T00:30:00")), kyiv.toEpochDay("2024-03-31"));
+
+        // Day is calendar day: 1d over the DST switch is 23 hours in Kyiv
+        assertEquals(kyiv.plusEpochSecond(epochSecond, "1d"), kyiv.toEpochSecond("2024-03-31T12:34:56"));
+        assertEquals(kyiv.plusEpochSecond(epochSecond, "1d") - epochSecond, 23 * 3600);
+        assertEquals(kyiv.minusEpochSecond(epochSecond, "1M1s"), kyiv.toEpochSecond("2024-02-29T12:34:55"));
+        assertThrows(IllegalArgumentException.class, () -> kyiv.toEpochSecond("2024-03-31T03:30:00"));
+    }
+
+    @Test
+    public void testPlusMinusAllEpochSeconds() {
+        var kyiv = new DateHandler(kyivZone);
+        var fixed = new DateHandler(DateTimeZone.forOffsetHours(3));
+        var epochSeconds = new long[1000];
+        for (int i = 0; i < epochSeconds.length; i++) {
+            epochSeconds[i] = 1_711_794_896L + i * 86_413L - 500 * 86_400L;
+        }
+
+        for (var handler : List.of(date, kyiv, fixed)) {
+            for (var formula : List.of("1d2h", "90m", "1M", "1y1s", "400d", "0d")) {
+                var plus = epochSeconds.clone();
+                var minus = epochSeconds.clone();
+                handler.plusAllEpochSeconds(plus, formula);
+                handler.minusAllEpochSeconds(minus, formula);
+
+                for (int i = 0; i < epochSeconds.length; i++) {
+                    assertEquals(plus[i], handler.plusEpochSecond(epochSeconds[i], formula), formula);
+                    assertEquals(minus[i], handler.minusEpochSecond(epochSeconds[i], formula), formula);
+                }
+            }
+        }
+        // Day is calendar day in a zone with DST
+        var overSwitch = new long[]{kyiv.toEpochSecond("2024-03-30T12:00:00")};
+        kyiv.plusAllEpochSeconds(overSwitch, "1d");
+        assertEquals(overSwitch[0], kyiv.toEpochSecond("2024-03-31T12:00:00"));
+
+        expectThrows(IllegalArgumentException.class, () -> date.plusAllEpochSeconds(new long[1], "d1"));
+        expectThrows(NullPointerException.class, () -> date.plusAllEpochSeconds(null, "1d"));
+    }
+
+    @Test
+    public void testEpochSecondsOverflow() {
+        var kyiv = new DateHandler(kyivZone);
+        long max = Long.MAX_VALUE / 1000;
+
+        assertEquals(date.plusEpochSecond(max - 60, "1m"), max);
+        expectThrows(ArithmeticException.class, () -> date.plusEpochSecond(max - 10, "1m"));
+        expectThrows(ArithmeticException.class, () -> date.minusEpochSecond(Long.MIN_VALUE + 10, "1s"));
+        // Fixed duration and calendar arithmetic reject the same instants, and the fixed one changes nothing then
+        for (var handler : List.of(date, kyiv)) {
+            for (var formula : List.of("1m", "1d")) {
+                var epochSeconds = new long[]{0, max - 10, Long.MAX_VALUE - 10};
+                var copy = epochSeconds.clone();
+                expectThrows(ArithmeticException.class, () -> handler.plusAllEpochSeconds(epochSeconds, formula));
+                expectThrows(ArithmeticException.class, () -> handler.plusEpochSecond(copy[1], formula));
+                expectThrows(ArithmeticException.class, () -> handler.plusEpochSecond(copy[2], formula));
+            }
+        }
+        var fixed = new long[]{0, max - 10};
+        expectThrows(ArithmeticException.class, () -> date.plusAllEpochSeconds(fixed, "1m"));
+        assertEquals(fixed, new long[]{0, max - 10});
+        var extremes = new long[]{Long.MIN_VALUE / 1000 + 60, max - 60};
+        date.minusAllEpochSeconds(extremes, "1m");
+        assertEquals(extremes, new long[]{Long.MIN_VALUE / 1000, max - 120});
+    }
+
+    @Test
+    public void testFixedClock() {
+        var fixed = Clock.fixed(Instant.parse("2024-03-30T22:30:15Z"), ZoneOffset.UTC);
+        var kyiv = DateHandler.builder().zone(kyivZone).clock(fixed).build();
+
+        assertEquals(kyiv.getCurrentDate(), "2024-03-31");
+        assertEquals(kyiv.getCurrentDateTime(), "2024-03-31T00:30:15");
+        assertEquals(kyiv.getDayOfWeek(), "Sunday");
+        assertEquals(kyiv.getHour(), 0);
+        assertEquals(kyiv.getSecond(), 15);
+        assertEquals(kyiv.plus("1d"), "2024-04-01");
+        assertEquals(kyiv.minus("1M"), "2024-02-29");
+    }
+
+    @Test
+    public void testCachedCurrentTimeFollowsClock() {
+        var clock = new MutableClock(Instant.parse("2024-03-30T21:59:59.250Z"));
+        var kyiv = DateHandler.builder().zone(kyivZone).clock(clock).cacheCurrentTime(true).build();
+
+        assertEquals(kyiv.getCurrentDate(), "2024-03-30");
+        assertEquals(kyiv.getCurrentDateTime(), "2024-03-30T23:59:59");
+
+        clock.advance(749);
+        assertEquals(kyiv.getCurrentDateTime(), "2024-03-30T23:59:59");
+
+        // Next second is the next day
+        clock.advance(1);
+        assertEquals(kyiv.getCurrentDateTime(), "2024-03-31T00:00:00");
+        assertEquals(kyiv.getCurrentDate(), "2024-03-31");
+
+        // DST switch: 03:00 follows 02:59:59
+        clock.advance(3 * 3600 * 1000L - 1);
+        assertEquals(kyiv.getCurrentDateTime(), "2024-03-31T02:59:59");
+        clock.advance(1);
+        assertEquals(kyiv.getCurrentDateTime(), "2024-03-31T04:00:00");
+
+        // Clock going back is not served from cache
+        clock.advance(-24 * 3600 * 1000L);
+        assertEquals(kyiv.getCurrentDate(), "2024-03-30");
+        assertEquals(kyiv.getCurrentDateTime(), "2024-03-30T03:00:00");
+    }
+
+    @Test
+    public void testCachedTodayShiftsFollowClock() {
+        var clock = new MutableClock(Instant.parse("2024-03-30T21:59:59Z"));
+        var kyiv = DateHandler.builder().zone(kyivZone).clock(clock).cacheTodayShifts(true).build();
+
+        var nextWeek = kyiv.plus("7d");
+        assertEquals(nextWeek, "2024-04-06");
+        assertSame(kyiv.plus("7d"), nextWeek);
+        assertEquals(kyiv.minus("1M"), "2024-02-29");
+        assertEquals(kyiv.plus("1M"), "2024-04-30");
+
+        // Midnight in Kyiv starts a new day of results
+        clock.advance(1000);
+        assertEquals(kyiv.plus("7d"), "2024-04-07");
+        assertEquals(kyiv.minus("1M"), "2024-02-29");
+        assertEquals(kyiv.minus("1d"), "2024-03-30");
+
+        clock.advance(-1000);
+        assertEquals(kyiv.plus("7d"), "2024-04-06");
+        expectThrows(IllegalArgumentException.class, () -> kyiv.plus("d7"));
+        expectThrows(IllegalArgumentException.class, () -> kyiv.minus(null));
+    }
+
+    @Test
+    public void testBuilderRejectsNullClock() {
+        assertThrows(NullPointerException.class, () -> DateHandler.builder().clock(null));
+    }
+
+    @Test
+    public void testPlusAllMinusAll() {
+        var starts = List.of("2024-01-31", "2024-03-30T12:00:00", "2023-02-28");
+
+        assertEquals(date.plusAll(starts, "1M"), List.of("2024-02-29", "2024-04-30T12:00:00", "2023-03-28"));
+        assertEquals(date.minusAll(starts, "1d1h"),
+                List.of("2024-01-29T23:00:00", "2024-03-29T11:00:00", "2023-02-26T23:00:00"));
+        assertEquals(date.plusAll(new String[]{"2024-01-31", "2024-12-31"}, "1d"),
+                new String[]{"2024-02-01", "2025-01-01"});
+        assertEquals(date.minusAll(new String[0], "1d"), new String[0]);
+        assertThrows(IllegalArgumentException.class, () -> date.plusAll(starts, "x1"));
+    }
+
+    @Test
+    public void testPlusAllMatchesPlusOnLargeInput() {
+        var starts = largeInput();
+        var shifted = date.plusAll(starts, "1y2M3d4h");
+
+        assertEquals(shifted.size(), starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            assertEquals(shifted.get(i), date.plus(starts.get(i), "1y2M3d4h"));
+        }
+    }
+
+    @Test
+    public void testPlusAllOfLinkedList() {
+        // Read by index, a linked list took time quadratic in its size
+        var starts = largeInput();
+        var linked = new LinkedList<>(starts);
+
+        assertEquals(date.plusAll(linked, "1d"), date.plusAll(starts, "1d"));
+        assertEquals(date.minusAll(linked, "1d", BatchErrorMode.COLLECT).values(), date.minusAll(starts, "1d"));
+    }
+
+    @Test
+    public void testPlusAllFailsOnFirstError() {
+        var starts = largeInput();
+        starts.set(90_000, "2024-02-30");
+        starts.set(30_000, "not a date");
+
+        var error = expectThrows(IllegalArgumentException.class, () -> date.plusAll(starts, "1d"));
+        assertEquals(error.getMessage(), "Invalid format: \"not a date\"");
+    }
+
+    @Test
+    public void testPlusAllCollectsErrors() {
+        var starts = largeInput();
+        starts.set(90_000, "2024-02-30");
+        starts.set(30_000, "not a date");
+
+        var result = date.minusAll(starts, "1d", BatchErrorMode.COLLECT);
+
+        assertTrue(result.hasErrors());
+        assertEquals(new ArrayList<>(result.errors().keySet()), List.of(30_000, 90_000));
+        assertTrue(result.errors().get(90_000).getMessage().startsWith("Value 30 for dayOfMonth"));
+        assertNull(result.values().get(30_000));
+        assertNull(result.values().get(90_000));
+        assertEquals(result.values().get(30_001), date.minus(starts.get(30_001), "1d"));
+
+        var failFast = date.plusAll(List.of("2024-01-01"), "1d", BatchErrorMode.FAIL_FAST);
+        assertFalse(failFast.hasErrors());
+        assertEquals(failFast.values(), List.of("2024-01-02"));
+    }
+
+    @Test
+    public void testIsValid() {
+        assertTrue(date.isValid("2024-02-29"));
+        assertTrue(date.isValid("2024-02-29T23:59:59"));
+        assertFalse(date.isValid("2023-02-29"));
+        assertFalse(date.isValid("2024-04-31T10:00:00"));
+        assertFalse(date.isValid("2024-13-01"));
+        assertFalse(date.isValid("2024-01-01T24:00:00"));
+        assertFalse(date.isValid("2024-1-01"));
+        assertFalse(date.isValid("2024-01-01 10:00:00"));
+        assertFalse(date.isValid(""));
+        assertFalse(date.isValid(null));
+    }
+
+    @Test
+    public void testTryParse() {
+        assertEquals(date.tryParse("2024-03-30T12:34:56").getAsLong(), new DateTime(2024, 3, 30, 12, 34, 56).getMillis());
+        assertEquals(date.tryParse("2024-03-30").getAsLong(), new DateTime(2024, 3, 30, 0, 0).getMillis());
+        assertTrue(date.tryParse("2024-02-30").isEmpty());
+        assertTrue(date.tryParse("30.03.2024").isEmpty());
+        assertTrue(date.tryParse(null).isEmpty());
+    }
+
+    @Test
+    public void testTryToEpochSecond() {
+        var kyiv = new DateHandler(kyivZone);
+
+        assertEquals(kyiv.tryToEpochSecond("2024-03-30T12:34:56").getAsLong(), 1711794896L);
+        // DST gap and overlap in Kyiv: the overlap resolves to the earlier instant
+        assertTrue(kyiv.tryToEpochSecond("2024-03-31T03:30:00").isEmpty());
+        assertEquals(kyiv.tryToEpochSecond("2024-10-27T03:30:00").getAsLong(), 1729989000L);
+        assertEquals(kyiv.toEpochSecond("2024-10-27T03:30:00"), 1729989000L);
+        assertTrue(kyiv.tryToEpochSecond("2024-02-30T00:00:00").isEmpty());
+        assertTrue(kyiv.tryToEpochSecond("2024-03-30T12:34").isEmpty());
+    }
+
+    @Test
+    public void testInvalidFormatMessage() {
+        var error = expectThrows(AssertionError.class, () -> date.getYear("2024/03/30"));
+        assertEquals(error.getMessage(), "Incorrect date format expected [true] but found [false]");
+        expectThrows(AssertionError.class, () -> date.toEpochDay("2024/03/30"));
+    }
+
+    @Test
+    public void testParsed() {
+        var parsed = date.parsed("2024-01-31T12:34:56");
+
+        assertEquals(parsed.getYear(), 2024);
+        assertEquals(parsed.getMonth(), 1);
+        assertEquals(parsed.getDay(), 31);
+        assertEquals(parsed.getHour(), 12);
+        assertEquals(parsed.getMinute(), 34);
+        assertEquals(parsed.getSecond(), 56);
+        assertTrue(parsed.hasTime());
+        assertEquals(parsed.getDayOfWeek(), "Wednesday");
+        assertEquals(parsed.toString(), "2024-01-31T12:34:56");
+        assertEquals(parsed.plus("1M").toString(), "2024-02-29T12:34:56");
+        assertEquals(parsed.minus("1d13h").toString(), "2024-01-29T23:34:56");
+        assertEquals(parsed.getDayInWeek("Sunday").toString(), "2024-02-04");
+        assertEquals(parsed, ParsedDate.parse("2024-01-31T12:34:56"));
+    }
+
+    @Test
+    public void testParsedDateMatchesStringMethods() {
+        var parsed = date.parsed("2024-02-29");
+
+        assertFalse(parsed.hasTime());
+        assertEquals(parsed.getHour(), 0);
+        assertEquals(parsed.toString(), "2024-02-29");
+        assertEquals(parsed.plus("1y").toString(), date.plus("2024-02-29", "1y"));
+        assertEquals(parsed.plus("2h").toString(), date.plus("2024-02-29", "2h"));
+        assertEquals(parsed.minus("1y1M1d").toString(), date.minus("2024-02-29", "1y1M1d"));
+        assertEquals(parsed.getDayInWeek("Monday").toString(), date.getStartOfWeek("2024-02-29"));
+        assertEquals(parsed.daysBetween(date.parsed("2024-03-20T10:00:00")), 20);
+        assertEquals(parsed.daysBetween(date.parsed("2023-03-01")), date.daysBetweenDates("2024-02-29", "2023-03-01"));
+        assertEquals(date.parsed("0099-12-31").plus("1d").toString(), "0100-01-01");
+    }
+
+    @Test
+    public void testParsedRejectsInvalidDates() {
+        expectThrows(AssertionError.class, () -> date.parsed("2024-2-29"));
+        expectThrows(IllegalArgumentException.class, () -> date.parsed("2023-02-29"));
+        expectThrows(IllegalArgumentException.class, () -> date.parsed("2023-13-01T00:00:00"));
+        expectThrows(IllegalArgumentException.class, () -> date.parsed("2023-01-01").plus("x1"));
+    }
+
+    @Test
+    public void testAppendOverloads() {
+        var fixed = Clock.fixed(Instant.parse("2024-03-30T22:30:15Z"), ZoneOffset.UTC);
+        var kyiv = DateHandler.builder().zone(kyivZone).clock(fixed).build();
+        var out = new StringBuilder("[");
+
+        date.plus("2024-01-31", "1M", out);
+        date.minus("2024-03-01T00:30:00", "1d1h", out.append(','));
+        kyiv.getCurrentDateTime(out.append(','));
+        date.getStartOfWeek("2024-03-30T12:34:56", out.append(','));
+        date.plus("9999-12-31", "1d", out.append(','));
+        date.minus("0000-01-01", "1y", out.append(','));
+
+        assertEquals(out.append(']').toString(),
+                "[2024-02-29,2024-02-28T23:30:00,2024-03-31T00:30:15,2024-03-25,10000-01-01,-0001-01-01]");
+    }
+
+    @Test
+    public void testCharArrayOverloads() {
+        var fixed = Clock.fixed(Instant.parse("2024-03-30T22:30:15Z"), ZoneOffset.UTC);
+        var kyiv = DateHandler.builder().zone(kyivZone).clock(fixed).cacheCurrentTime(true).build();
+        var buffer = new char[64];
+        buffer[0] = '[';
+
+        int end = date.plus("2024-01-31", "1M", buffer, 1);
+        buffer[end] = ',';
+        end = date.minus("2024-03-01T00:30:00", "1d1h", buffer, end + 1);
+        buffer[end] = ',';
+        end = kyiv.getCurrentDateTime(buffer, end + 1);
+
+        assertEquals(new String(buffer, 0, end), "[2024-02-29,2024-02-28T23:30:00,2024-03-31T00:30:15");
+        assertEquals(date.getStartOfWeek("2024-03-30", buffer, 60 - 10), 60);
+        assertEquals(new String(buffer, 50, 10), "2024-03-25");
+    }
+
+    @Test
+    public void testCharArrayOverloadsDontWritePastBuffer() {
+        var buffer = "0123456789abcdefghijklmn".toCharArray();
+
+        expectThrows(IndexOutOfBoundsException.class, () -> date.plus("2024-01-31", "1h", buffer, 6));
+        expectThrows(IndexOutOfBoundsException.class, () -> date.getCurrentDateTime(buffer, -1));
+        assertEquals(new String(buffer), "0123456789abcdefghijklmn");
+        assertEquals(date.plus("2024-01-31", "1h", buffer, 5), 24);
+        assertEquals(new String(buffer), "012342024-01-31T01:00:00");
+    }
+
+    @Test
+    public void testReadInPlace() {
+        var row = new StringBuilder("42,2024-01-31,2024-03-30T12:34:56,done");
+
+        assertEquals(date.getYear(row, 3), 2024);
+        assertEquals(date.plus(row, 3, "1M"), "2024-02-29");
+        assertEquals(date.minus(row, 14, "1d1h"), "2024-03-29T11:34:56");
+        assertEquals(date.daysBetweenDates(row, 3, row, 14), 59);
+        assertEquals(date.daysBetweenDates(row, 14, "1970-01-01", 0), 19812);
+    }
+
+    @Test
+    public void testReadInPlaceFromBytes() {
+        var bytes = ByteBuffer.wrap("42,2024-01-31,2024-03-30T12:34:56,done".getBytes(StandardCharsets.US_ASCII));
+        bytes.position(20);
+
+        assertEquals(date.getYear(bytes, 14), 2024);
+        assertEquals(date.plus(bytes, 3, "1M"), "2024-02-29");
+        assertEquals(date.minus(bytes, 14, "1d1h"), "2024-03-29T11:34:56");
+        assertEquals(date.daysBetweenDates(bytes, 3, bytes, 14), 59);
+        assertEquals(bytes.position(), 20);
+    }
+
+    @Test
+    public void testReadInPlaceRejectsInvalidDates() {
+        var row = "2024-1-31,2023-02-29,2024-03-30T25:00:00,2024-03";
+
+        expectThrows(AssertionError.class, () -> date.getYear(row, 0));
+        expectThrows(IllegalArgumentException.class, () -> date.plus(row, 10, "1d"));
+        expectThrows(IllegalArgumentException.class, () -> date.minus(row, 21, "1d"));
+        expectThrows(AssertionError.class, () -> date.getYear(row, 41));
+        expectThrows(IndexOutOfBoundsException.class, () -> date.getYear(row, row.length()));
+        expectThrows(IndexOutOfBoundsException.class, () -> date.getYear(ByteBuffer.allocate(4), -1));
+    }
+
+    @Test
+    public void testBasicFormatIsKept() {
+        assertEquals(date.plus("20240131", "1M"), "20240229");
+        assertEquals(date.plus("20240131", "1h"), "20240131T010000");
+        assertEquals(date.minus("20240330T123456", "1d1h"), "20240329T113456");
+        assertEquals(date.getStartOfWeek("20240330T123456"), "20240325");
+        assertEquals(date.parsed("20240229").plus("1y").toString(), "20250228");
+        assertEquals(date.range("20240131", "20240401", "1M").toList(), List.of("20240131", "20240229", "20240331"));
+        assertEquals(date.toEpochDay("20240330"), date.toEpochDay("2024-03-30"));
+
+        var out = new StringBuilder();
+        date.plus("20240131T235959", "1s", out);
+        assertEquals(out.toString(), "20240201T000000");
+    }
+
+    @Test
+    public void testFractionAndOffsetAreKept() {
+        assertEquals(date.plus("2024-03-30T23:59:59.250", "1s"), "2024-03-31T00:00:00.250");
+        assertEquals(date.plus("2024-03-30T23:30:00Z", "1h"), "2024-03-31T00:30:00Z");
+        assertEquals(date.minus("2024-03-30T00:30:00.123456789-05:00", "1h"), "2024-03-29T23:30:00.123456789-05:00");
+        assertEquals(date.plus("20240330T233000.5+0530", "1h"), "20240331T003000.5+0530");
+        assertEquals(date.parsed("2024-03-30T23:59:59.250+01:00").plus("1s").toString(),
+                "2024-03-31T00:00:00.250+01:00");
+        assertEquals(date.parsed("2024-03-30T23:59:59Z").getDayInWeek("Sunday").toString(), "2024-03-31");
+        assertEquals(date.plusAll(List.of("2024-01-31T10:00:00Z", "2024-01-31"), "1d"),
+                List.of("2024-02-01T10:00:00Z", "2024-02-01"));
+
+        var buffer = new char[32];
+        assertEquals(date.plus("2024-03-30T23:59:59.250", "1s", buffer, 2), 25);
+        assertEquals(new String(buffer, 2, 23), "2024-03-31T00:00:00.250");
+    }
+
+    @Test
+    public void testOffsetSetsTimeZone() {
+        var kyiv = new DateHandler(kyivZone);
+
+        // 02:30 doesn't exist in Kyiv on 2024-03-31, but it does at a fixed offset
+        assertEquals(date.plus("2024-03-31T02:30:00+02:00", "1d"), "2024-04-01T02:30:00+02:00");
+        assertEquals(kyiv.toEpochSecond("2024-03-30T12:34:56"), 1711794896L);
+        assertEquals(kyiv.toEpochSecond("2024-03-30T12:34:56+02:00"), 1711794896L);
+        assertEquals(kyiv.toEpochSecond("2024-03-30T10:34:56Z"), 1711794896L);
+        assertEquals(kyiv.toEpochSecond("2024-03-30T12:34:56.999Z"), 1711802096L);
+        assertEquals(date.tryParse("2024-03-30T10:34:56.5-00:30").getAsLong(), 1711796696500L);
+        assertEquals(date.tryParse("2024-03-30T10:34:56.0129Z").getAsLong(), 1711794896012L);
+        assertEquals(date.range("2024-03-30T22:00:00Z", "2024-03-31T02:00:00+02:00", "1h").toList(),
+                List.of("2024-03-30T22:00:00Z", "2024-03-30T23:00:00Z"));
+        assertEquals(date.parsed("2024-03-30T12:00:00Z"), date.parsed("2024-03-30T12:00:00Z"));
+        assertNotEquals(date.parsed("2024-03-30T12:00:00Z"), date.parsed("2024-03-30T12:00:00+00:00"));
+    }
+
+    @Test
+    public void testRejectsMalformedFractionAndOffset() {
+        for (var text : List.of("2024-03-30T12:00:00.", "2024-03-30T12:00:00.1234567890", "2024-03-30T12:00:00+2:00",
+                "2024-03-30T12:00:00+0200", "20240330T120000+02:00", "2024-03-30T12:00:00Zx", "2024-03-30.5",
+                "2024-03-30T12:00:00,5", "2024033", "202403300", "20240330T1200")) {
+            expectThrows(AssertionError.class, () -> date.parsed(text));
+            assertFalse(date.isValid(text), text);
+        }
+        expectThrows(IllegalArgumentException.class, () -> date.plus("2024-03-30T12:00:00+18:01", "1d"));
+        expectThrows(IllegalArgumentException.class, () -> date.plus("2024-03-30T12:00:00-19:00", "1d"));
+        expectThrows(IllegalArgumentException.class, () -> date.plus("20241330", "1d"));
+        expectThrows(IllegalArgumentException.class, () -> date.plus("2024-02-30T12:00:00.5Z", "1d"));
+        assertEquals(date.plus("2024-03-30T12:00:00-18:00", "1d"), "2024-03-31T12:00:00-18:00");
+    }
+
+    @Test
+    public void testRange() {
+        assertEquals(date.range("2024-01-31", "2024-05-01", "1M").toList(),
+                List.of("2024-01-31", "2024-02-29", "2024-03-31", "2024-04-30"));
+        assertEquals(date.range("2024-02-28T12:00:00", "2024-03-01T12:00:00", "12h").toList(),
+                List.of("2024-02-28T12:00:00", "2024-02-29T00:00:00", "2024-02-29T12:00:00", "2024-03-01T00:00:00"));
+        assertEquals(date.range("2024-01-01", "2024-01-03", "1d1h").toList(),
+                List.of("2024-01-01T00:00:00", "2024-01-02T01:00:00"));
+        assertEquals(date.range("2024-01-01", "2024-01-01", "1d").count(), 0);
+        assertEquals(date.range("2024-01-02", "2024-01-01", "1d").count(), 0);
+
+        expectThrows(IllegalArgumentException.class, () -> date.range("2024-01-01", "2024-02-01", "0d"));
+        expectThrows(IllegalArgumentException.class, () -> date.range("2024-01-01", "2024-02-30", "1d"));
+        expectThrows(AssertionError.class, () -> date.range("2024-01-1", "2024-02-01", "1d"));
+    }
+
+    @Test
+    public void testRangeMatchesPlus() {
+        var start = "2020-01-31T12:00:00";
+        var range = date.range(start, "2030-01-01T00:00:00", "1M1d3h").toList();
+
+        assertEquals(range.size(), 115);
+        for (int i = 0; i < range.size(); i++) {
+            assertEquals(range.get(i), date.plus(start, i + "M" + i + "d" + 3 * i + "h"));
+        }
+        assertEquals(date.range(start, "2030-01-01T00:00:00", "1M1d3h").parallel().toList(), range);
+    }
+
+    @Test
+    public void testRangeIsSizedAndSplits() {
+        var days = date.range("1970-01-01", "2970-01-01", "1d").parallel();
+        var spliterator = days.spliterator();
+
+        assertEquals(spliterator.getExactSizeIfKnown(), 365_243);
+        var prefix = spliterator.trySplit();
+        assertEquals(prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown(), 365_243);
+        assertEquals(date.range("1970-01-01", "2970-01-01", "1d").parallel().skip(365_242).findFirst().orElseThrow(),
+                "2969-12-31");
+    }
+
+    @Test
+    public void testRangeEpoch() {
+        var kyiv = new DateHandler(kyivZone);
+        var start = kyiv.toEpochSecond("2024-03-30T12:00:00");
+        var end = kyiv.toEpochSecond("2024-04-02T00:00:00");
+
+        assertEquals(kyiv.rangeEpochSecond(start, end, "1d").toArray(), new long[]{
+                start, kyiv.toEpochSecond("2024-03-31T12:00:00"), kyiv.toEpochSecond("2024-04-01T12:00:00")});
+        assertEquals(kyiv.rangeEpochSecond(start, start + 3600, "20m").parallel().toArray(), new long[]{
+                start, start + 1200, start + 2400});
+        assertEquals(date.rangeEpochDay(date.toEpochDay("2024-01-31"), date.toEpochDay("2024-04-01"), "1M").toArray(),
+                new int[]{date.toEpochDay("2024-01-31"), date.toEpochDay("2024-02-29"), date.toEpochDay("2024-03-31")});
+        assertEquals(date.rangeEpochDay(0, 1_000_000, "1d").parallel().asLongStream().sum(), 499_999_500_000L);
+
+        expectThrows(IllegalArgumentException.class, () -> date.rangeEpochDay(0, 10, "1h"));
+        expectThrows(IllegalArgumentException.class, () -> date.rangeEpochSecond(0, 10, "0s"));
+    }
+
+    @Test
+    public void testMetricsCountOperationsAndFailures() {
+        var metrics = new InMemoryMetrics();
+        var date = DateHandler.builder().metrics(metrics).build();
+
+        date.plus("2024-01-31", "1M");
+        date.minusEpochDay(0, "1d");
+        date.plusAll(List.of("2024-01-01", "2024-01-02"), "1d");
+        date.range("2024-01-01", "2024-01-05", "1d").count();
+        assertFalse(date.isValid("2024-02-30"));
+        assertFalse(date.isValid("2024-2-3"));
+        expectThrows(AssertionError.class, () -> date.getYear("2024-1-1"));
+        expectThrows(IllegalArgumentException.class, () -> date.plus("2024-01-01", "d1"));
+        expectThrows(IllegalArgumentException.class, () -> date.parsed("2023-02-29"));
+
+        assertEquals(metrics.count(DateOperation.PLUS), 2);
+        assertEquals(metrics.count(DateOperation.MINUS), 1);
+        assertEquals(metrics.count(DateOperation.PLUS_ALL), 1);
+        assertEquals(metrics.count(DateOperation.MINUS_ALL), 0);
+        assertEquals(metrics.count(DateOperation.RANGE), 1);
+        assertEquals(metrics.count(DateOperation.PARSE), 3);
+        assertEquals(metrics.failures(FailureReason.INVALID_FORMAT), 2);
+        assertEquals(metrics.failures(FailureReason.INVALID_DATE), 2);
+        assertEquals(metrics.failures(FailureReason.INVALID_FORMULA), 1);
+        assertEquals(metrics.latencyHistogram(DateOperation.PLUS), new long[InMemoryMetrics.LATENCY_BUCKETS]);
+    }
+
+    @Test
+    public void testMetricsLatencyHistogram() {
+        var metrics = new InMemoryMetrics(true);
+        var date = DateHandler.builder().metrics(metrics).build();
+
+        for (int i = 0; i < 100; i++) {
+            date.minus("2024-01-31T12:00:00", "1d");
+        }
+        expectThrows(IllegalArgumentException.class, () -> date.minus("2024-01-31T12:00", "1d"));
+
+        assertEquals(metrics.count(DateOperation.MINUS), 101);
+        assertEquals(LongStream.of(metrics.latencyHistogram(DateOperation.MINUS)).sum(), 100);
+        assertEquals(LongStream.of(metrics.latencyHistogram(DateOperation.PLUS)).sum(), 0);
+        assertEquals(metrics.failures(FailureReason.INVALID_FORMAT), 1);
+
+        metrics.onLatency(DateOperation.PARSE, 0);
+        metrics.onLatency(DateOperation.PARSE, 1023);
+        metrics.onLatency(DateOperation.PARSE, 1024);
+        metrics.onLatency(DateOperation.PARSE, Long.MAX_VALUE);
+        var histogram = metrics.latencyHistogram(DateOperation.PARSE);
+        assertEquals(histogram[0], 1);
+        assertEquals(histogram[10], 1);
+        assertEquals(histogram[11], 1);
+        assertEquals(histogram[63], 1);
+        assertEquals(LongStream.of(histogram).sum(), 4);
+    }
+
+    @Test
+    public void testBuilderRejectsNullMetrics() {
+        expectThrows(NullPointerException.class, () -> DateHandler.builder().metrics(null));
+    }
+
+    @Test
+    public void testForZone() {
+        var kyiv = DateHandler.forZone("Europe/Kiev");
+
+        assertSame(DateHandler.forZone("Europe/Kiev"), kyiv);
+        assertSame(DateHandler.forZone(DateTimeZone.forID("Europe/Kiev")), kyiv);
+        assertSame(DateHandler.forZone("UTC"), DateHandler.forZone(DateTimeZone.UTC));
+        assertNotSame(DateHandler.forZone("Asia/Tokyo"), kyiv);
+        assertEquals(kyiv.toEpochSecond("2024-03-30T12:34:56"), 1711794896L);
+        assertEquals(kyiv.plusEpochSecond(1711794896L, "1d") - 1711794896L, 23 * 3600);
+
+        expectThrows(IllegalArgumentException.class, () -> DateHandler.forZone("Europe/Nowhere"));
+        expectThrows(NullPointerException.class, () -> DateHandler.forZone((String) null));
+        expectThrows(NullPointerException.class, () -> DateHandler.forZone((DateTimeZone) null));
+    }
+
+    @Test
+    public void testForZoneIsSharedAcrossVirtualThreads() throws Exception {
+        var ids = List.of("UTC", "Europe/Kiev", "America/Sao_Paulo", "Asia/Tokyo", "Australia/Lord_Howe", "+05:30");
+        var expected = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            var reference = new DateHandler(DateTimeZone.forID(ids.get(i)));
+            expected[i] = reference.plusEpochSecond(reference.toEpochSecond("2024-03-30T12:00:00"), "1M1d1h");
+        }
+
+        var tasks = new ArrayList<Future<DateHandler>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                var index = i % ids.size();
+                tasks.add(executor.submit(() -> {
+                    var handler = DateHandler.forZone(ids.get(index));
+                    var shifted = handler.plusEpochSecond(handler.toEpochSecond("2024-03-30T12:00:00"), "1M1d1h");
+                    assertEquals(shifted, expected[index]);
+                    return handler;
+                }));
+            }
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            assertSame(tasks.get(i).get(), DateHandler.forZone(ids.get(i % ids.size())));
+        }
+    }
+
+    private static List<String> largeInput() {
+        // Times around noon, away from DST transitions of the default time zone
+        var start = new DateTime(2020, 1, 1, 12, 0, DateTimeZone.UTC);
+        var starts = new ArrayList<String>();
+        for (int i = 0; i < 100_000; i++) {
+            var dateTime = start.plusDays(i % 10_000).plusSeconds(i * 37 % 3600);
+            starts.add(i % 2 == 0 ? dateTime.toString("yyyy-MM-dd") : dateTime.toString("yyyy-MM-dd'T'HH:mm:ss"));
+        }
+
+        return starts;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(long millis) {
+            instant = instant.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
 }
@@ -0,0 +1,9 @@
+import com.mbi.DateEngineType;
+
+public class JavaTimeEngineConformanceTest extends DateEngineConformanceTest {
+
+    @Override
+    protected DateEngineType engine() {
+        return DateEngineType.JAVA_TIME;
+    }
+}
@@ -0,0 +1,9 @@
+import com.mbi.DateEngineType;
+
+public class JodaEngineConformanceTest extends DateEngineConformanceTest {
+
+    @Override
+    protected DateEngineType engine() {
+        return DateEngineType.JODA;
+    }
+}
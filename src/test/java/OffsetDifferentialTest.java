@@ -0,0 +1,110 @@
+import com.mbi.DateHandler;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Compares single-step offset application with the chained plusYears/plusMonths/.../plusSeconds it replaced.
+ */
+public class OffsetDifferentialTest {
+
+    private static final int SAMPLES = 20_000;
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    @DataProvider
+    public Object[][] zones() {
+        return new Object[][]{
+                {"UTC"},
+                {"Europe/Kiev"},
+                {"America/New_York"},
+                {"America/Sao_Paulo"},
+                {"Australia/Lord_Howe"},
+                {"Pacific/Apia"},
+                {"Asia/Kathmandu"},
+        };
+    }
+
+    @Test(dataProvider = "zones")
+    public void testEpochSecondOffsetMatchesChainedImplementation(String zoneId) {
+        var zone = DateTimeZone.forID(zoneId);
+        var handler = new DateHandler(zone);
+        var random = new Random(zoneId.hashCode());
+
+        for (int i = 0; i < SAMPLES; i++) {
+            // 1950..2050, biased to the last day of month and to DST switch hours
+            var start = new DateTime(1950 + random.nextInt(100), 1 + random.nextInt(12), 1, 12, 0, zone)
+                    .plusDays(random.nextBoolean() ? 27 + random.nextInt(4) : random.nextInt(31))
+                    .plusMinutes(random.nextBoolean() ? random.nextInt(24 * 60) : 13 * 60 + random.nextInt(180))
+                    .plusSeconds(random.nextInt(60));
+            var formula = randomFormula(random);
+            var epochSecond = start.getMillis() / 1000;
+
+            assertEquals(handler.plusEpochSecond(epochSecond, formula), chained(start, formula, true).getMillis() / 1000,
+                    start + " + " + formula);
+            assertEquals(handler.minusEpochSecond(epochSecond, formula), chained(start, formula, false).getMillis() / 1000,
+                    start + " - " + formula);
+        }
+    }
+
+    @Test
+    public void testStringOffsetMatchesChainedImplementation() {
+        var handler = new DateHandler();
+        var random = new Random(42);
+
+        for (int i = 0; i < SAMPLES; i++) {
+            var start = new DateTime(1950 + random.nextInt(100), 1 + random.nextInt(12), 1, 12, 0)
+                    .dayOfMonth().withMaximumValue()
+                    .plusSeconds(random.nextInt(24 * 3600));
+            var formula = randomFormula(random);
+            var text = dateTimeFormatter.print(start);
+            // Local time in an overlap is ambiguous: take the instant the text stands for
+            var parsed = dateTimeFormatter.parseDateTime(text);
+
+            assertEquals(handler.plus(text, formula), dateTimeFormatter.print(chained(parsed, formula, true)));
+            assertEquals(handler.minus(text, formula), dateTimeFormatter.print(chained(parsed, formula, false)));
+        }
+    }
+
+    private static String randomFormula(Random random) {
+        var units = new String[]{"y", "M", "d", "h", "m", "s"};
+        var bounds = new int[]{5, 30, 400, 100, 3000, 100_000};
+        var formula = new StringBuilder();
+        for (int unit = 0; unit < units.length; unit++) {
+            if (random.nextInt(3) == 0) {
+                formula.append(random.nextInt(bounds[unit])).append(units[unit]);
+            }
+        }
+
+        return formula.isEmpty() ? "0d" : formula.toString();
+    }
+
+    private static DateTime chained(DateTime base, String formula, boolean add) {
+        int y = 0, mo = 0, d = 0, h = 0, m = 0, s = 0;
+        var matcher = java.util.regex.Pattern.compile("(\\d+)([yMdhms])").matcher(formula);
+        while (matcher.find()) {
+            var value = Integer.parseInt(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "y" -> y = value;
+                case "M" -> mo = value;
+                case "d" -> d = value;
+                case "h" -> h = value;
+                case "m" -> m = value;
+                default -> s = value;
+            }
+        }
+
+        return (add ? base.plusYears(y) : base.minusYears(y))
+                .plusMonths(add ? mo : -mo)
+                .plusDays(add ? d : -d)
+                .plusHours(add ? h : -h)
+                .plusMinutes(add ? m : -m)
+                .plusSeconds(add ? s : -s);
+    }
+}